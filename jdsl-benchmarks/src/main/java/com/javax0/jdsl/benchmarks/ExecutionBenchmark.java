@@ -0,0 +1,58 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import com.javax0.jdsl.executors.Executor;
+import com.javax0.jdsl.executors.ExecutorCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the executor tree of an interpreter program that was analyzed in
+ * the setup. In the {@code compiled} mode the executor tree is compiled by
+ * {@link ExecutorCompiler} in the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss64m"})
+public class ExecutionBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int size;
+
+    @Param({"interpreted", "compiled"})
+    public String mode;
+
+    private Executor executor;
+
+    @Setup
+    public void setup() {
+        Reporters.set(Reporters.NULL);
+        final AnalysisResult result = new InterpreterGrammar().analyze(new StringSourceCode(InterpreterGrammar.program(size)));
+        if (!result.wasSuccessful()) {
+            throw new IllegalStateException("The interpreter grammar does not accept the generated program");
+        }
+        executor = "compiled".equals(mode) ? ExecutorCompiler.compile(result.getExecutor()) : result.getExecutor();
+    }
+
+    @Benchmark
+    public Object execute() {
+        final InterpreterGrammar.InterpreterContext context = new InterpreterGrammar.InterpreterContext();
+        executor.execute(context);
+        return context;
+    }
+}
@@ -0,0 +1,75 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyzes generated inputs with the tutorial interpreter grammar and the
+ * if-grammar. The result of the benchmark is the time to analyze the whole
+ * input, divide the size by it to get the throughput in characters per second.
+ * <p>
+ * The 100 MB inputs need a large heap, the fork is started with
+ * {@code -Xmx8g}. Use {@code -p size=1024} to run only some of the sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss64m", "-Xmx8g"})
+public class GrammarBenchmark {
+
+    @Param({"interpreter", "if"})
+    public String grammar;
+
+    @Param({"1024", "1048576", "104857600"})
+    public int size;
+
+    @Param({Reporters.NULL, Reporters.LOG})
+    public String reporter;
+
+    @Param({"interpreted", "compiled"})
+    public String mode;
+
+    private GrammarDefinition grammarDefinition;
+    private String source;
+
+    @Setup
+    public void setup() {
+        Reporters.set(reporter);
+        switch (grammar) {
+            case "interpreter":
+                grammarDefinition = new InterpreterGrammar("compiled".equals(mode));
+                source = InterpreterGrammar.program(size);
+                break;
+            case "if":
+                grammarDefinition = new IfGrammar("compiled".equals(mode));
+                source = IfGrammar.source(size);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown grammar '" + grammar + "'");
+        }
+        if (!analyze().wasSuccessful()) {
+            throw new IllegalStateException("The " + grammar + " grammar does not accept the generated input");
+        }
+    }
+
+    @Benchmark
+    public AnalysisResult analyze() {
+        return grammarDefinition.analyze(new StringSourceCode(source));
+    }
+}
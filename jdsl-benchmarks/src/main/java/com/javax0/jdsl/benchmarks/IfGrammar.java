@@ -0,0 +1,68 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.executors.AbstractListExecutor;
+import com.javax0.jdsl.executors.Context;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+
+/**
+ * The if-grammar of {@code GrammarTest} (in the test sources of jdsl).
+ */
+public class IfGrammar extends GrammarDefinition {
+    private final boolean compiled;
+
+    public IfGrammar() {
+        this(false);
+    }
+
+    /**
+     * @param compiled when {@code true} the grammar is compiled calling {@code compile()}
+     */
+    public IfGrammar(final boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    @Override
+    protected Analyzer define() {
+        if (compiled) {
+            compile();
+        }
+        skipSpaces();
+        final Define expression = later("expression");
+        final Analyzer ifStatement = list(IfExecutor::new,
+                kw("if", "("), expression, kw(")", "{"), expression,
+                kw("}"), optional(kw("else", "{"), expression, kw("}")));
+        expression.define(or(ifStatement, number(),
+                list(kw("{"), many(expression), kw("}"))));
+        return many(expression);
+    }
+
+    /**
+     * Generate a source of about {@code size} characters containing if
+     * statements nested a few levels deep.
+     */
+    public static String source(final int size) {
+        final StringBuilder sb = new StringBuilder(size + 64);
+        int i = 0;
+        while (sb.length() < size) {
+            sb.append("if(").append(i % 2).append("){ if(1){").append(i).append("}else{ {1 2 3} } }else{")
+                    .append(i % 13).append("}\n");
+            i++;
+        }
+        return sb.toString();
+    }
+
+    private static class IfExecutor extends AbstractListExecutor {
+        @Override
+        public Object execute(final Context context) {
+            final Long condition = (Long) getExecutor(0).execute(context);
+            if (condition != 0) {
+                return numberOfExecutors() > 1 ? getExecutor(1).execute(context) : null;
+            }
+            return numberOfExecutors() > 2 ? getExecutor(2).execute(context) : null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.Rule;
+import com.javax0.jdsl.executors.AbstractListExecutor;
+import com.javax0.jdsl.executors.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.javax0.jdsl.analyzers.terminals.IdentifierAnalyzer.identifier;
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+
+/**
+ * The grammar of the tutorial {@code SimpleInterpreter} (in the test sources of
+ * jdsl) with its executors. The print command does not print, so that the
+ * execution benchmarks do not measure the console.
+ */
+public class InterpreterGrammar extends GrammarDefinition {
+    private final boolean compiled;
+
+    public InterpreterGrammar() {
+        this(false);
+    }
+
+    /**
+     * @param compiled when {@code true} the grammar is compiled calling {@code compile()}
+     */
+    public InterpreterGrammar(final boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    @Override
+    protected Analyzer define() {
+        if (compiled) {
+            compile();
+        }
+        skipSpaces();
+        final Define expression = later("expression");
+        final Rule tag = or(number(), one(VariableExecutor::new, identifier()), list(kw("("), expression, kw(")")));
+        final Rule product = or(list(ProductExecutor::new, tag, or(kw_t("*"), kw_t("/")), tag), tag);
+        expression.define(or(list(ExpressionExecutor::new, product, or(kw_t("+"), kw_t("-")), product), product));
+        final Rule command = list(or(list(PrintExecutor::new, kw("print"), expression),
+                list(AssignmentExecutor::new, identifier(), kw("="), expression)), kw(";"));
+        return many(command);
+    }
+
+    /**
+     * Generate a program of about {@code size} characters. Each command
+     * assigns an expression to a variable using the previously assigned
+     * variables.
+     */
+    public static String program(final int size) {
+        final StringBuilder sb = new StringBuilder(size + 64);
+        int i = 0;
+        while (sb.length() < size) {
+            sb.append('v').append(i % 100).append(" = ");
+            if (i == 0) {
+                sb.append("1;\n");
+            } else {
+                sb.append("(v").append((i - 1) % 100).append(" + ").append(i % 17).append(") * 3 - ")
+                        .append(i % 7).append(" / 2;\n");
+            }
+            if (i % 10 == 9) {
+                sb.append("print v").append(i % 100).append(";\n");
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+
+    public static class InterpreterContext implements Context {
+        private final Map<String, Object> variables = new HashMap<>();
+
+        public void put(final String key, final Object value) {
+            variables.put(key, value);
+        }
+
+        public Object get(final String key) {
+            return variables.get(key);
+        }
+    }
+
+    private static long toLong(final Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static class VariableExecutor extends AbstractListExecutor {
+        @Override
+        public Object execute(final Context context) {
+            return ((InterpreterContext) context).get((String) getExecutor(0).execute(context));
+        }
+    }
+
+    private static class ExpressionExecutor extends AbstractListExecutor {
+        @Override
+        public Object execute(final Context context) {
+            if (numberOfExecutors() == 1) {
+                return getExecutor(0).execute(context);
+            }
+            final long op1 = toLong(getExecutor(0).execute(context));
+            final String operator = (String) getExecutor(1).execute(context);
+            final long op2 = toLong(getExecutor(2).execute(context));
+            return operator.equals("+") ? op1 + op2 : op1 - op2;
+        }
+    }
+
+    private static class ProductExecutor extends AbstractListExecutor {
+        @Override
+        public Object execute(final Context context) {
+            if (numberOfExecutors() == 1) {
+                return getExecutor(0).execute(context);
+            }
+            final long op1 = toLong(getExecutor(0).execute(context));
+            final String operator = (String) getExecutor(1).execute(context);
+            final long op2 = toLong(getExecutor(2).execute(context));
+            return operator.equals("*") ? op1 * op2 : op2 == 0 ? 0L : op1 / op2;
+        }
+    }
+
+    private static class PrintExecutor extends AbstractListExecutor {
+        @Override
+        public Object execute(final Context context) {
+            return getExecutor(0).execute(context);
+        }
+    }
+
+    private static class AssignmentExecutor extends AbstractListExecutor {
+        @Override
+        public Object execute(final Context context) {
+            final String identifier = (String) getExecutor(0).execute(context);
+            ((InterpreterContext) context).put(identifier, getExecutor(1).execute(context));
+            return null;
+        }
+    }
+}
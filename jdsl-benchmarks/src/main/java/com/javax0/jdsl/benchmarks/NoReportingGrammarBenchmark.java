@@ -0,0 +1,15 @@
+package com.javax0.jdsl.benchmarks;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * The same as {@link GrammarBenchmark} but the JVM runs with
+ * {@code -Djdsl.reporting=false}, which switches reporting off at compile
+ * time. Comparing the result with the {@code null} reporter runs of
+ * {@link GrammarBenchmark} shows the cost of a disabled reporter. With
+ * reporting switched off the {@code log} reporter is also replaced by the
+ * null reporter.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xss64m", "-Xmx8g", "-Djdsl.reporting=false"})
+public class NoReportingGrammarBenchmark extends GrammarBenchmark {
+}
@@ -0,0 +1,35 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.log.LogReporter;
+import com.javax0.jdsl.log.NullReporter;
+import com.javax0.jdsl.log.ReporterFactory;
+
+/**
+ * Sets the reporter named by the {@code reporter} parameter of the benchmarks.
+ * The analyzers get the reporter when they are created, therefore the reporter
+ * has to be set before the grammar is created. The terminal analyzers returned
+ * by {@code number()} and {@code string()} are singletons that get the
+ * reporter when their class is initialized; JMH runs each parameter
+ * combination in a new JVM fork, so setting the reporter first in the setup
+ * method is enough.
+ */
+final class Reporters {
+    static final String NULL = "null";
+    static final String LOG = "log";
+
+    private Reporters() {
+    }
+
+    static void set(final String reporter) {
+        switch (reporter) {
+            case NULL:
+                ReporterFactory.setReporter(new NullReporter());
+                break;
+            case LOG:
+                ReporterFactory.setReporter(new LogReporter());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown reporter '" + reporter + "'");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SourceCode#rest(int)}, which the analyzers call every time
+ * they consume some characters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceCodeBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int size;
+
+    private SourceCode source;
+
+    @Setup
+    public void setup() {
+        final StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            sb.append("abcdefghij");
+        }
+        source = new StringSourceCode(sb.substring(0, size));
+    }
+
+    @Benchmark
+    public SourceCode restByOne() {
+        return source.rest(1);
+    }
+
+    @Benchmark
+    public SourceCode restToTheMiddle() {
+        return source.rest(size / 2);
+    }
+
+    /**
+     * Walk through the first 1000 characters one by one, as a terminal
+     * analyzer does.
+     */
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public SourceCode walk() {
+        SourceCode sc = source;
+        for (int i = 0; i < 1000 && sc.length() > 0; i++) {
+            sc = sc.rest(1);
+        }
+        return sc;
+    }
+}
@@ -0,0 +1,77 @@
+package com.javax0.jdsl.benchmarks;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import com.javax0.jdsl.analyzers.terminals.IdentifierAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.StringAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the terminal analyzers on a matching input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminalAnalyzerBenchmark {
+
+    @Param({"number", "string", "identifier", "terminal"})
+    public String analyzer;
+
+    @Param({Reporters.NULL, Reporters.LOG})
+    public String reporter;
+
+    private Analyzer underTest;
+    private SourceCode input;
+
+    @Setup
+    public void setup() {
+        Reporters.set(reporter);
+        switch (analyzer) {
+            case "number":
+                underTest = NumberAnalyzer.number();
+                input = new StringSourceCode("1234567890.123e2 rest");
+                break;
+            case "string":
+                underTest = StringAnalyzer.string();
+                input = new StringSourceCode("\"a string with \\\"escapes\\\" in it\" rest");
+                break;
+            case "identifier":
+                underTest = IdentifierAnalyzer.identifier();
+                input = new StringSourceCode("anIdentifierOfSomeLength rest");
+                break;
+            case "terminal":
+                underTest = TerminalSymbolAnalyzer.analyzer("function");
+                input = new StringSourceCode("function rest");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown analyzer '" + analyzer + "'");
+        }
+        if (!underTest.analyze(input).wasSuccessful()) {
+            throw new IllegalStateException(analyzer + " does not match the benchmark input");
+        }
+    }
+
+    @Benchmark
+    public AnalysisResult analyze() {
+        return underTest.analyze(input);
+    }
+}
@@ -1,28 +1,55 @@
 package com.javax0.jdsl;
 
 import com.javax0.jdsl.analyzers.AlternativesAnalyzer;
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
 import com.javax0.jdsl.analyzers.AnalysisResult;
 import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.CommentAndSpaceSkippingAnalyzer;
+import com.javax0.jdsl.analyzers.CommitAnalyzer;
 import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.ExpressionAnalyzer;
 import com.javax0.jdsl.analyzers.ListAnalyzer;
+import com.javax0.jdsl.analyzers.MemoStatistics;
+import com.javax0.jdsl.analyzers.MemoTable;
+import com.javax0.jdsl.analyzers.MemoizingAnalyzer;
 import com.javax0.jdsl.analyzers.NoExecutorListAnalyzer;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
 import com.javax0.jdsl.analyzers.PassThroughAnalyzer;
+import com.javax0.jdsl.analyzers.ReaderSourceCode;
 import com.javax0.jdsl.analyzers.Rule;
 import com.javax0.jdsl.analyzers.SequenceAnalyzer;
 import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
 import com.javax0.jdsl.analyzers.SkippingAnalyzer;
 import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.Splitter;
+import com.javax0.jdsl.analyzers.StatementSplitter;
 import com.javax0.jdsl.analyzers.WhiteSpaceSkippingAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.KeywordSetAnalyzer;
 import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
+import com.javax0.jdsl.compiler.GrammarCompiler;
+import com.javax0.jdsl.executors.Executor;
 import com.javax0.jdsl.executors.Factory;
 import com.javax0.jdsl.executors.ListExecutor;
 import com.javax0.jdsl.executors.SimpleListExecutor;
 import com.javax0.jdsl.executors.SimpleListExecutorFactory;
 import com.javax0.jdsl.executors.SingletonFactory;
 import com.javax0.jdsl.executors.TerminalSymbolExecutor;
+import com.javax0.jdsl.log.Reporter;
+import com.javax0.jdsl.log.ReporterFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.javax0.jdsl.analyzers.SequenceAnalyzer.INFINITE;
 import static java.lang.String.format;
@@ -66,13 +93,46 @@ import static java.lang.String.format;
  * <p>
  * The third version just creates a new instance of the executor calling the
  * method {@code newInstance()} for the passed class.
+ * <p>
+ * Calling {@link #packrat()} at the start of {@code define()} switches the
+ * grammar to packrat mode. In this mode the results of the rules are memoized
+ * for each position of the input during an analysis, thus a failed alternative
+ * does not need to analyze the same part of the input again when the next
+ * alternative starts with the same rule.
+ * <p>
+ * The grammar is built only once: {@link #build()} calls {@code define()},
+ * checks that all the analyzers returned by {@link #later()} are defined and
+ * prepares the analyzers for the analysis. It is called by the first
+ * {@link #analyze(SourceCode)} if it was not called explicitly. After that the
+ * grammar does not change and the same instance can be used to analyze inputs
+ * concurrently from several threads.
+ * <p>
+ * Calling {@link #parallel()} in {@code define()} switches the grammar to
+ * parallel mode. In this mode the input of a top level {@code many(...)} is
+ * split into parts that are analyzed on several threads.
+ * <p>
+ * Calling {@link #compile()} in {@code define()} compiles the grammar when it
+ * is built, see {@link GrammarCompiler}.
  */
 public abstract class GrammarDefinition implements Analyzer {
 
-    private Analyzer grammar = null;
+    private volatile Analyzer grammar = null;
     private final List<PassThroughAnalyzer> delayedDefinitionAnalyzers = new LinkedList<>();
+    private final List<AlternativesAnalyzer> alternativesAnalyzers = new LinkedList<>();
     private SkippingAnalyzer skippingAnalyzer;
     private TerminalSymbolAnalyzer.CharCompare charCompare = TerminalSymbolAnalyzer.CharCompare.caseSensitive;
+    public static final int DEFAULT_MEMO_ENTRIES = 1 << 16;
+    private int memoEntries = 0;
+    private int memoizedRuleCounter = 0;
+    private final MemoStatistics memoStatistics = new MemoStatistics();
+    /**
+     * The input is analyzed in parallel only if it is at least this long.
+     */
+    public static final int MIN_PARALLEL_PART_LENGTH = 1 << 14;
+    private static final int PARTS_PER_THREAD = 4;
+    private Splitter splitter = null;
+    private ForkJoinPool pool = null;
+    private boolean compiled = false;
 
     private static void addAnalyzerFlattened(final ListAnalyzer listAnalyzer,
                                              final Analyzer analyzer) {
@@ -102,22 +162,447 @@ public abstract class GrammarDefinition implements Analyzer {
         }
     }
 
-    public final AnalysisResult analyze(final SourceCode input) {
+    /**
+     * Build the grammar calling {@link #define()} unless it was already built.
+     * The method is thread safe, {@code define()} is executed only once even
+     * if several threads call this method or {@link #analyze(SourceCode)} the
+     * first time at the same time.
+     * <p>
+     * There is no need to call this method explicitly, the first analysis
+     * builds the grammar. Calling it can be useful to have the errors of the
+     * grammar definition reported before any input is analyzed.
+     *
+     * @return this
+     * @throws IllegalArgumentException if {@code define()} returns {@code null}
+     *                                  or there are undefined analyzers that
+     *                                  were created by {@link #later()}
+     */
+    public final GrammarDefinition build() {
         if (grammar == null) {
-            grammar = define();
+            buildGrammar();
         }
+        return this;
+    }
+
+    private synchronized Analyzer buildGrammar() {
         if (grammar == null) {
-            throw new IllegalArgumentException("'grammar' was not set in the grammar definition");
+            final Analyzer root = define();
+            if (root == null) {
+                throw new IllegalArgumentException("'grammar' was not set in the grammar definition");
+            }
+            assertAllDelayedAnalyzersAreDefined();
+            for (final AlternativesAnalyzer alternativesAnalyzer : alternativesAnalyzers) {
+                alternativesAnalyzer.buildDispatchTable();
+            }
+            grammar = compiled ? GrammarCompiler.compile(root) : root;
+        }
+        return grammar;
+    }
+
+    public final AnalysisResult analyze(final SourceCode input) {
+        Analyzer root = grammar;
+        if (root == null) {
+            root = buildGrammar();
+        }
+        if (memoEntries == 0) {
+            return analyzeWholeInput(root, input);
+        }
+        final MemoTable memoTable = new MemoTable(memoEntries);
+        final MemoTable previous = MemoTable.begin(memoTable);
+        try {
+            return analyzeWholeInput(root, input);
+        } finally {
+            MemoTable.end(previous);
+            memoStatistics.add(memoTable);
+        }
+    }
+
+    /**
+     * Analyze the input and pass the executors of the top level elements to
+     * the consumer one by one, as soon as the element is analyzed. The top
+     * level elements are the repetitions of the rule returned by
+     * {@code define()} when it is created by one of the {@code many(...)} or
+     * {@code manyOptional(...)} methods. For example, if the grammar is
+     * {@code many(command)} then the consumer gets the executor of each
+     * command, and it can execute the command before the rest of the input is
+     * analyzed. The executors are not collected, the list executor of the top
+     * level rule is not created.
+     * <p>
+     * If the grammar is not a sequence then the whole input is analyzed and
+     * the consumer gets the executor of the grammar.
+     * <p>
+     * When the input contains a syntax error or there are trailing characters
+     * the consumer has already got the executors of the elements before the
+     * error.
+     *
+     * @param input    the source code to analyze
+     * @param consumer gets the executors of the top level elements
+     * @return the result of the analysis. The result does not contain an
+     * executor.
+     */
+    public final AnalysisResult analyze(final SourceCode input, final Consumer<Executor> consumer) {
+        final Elements elements = new Elements(input);
+        while (elements.hasNext()) {
+            consumer.accept(elements.next());
+        }
+        return elements.result;
+    }
+
+    /**
+     * Create a stream of the executors of the top level elements of the input.
+     * The input is analyzed lazily, one element at a time, as the stream is
+     * consumed. See {@link #analyze(SourceCode, Consumer)}.
+     *
+     * @param input the source code to analyze
+     * @return the stream of the executors
+     * @throws IllegalArgumentException when the stream reaches a syntax error
+     *                                  or trailing characters in the input
+     */
+    public final Stream<Executor> stream(final SourceCode input) {
+        final Elements elements = new Elements(input);
+        final Iterator<Executor> iterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (elements.hasNext()) {
+                    return true;
+                }
+                if (!elements.result.wasSuccessful()) {
+                    throw new IllegalArgumentException(format(
+                            "The input can not be analyzed after %d top level element(s)", elements.count));
+                }
+                return false;
+            }
+
+            @Override
+            public Executor next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elements.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Analyzes the top level elements of the input one at a time. When there
+     * are no more elements {@code result} holds the result of the analysis.
+     */
+    private final class Elements implements Iterator<Executor> {
+        private final SequenceAnalyzer.Repetitions repetitions;
+        private final MemoTable memoTable;
+        private final SourceCode input;
+        private Executor next = null;
+        private AnalysisResult result = null;
+        private int count = 0;
+
+        private Elements(final SourceCode input) {
+            Analyzer root = grammar;
+            if (root == null) {
+                root = buildGrammar();
+            }
+            if (root instanceof MemoizingAnalyzer) {
+                root = ((MemoizingAnalyzer) root).getUnderlyingAnalyzer();
+            }
+            this.memoTable = memoEntries == 0 ? null : new MemoTable(memoEntries);
+            this.input = input;
+            this.repetitions = root instanceof SequenceAnalyzer
+                    ? ((SequenceAnalyzer) root).repetitions(input) : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && result == null) {
+                final MemoTable previous = memoTable == null ? null : MemoTable.begin(memoTable);
+                try {
+                    step();
+                } finally {
+                    if (memoTable != null) {
+                        MemoTable.end(previous);
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        private void step() {
+            if (repetitions == null) {
+                result = analyze(input);
+                next = result.getExecutor();
+                return;
+            }
+            final AnalysisResult element = repetitions.next();
+            if (element == null) {
+                if (!repetitions.isComplete()) {
+                    result = SimpleAnalysisResult.failed(SequenceAnalyzer.class);
+                } else if (repetitions.getInput().hasAtLeast(1)) {
+                    result = SimpleAnalysisResult.failed(GrammarDefinition.this.getClass(),
+                            "there are trailing characters");
+                } else {
+                    result = SimpleAnalysisResult.success(GrammarDefinition.this.getClass(),
+                            repetitions.getInput(), null);
+                }
+                if (memoTable != null) {
+                    memoStatistics.add(memoTable);
+                }
+            } else {
+                count++;
+                next = element.getExecutor();
+            }
+        }
+
+        @Override
+        public Executor next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Executor executor = next;
+            next = null;
+            return executor;
         }
-        assertAllDelayedAnalyzersAreDefined();
-        AnalysisResult result = grammar.analyze(input);
-        if (result.wasSuccessful() && result.remainingSourceCode().length() > 0) {
+    }
+
+    private AnalysisResult analyzeWholeInput(final Analyzer root, final SourceCode input) {
+        AnalysisResult result = splitter == null ? null : analyzeInParts(root, input);
+        if (result == null && canAnalyzeWithOffsets(root, input)) {
+            final AnalysisBuilder builder = new AnalysisBuilder();
+            result = SimpleAnalysisResult.of(this.getClass(), input,
+                    ((OffsetAnalyzer) root).analyze(input, 0, builder), builder);
+        }
+        if (result == null) {
+            result = Reporter.invoke(ReporterFactory.getReporter(), root, input);
+        }
+        if (result.wasSuccessful() && result.remainingSourceCode().hasAtLeast(1)) {
             result = SimpleAnalysisResult.failed(this.getClass(),
                     "there are trailing characters");
         }
         return result;
     }
 
+    /**
+     * The offset based analysis (see {@link OffsetAnalyzer}) does not create
+     * results for the failing alternatives, but it does not report, and it
+     * needs the length of the input. It is used when reporting is off and the
+     * input is in memory and shorter than {@code Integer.MAX_VALUE}
+     * characters.
+     */
+    private static boolean canAnalyzeWithOffsets(final Analyzer root, final SourceCode input) {
+        return root instanceof OffsetAnalyzer
+                && !ReporterFactory.isReporting()
+                && !(input instanceof ReaderSourceCode)
+                && input.length() < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Analyze the input splitting it into parts that are analyzed in parallel.
+     * The parts are joined in order, each part has to start where the previous
+     * part ended, otherwise the rest of the input is analyzed sequentially.
+     * This way the result is the same as the result of the sequential
+     * analysis.
+     *
+     * @return the result of the root analyzer or {@code null} if the input can
+     * not be analyzed in parts, e.g. a {@link ReaderSourceCode}, which would
+     * have to be read till the end to split it
+     */
+    private AnalysisResult analyzeInParts(final Analyzer root, final SourceCode input) {
+        final Analyzer analyzer = root instanceof MemoizingAnalyzer ? ((MemoizingAnalyzer) root).getUnderlyingAnalyzer() : root;
+        if (input == null || input instanceof ReaderSourceCode
+                || !(analyzer instanceof SequenceAnalyzer) || !((SequenceAnalyzer) analyzer).isUnlimited()) {
+            return null;
+        }
+        final int length = input.length();
+        final int parts = Math.min(pool.getParallelism() * PARTS_PER_THREAD, length / MIN_PARALLEL_PART_LENGTH);
+        if (parts < 2) {
+            return null;
+        }
+        final int[] boundaries = boundaries(splitter.split(input), length, parts);
+        if (boundaries.length == 0) {
+            return null;
+        }
+        final SequenceAnalyzer sequence = (SequenceAnalyzer) analyzer;
+        final List<ForkJoinTask<SequenceAnalyzer.Part>> tasks = new ArrayList<>();
+        for (int k = 0; k <= boundaries.length; k++) {
+            final SourceCode start = k == 0 ? input : input.rest(boundaries[k - 1]);
+            final int endLength = k == boundaries.length ? 0 : length - boundaries[k];
+            tasks.add(pool.submit(() -> analyzePart(sequence, start, endLength)));
+        }
+        final SequenceAnalyzer.Part whole = tasks.get(0).join();
+        for (int k = 1; k < tasks.size(); k++) {
+            if (whole.hasFailed()) {
+                cancel(tasks, k);
+                break;
+            }
+            final SequenceAnalyzer.Part part = tasks.get(k).join();
+            if (whole.getInput().length() != part.getStartLength()) {
+                cancel(tasks, k + 1);
+                whole.analyzeUntil(0);
+                break;
+            }
+            whole.append(part);
+        }
+        return whole.result();
+    }
+
+    private SequenceAnalyzer.Part analyzePart(final SequenceAnalyzer sequence, final SourceCode start,
+                                              final int endLength) {
+        if (memoEntries == 0) {
+            return sequence.part(start).analyzeUntil(endLength);
+        }
+        final MemoTable memoTable = new MemoTable(memoEntries);
+        final MemoTable previous = MemoTable.begin(memoTable);
+        try {
+            return sequence.part(start).analyzeUntil(endLength);
+        } finally {
+            MemoTable.end(previous);
+            memoStatistics.add(memoTable);
+        }
+    }
+
+    private static void cancel(final List<ForkJoinTask<SequenceAnalyzer.Part>> tasks, final int from) {
+        for (int k = from; k < tasks.size(); k++) {
+            tasks.get(k).cancel(false);
+        }
+    }
+
+    /**
+     * Select the split positions closest after the ends of {@code parts} equal
+     * parts of the input.
+     */
+    private static int[] boundaries(final int[] positions, final int length, final int parts) {
+        final int[] boundaries = new int[parts - 1];
+        int count = 0;
+        int last = 0;
+        for (int k = 1; k < parts; k++) {
+            final int target = (int) ((long) length * k / parts);
+            int i = Arrays.binarySearch(positions, Math.max(target, last + 1));
+            if (i < 0) {
+                i = -i - 1;
+            }
+            if (i < positions.length && positions[i] < length) {
+                last = positions[i];
+                boundaries[count++] = last;
+            }
+        }
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    /**
+     * Switch the grammar to parallel mode splitting the input after the
+     * {@code ;} characters that are not inside strings. See
+     * {@link #parallel(Splitter, ForkJoinPool)}.
+     */
+    public final void parallel() {
+        parallel(new StatementSplitter(';'));
+    }
+
+    /**
+     * Switch the grammar to parallel mode using the common fork join pool. See
+     * {@link #parallel(Splitter, ForkJoinPool)}.
+     */
+    public final void parallel(final Splitter splitter) {
+        parallel(splitter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Switch the grammar to parallel mode. If the rule returned by
+     * {@code define()} is created by {@code many(...)} or
+     * {@code manyOptional(...)} with no maximum, and the input is at least
+     * {@link #MIN_PARALLEL_PART_LENGTH} characters long, then the input is
+     * split into parts at the positions found by the splitter. The parts are
+     * analyzed on the threads of the pool and the executors are joined in the
+     * order of the input.
+     * <p>
+     * The result is the same as the result of the sequential analysis: if a
+     * part does not start where the analysis of the previous part ended, for
+     * example because the splitter found a position inside a top level
+     * element, then the rest of the input is analyzed sequentially.
+     * <p>
+     * The repeated top level elements should not depend on each other during
+     * the analysis, e.g. closures executed by
+     * {@link com.javax0.jdsl.analyzers.NullAnalyzer}s run on different
+     * threads. The input has to be available as a whole, the length of the
+     * input is needed to split it.
+     * <p>
+     * Similarly to {@link #packrat()} this method has to be called in the
+     * method {@code define()}.
+     *
+     * @param splitter finds the positions to split the input
+     * @param pool     the threads that analyze the parts
+     */
+    public final void parallel(final Splitter splitter, final ForkJoinPool pool) {
+        if (splitter == null || pool == null) {
+            throw new IllegalArgumentException("splitter and pool can not be null");
+        }
+        this.splitter = splitter;
+        this.pool = pool;
+    }
+
+    /**
+     * Compile the grammar when it is built using the {@link GrammarCompiler}.
+     * The compiled grammar gives the same results as the analyzers, but it
+     * does not call the reporters. A compiled grammar is not analyzed in
+     * parallel parts even if {@link #parallel()} was called and the streaming
+     * methods {@link #analyze(SourceCode, Consumer)} and
+     * {@link #stream(SourceCode)} analyze the input as a whole.
+     * <p>
+     * Similarly to {@link #packrat()} this method has to be called in the
+     * method {@code define()}.
+     */
+    public final void compile() {
+        compiled = true;
+    }
+
+    /**
+     * Switch the grammar to packrat mode using a memo table of at most
+     * {@link #DEFAULT_MEMO_ENTRIES} entries for each analysis. See
+     * {@link #packrat(int)}.
+     */
+    public final void packrat() {
+        packrat(DEFAULT_MEMO_ENTRIES);
+    }
+
+    /**
+     * Switch the grammar to packrat mode. The rules created after this call by
+     * the methods {@link #list(Analyzer...)}, {@link #or(Analyzer...)},
+     * {@link #many(Analyzer)}, {@link #later()} and their variations will
+     * remember their results for each input position during an analysis. This
+     * way backtracking grammars, like {@code or(list(a, b), list(a, c))}, parse
+     * in linear time.
+     * <p>
+     * Similarly to {@link #skipSpaces()} this method has to be called in the
+     * method {@code define()} before the rules are created.
+     * <p>
+     * Closures of {@link com.javax0.jdsl.analyzers.NullAnalyzer}s are not
+     * executed again when the result of an enclosing rule comes from the memo
+     * table.
+     *
+     * @param maxEntries the maximum number of results stored during one analysis.
+     *                   When there are more results than that some of the
+     *                   stored results are forgotten.
+     */
+    public final void packrat(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(format("maxEntries is %d, should be positive", maxEntries));
+        }
+        memoEntries = maxEntries;
+    }
+
+    /**
+     * @return the memo table hit and miss counters summed up for all the
+     * analyses done by this grammar in packrat mode
+     */
+    public final MemoStatistics getMemoStatistics() {
+        return memoStatistics;
+    }
+
+    private Rule memoize(final Rule rule) {
+        if (memoEntries == 0) {
+            return rule;
+        }
+        return new MemoizingAnalyzer(rule, memoizedRuleCounter++);
+    }
+
     public final void setSkippingAnalyzer(final SkippingAnalyzer skippingAnalyzer) {
         this.skippingAnalyzer = skippingAnalyzer;
     }
@@ -126,6 +611,26 @@ public abstract class GrammarDefinition implements Analyzer {
         setSkippingAnalyzer(WhiteSpaceSkippingAnalyzer.spaces());
     }
 
+    /**
+     * Skip the white spaces and the comments between the elements of the
+     * rules created after this call, for example
+     * <code>skipSpacesAndComments("//", "/*", "*&#47;")</code>. Grammars that
+     * need more than one kind of line comment can call
+     * {@link #setSkippingAnalyzer(SkippingAnalyzer)} passing a
+     * {@link CommentAndSpaceSkippingAnalyzer}.
+     *
+     * @param lineComment       the string that starts a line comment or
+     *                          {@code null}
+     * @param blockCommentStart the string that starts a block comment or
+     *                          {@code null}
+     * @param blockCommentEnd   the string that ends a block comment or
+     *                          {@code null} if there are no block comments
+     */
+    public final void skipSpacesAndComments(final String lineComment, final String blockCommentStart,
+                                            final String blockCommentEnd) {
+        setSkippingAnalyzer(new CommentAndSpaceSkippingAnalyzer(lineComment, blockCommentStart, blockCommentEnd));
+    }
+
     public final void caseInsensitive() {
         charCompare = TerminalSymbolAnalyzer.CharCompare.caseInsensitive;
     }
@@ -216,7 +721,10 @@ public abstract class GrammarDefinition implements Analyzer {
         final PassThroughAnalyzer delayedDefinitionAnalyzer = new PassThroughAnalyzer(
                 name);
         delayedDefinitionAnalyzers.add(delayedDefinitionAnalyzer);
-        return delayedDefinitionAnalyzer;
+        if (memoEntries == 0) {
+            return delayedDefinitionAnalyzer;
+        }
+        return new MemoizingAnalyzer.Delayed(delayedDefinitionAnalyzer, memoizedRuleCounter++);
     }
 
     public final Define later() {
@@ -243,7 +751,7 @@ public abstract class GrammarDefinition implements Analyzer {
         for (final Analyzer analyzer : analyzers) {
             addAnalyzerFlattened(listAnalyzer, analyzer);
         }
-        return listAnalyzer;
+        return memoize(listAnalyzer);
     }
 
     /**
@@ -269,11 +777,19 @@ public abstract class GrammarDefinition implements Analyzer {
     /**
      * Creates an {@link AlternativesAnalyzer} with the arguments as
      * alternatives.
+     * <p>
+     * If all the alternatives are terminal symbols, for example
+     * {@code or(kw("+"), kw("-"), kw("*"))}, then the result is a
+     * {@link KeywordSetAnalyzer} that matches the same way but reads the input
+     * only once.
      */
     public final Rule or(final Analyzer... analyzers) {
-        final AlternativesAnalyzer alternativesAnalyzer = new AlternativesAnalyzer();
+        if (KeywordSetAnalyzer.canReplace(analyzers)) {
+            return KeywordSetAnalyzer.of(analyzers);
+        }
+        final AlternativesAnalyzer alternativesAnalyzer = newAlternativesAnalyzer();
         alternativesAnalyzer.add(analyzers);
-        return alternativesAnalyzer;
+        return memoize(alternativesAnalyzer);
     }
 
     /**
@@ -283,10 +799,16 @@ public abstract class GrammarDefinition implements Analyzer {
      * {@code or(kw("a"),kw("b"),kw("c"))} using {@link #or(Analyzer...)}.
      */
     public final Rule or(final String terminals) {
-        final AlternativesAnalyzer alternativesAnalyzer = new AlternativesAnalyzer();
+        final Analyzer[] analyzers = new Analyzer[terminals.length()];
         for (int i = 0; i < terminals.length(); i++) {
-            alternativesAnalyzer.add(kw(terminals.substring(i, i + 1)));
+            analyzers[i] = kw(terminals.substring(i, i + 1));
         }
+        return or(analyzers);
+    }
+
+    private AlternativesAnalyzer newAlternativesAnalyzer() {
+        final AlternativesAnalyzer alternativesAnalyzer = new AlternativesAnalyzer();
+        alternativesAnalyzers.add(alternativesAnalyzer);
         return alternativesAnalyzer;
     }
 
@@ -335,6 +857,48 @@ public abstract class GrammarDefinition implements Analyzer {
         return one(Factory.create(listExecutor), analyzer);
     }
 
+    /**
+     * Create a rule that matches the empty input and declares that the
+     * analysis will not go back to the positions before it, see
+     * {@link SourceCode#commit()}. When the input is read from a stream, e.g.
+     * using {@link com.javax0.jdsl.analyzers.ReaderSourceCode}, the
+     * characters before the position are freed. This way
+     * {@code many(list(command, cut()))} analyzes a stream of commands of any
+     * length keeping only the characters of the last command in memory.
+     * <p>
+     * Place the cut only where the grammar can not backtrack to an earlier
+     * position, as when an alternative failing after the cut tries the next
+     * alternative, then reading the freed characters throws
+     * {@link IllegalStateException}.
+     *
+     * @return the rule
+     */
+    public final Rule cut() {
+        return new CommitAnalyzer();
+    }
+
+    /**
+     * Create an {@link ExpressionAnalyzer} that skips the same characters
+     * between the elements of the expression as the other rules of the
+     * grammar. The terminals, parentheses and operators of the expression
+     * have to be added to the returned analyzer, for example
+     *
+     * <pre>
+     * final ExpressionAnalyzer expression = expression();
+     * expression.addTerminals(number());
+     * expression.addParentheses("(", ")");
+     * expression.addBinary("+", 1, new TerminalSymbolExecutor&lt;&gt;("+"));
+     * expression.addBinary("*", 2, new TerminalSymbolExecutor&lt;&gt;("*"));
+     * </pre>
+     *
+     * @return the new expression analyzer
+     */
+    public final ExpressionAnalyzer expression() {
+        final ExpressionAnalyzer expressionAnalyzer = new ExpressionAnalyzer();
+        expressionAnalyzer.setSkipAnalyzer(skippingAnalyzer);
+        return expressionAnalyzer;
+    }
+
 
     /**
      * Creates a {@link SequenceAnalyzer} with zero min value and one max value.
@@ -394,7 +958,7 @@ public abstract class GrammarDefinition implements Analyzer {
         final SequenceAnalyzer sequenceAnalyzer = new SequenceAnalyzer(
                 listExecutorFactory, analyzer, min, max);
         sequenceAnalyzer.setSkipAnalyzer(skippingAnalyzer);
-        return sequenceAnalyzer;
+        return memoize(sequenceAnalyzer);
     }
 
     /**
@@ -1,7 +1,7 @@
 package com.javax0.jdsl.analyzers;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 import com.javax0.jdsl.log.Reporter;
@@ -13,16 +13,90 @@ import com.javax0.jdsl.log.ReporterFactory;
  * <p>
  * If there is any underlying analyzer that accepts the start of the input then
  * the result of that (first one) analysis is returned.
+ * <p>
+ * After the grammar is defined {@link #buildDispatchTable()} can be called to
+ * compute the {@link FirstSet} of the alternatives. After that only those
+ * alternatives are tried that may start with the first character of the input.
+ * Alternatives that are nullable or do not know their first set are tried for
+ * every character, and the order of the alternatives is kept, thus the result
+ * is the same as trying all the alternatives.
  * 
  *
  * 
  */
-public class AlternativesAnalyzer implements Rule {
-	private final List<Analyzer> analyzerList = new LinkedList<>();
+public class AlternativesAnalyzer implements Rule, OffsetAnalyzer,
+		FirstSet.Provider {
+	private static final int DISPATCH_TABLE_SIZE = 128;
+	private final List<Analyzer> analyzerList = new ArrayList<>();
 	private final Reporter reporter = ReporterFactory.getReporter();
+	private List<List<Analyzer>> dispatchTable = null;
+	private FirstSet firstSet = null;
+
+	/**
+	 * @return the alternatives in the order they are tried
+	 */
+	public List<Analyzer> getAnalyzerList() {
+		return Collections.unmodifiableList(analyzerList);
+	}
 
 	public void add(final Analyzer... analyzers) {
 		Collections.addAll(analyzerList, analyzers);
+		dispatchTable = null;
+		firstSet = null;
+	}
+
+	/**
+	 * Build the table that lists for each ASCII character the alternatives that
+	 * may start with that character. The method should be called when all the
+	 * underlying analyzers are defined, {@link com.javax0.jdsl.GrammarDefinition}
+	 * calls it for the alternatives it created.
+	 */
+	public void buildDispatchTable() {
+		final List<FirstSet> firstSets = new ArrayList<>(analyzerList.size());
+		for (final Analyzer analyzer : analyzerList) {
+			firstSets.add(FirstSet.of(analyzer));
+		}
+		final List<List<Analyzer>> table = new ArrayList<>(DISPATCH_TABLE_SIZE);
+		for (char ch = 0; ch < DISPATCH_TABLE_SIZE; ch++) {
+			final List<Analyzer> candidates = new ArrayList<>();
+			int i = 0;
+			for (final Analyzer analyzer : analyzerList) {
+				if (firstSets.get(i++).mayStartWith(ch)) {
+					candidates.add(analyzer);
+				}
+			}
+			table.add(ch > 0 && candidates.equals(table.get(ch - 1)) ? table
+					.get(ch - 1) : candidates);
+		}
+		dispatchTable = table;
+	}
+
+	private List<Analyzer> candidates(final SourceCode input) {
+		return candidates(input, 0);
+	}
+
+	private List<Analyzer> candidates(final SourceCode input, final int offset) {
+		final List<List<Analyzer>> table = dispatchTable;
+		if (table != null && input != null && input.hasAtLeast(offset + 1)) {
+			final char ch = input.charAt(offset);
+			if (ch < table.size()) {
+				return table.get(ch);
+			}
+		}
+		return analyzerList;
+	}
+
+	@Override
+	public FirstSet firstSet() {
+		if (firstSet == null) {
+			firstSet = FirstSet.UNKNOWN;
+			FirstSet union = FirstSet.EMPTY;
+			for (final Analyzer analyzer : analyzerList) {
+				union = union.union(FirstSet.of(analyzer));
+			}
+			firstSet = union;
+		}
+		return firstSet;
 	}
 
 	private boolean analyzerIsNotNullAnalyzer(Analyzer analyzer) {
@@ -31,17 +105,35 @@ public class AlternativesAnalyzer implements Rule {
 
 	@Override
 	public AnalysisResult analyze(final SourceCode input) {
-		reporter.logStart(AlternativesAnalyzer.class, input, analyzerList);
-		for (final Analyzer analyzer : analyzerList) {
-			final AnalysisResult result = analyzer.analyze(input);
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(AlternativesAnalyzer.class, input, analyzerList);
+		}
+		for (final Analyzer analyzer : candidates(input)) {
+			final AnalysisResult result = Reporter.invoke(reporter, analyzer,
+					input);
 			if (result.wasSuccessful() && analyzerIsNotNullAnalyzer(analyzer)) {
-				reporter.logSuccess(AlternativesAnalyzer.class);
+				if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+					reporter.logSuccess(AlternativesAnalyzer.class);
+				}
 				return result;
 			}
 		}
 		return SimpleAnalysisResult.failed(AlternativesAnalyzer.class);
 	}
 
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		for (final Analyzer analyzer : candidates(input, offset)) {
+			final int end = OffsetAnalyzer.analyze(analyzer, input, offset,
+					builder);
+			if (end != FAILED && analyzerIsNotNullAnalyzer(analyzer)) {
+				return end;
+			}
+		}
+		return FAILED;
+	}
+
 	@Override
 	public String toString() {
 		return "[" + reporter.toString(analyzerList, "|") + "]";
@@ -0,0 +1,176 @@
+package com.javax0.jdsl.analyzers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.javax0.jdsl.executors.Executor;
+import com.javax0.jdsl.executors.ExecutorList;
+
+/**
+ * Collects the executors and the states during an offset based analysis, see
+ * {@link OffsetAnalyzer}.
+ * <p>
+ * A successful analyzer calls {@link #success(Executor, State)} to pass its
+ * executor and state to the caller. Analyzers that have underlying analyzers,
+ * like lists and sequences, {@link #push()} the result of each underlying
+ * analysis to a stack. The stack is shared by the nested analyzers: each of
+ * them notes the size of the stack calling {@link #mark()} before it starts,
+ * and removes the results pushed since then calling {@link #reset(int)} when it
+ * fails or when it has created its own executor from them.
+ * <p>
+ * The stack is reused during the whole analysis, it grows only when the
+ * nesting gets deeper than before. A builder must not be used by more than one
+ * thread at a time.
+ * <p>
+ * The builder also caches the results of the skipping analyzers, see
+ * {@link #skip(SkippingAnalyzer, SourceCode, int)}.
+ */
+public final class AnalysisBuilder {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int SKIP_CACHE_SIZE = 64;
+
+	private Executor executor;
+	private State state;
+	private Executor[] executors = null;
+	private State[] states = null;
+	private int size = 0;
+	private SkippingAnalyzer[] skippingAnalyzers = null;
+	private SourceCode[] skipInputs;
+	private int[] skipStarts;
+	private int[] skipEnds;
+
+	/**
+	 * Store the executor and the state of a successful analysis.
+	 */
+	public void success(final Executor executor, final State state) {
+		this.executor = executor;
+		this.state = state;
+	}
+
+	/**
+	 * @return the executor of the last successful analysis
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @return the state of the last successful analysis
+	 */
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * Skip the characters starting at the offset using the skipping analyzer.
+	 * Nested lists and sequences, and the alternatives tried one after the
+	 * other usually start at the same position, and all of them skip the same
+	 * characters. The last results are stored in a small table indexed by the
+	 * offset, thus the same characters are not scanned again.
+	 *
+	 * @return the offset of the first character not skipped
+	 */
+	public int skip(final SkippingAnalyzer analyzer, final SourceCode input,
+			final int offset) {
+		if (skippingAnalyzers == null) {
+			skippingAnalyzers = new SkippingAnalyzer[SKIP_CACHE_SIZE];
+			skipInputs = new SourceCode[SKIP_CACHE_SIZE];
+			skipStarts = new int[SKIP_CACHE_SIZE];
+			skipEnds = new int[SKIP_CACHE_SIZE];
+		}
+		final int slot = offset & (SKIP_CACHE_SIZE - 1);
+		if (skippingAnalyzers[slot] == analyzer && skipInputs[slot] == input
+				&& skipStarts[slot] == offset) {
+			return skipEnds[slot];
+		}
+		final int end = analyzer.skip(input, offset);
+		skippingAnalyzers[slot] = analyzer;
+		skipInputs[slot] = input;
+		skipStarts[slot] = offset;
+		skipEnds[slot] = end;
+		return end;
+	}
+
+	/**
+	 * @return the current size of the stack, to be passed later to
+	 *         {@link #reset(int)}, {@link #executors(int)} and
+	 *         {@link #state(int)}
+	 */
+	public int mark() {
+		return size;
+	}
+
+	/**
+	 * Push the executor and the state of the last successful analysis to the
+	 * stack.
+	 */
+	public void push() {
+		if (executors == null) {
+			executors = new Executor[INITIAL_CAPACITY];
+			states = new State[INITIAL_CAPACITY];
+		} else if (size == executors.length) {
+			final Executor[] newExecutors = new Executor[size * 2];
+			final State[] newStates = new State[size * 2];
+			System.arraycopy(executors, 0, newExecutors, 0, size);
+			System.arraycopy(states, 0, newStates, 0, size);
+			executors = newExecutors;
+			states = newStates;
+		}
+		executors[size] = executor;
+		states[size] = state;
+		size++;
+	}
+
+	/**
+	 * Remove the executors and the states pushed since the mark.
+	 */
+	public void reset(final int mark) {
+		for (int i = mark; i < size; i++) {
+			executors[i] = null;
+			states[i] = null;
+		}
+		size = mark;
+	}
+
+	/**
+	 * @return a new list of the executors pushed since the mark, except the
+	 *         {@code null} executors
+	 */
+	public List<Executor> executors(final int mark) {
+		int count = 0;
+		for (int i = mark; i < size; i++) {
+			if (executors[i] != null) {
+				count++;
+			}
+		}
+		final Executor[] array = new Executor[count];
+		int j = 0;
+		for (int i = mark; i < size; i++) {
+			if (executors[i] != null) {
+				array[j++] = executors[i];
+			}
+		}
+		return ExecutorList.wrap(array);
+	}
+
+	/**
+	 * @return the state of a list holding the states pushed since the mark.
+	 *         The states are copied to a new list only if they are not all the
+	 *         same {@code null} or list state without a list, see
+	 *         {@link ListAnalysisState}.
+	 */
+	public ListAnalysisState state(final int mark) {
+		final State first = size > mark ? states[mark] : null;
+		for (int i = mark; i < size; i++) {
+			if (!ListAnalysisState.isUniform(states[i])
+					|| !ListAnalysisState.sameShape(first, states[i])) {
+				final List<State> list = new ArrayList<>(size - mark);
+				for (int j = mark; j < size; j++) {
+					list.add(states[j]);
+				}
+				return new ListAnalysisState(list);
+			}
+		}
+		return ListAnalysisState.uniform(size - mark, first);
+	}
+}
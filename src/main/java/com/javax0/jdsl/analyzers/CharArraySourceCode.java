@@ -0,0 +1,115 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * SourceCode implementation that shares a single underlying character array
+ * between all the source code objects created from the same input and keeps
+ * only the absolute offset of the first character.
+ * <p>
+ * Calling {@link #rest(int)} does not copy any characters, it only creates a
+ * new small view object. This way consuming the input token by token costs
+ * constant time and memory per token even for very large inputs.
+ * <p>
+ * The methods {@link #equals(Object)}, {@link #hashCode()} and
+ * {@link #toString()} work on the characters of the view, the same way as they
+ * do in {@link StringSourceCode}. A {@link CharArraySourceCode} and a
+ * {@link StringSourceCode} holding the same characters are equal.
+ *
+ */
+public class CharArraySourceCode implements SourceCode {
+
+	private final char[] source;
+	private final int offset;
+
+	/**
+	 * Create a new source code that contains the characters of the string.
+	 */
+	public CharArraySourceCode(final String source) {
+		this(toCharArray(source), 0);
+	}
+
+	private CharArraySourceCode(final char[] source, final int offset) {
+		this.source = source;
+		this.offset = offset;
+	}
+
+	private static char[] toCharArray(final String source) {
+		if (source == null) {
+			throw new IllegalArgumentException(
+					"source can not be null when constructing CharArraySourceCode object");
+		}
+		return source.toCharArray();
+	}
+
+	@Override
+	public char charAt(final int i) {
+		if (i < 0) {
+			// the array holds the characters before the offset as well
+			throw new IndexOutOfBoundsException("Index " + i + " is negative");
+		}
+		return source[offset + i];
+	}
+
+	@Override
+	public int length() {
+		return source.length - offset;
+	}
+
+	@Override
+	public char[] array() {
+		return source;
+	}
+
+	@Override
+	public int arrayOffset() {
+		return offset;
+	}
+
+	@Override
+	public SourceCode rest(final int i) {
+		final SourceCode result;
+		if (i < length()) {
+			if (i == 0) {
+				result = this;
+			} else {
+				result = new CharArraySourceCode(source, offset + i);
+			}
+		} else {
+			result = StringSourceCode.EMPTY_SOURCE;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return new String(source, offset, length());
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for (int i = offset; i < source.length; i++) {
+			h = 31 * h + source[i];
+		}
+		return h;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (!(obj instanceof CharArraySourceCode)
+				&& !(obj instanceof StringSourceCode))
+			return false;
+		final SourceCode other = (SourceCode) obj;
+		if (other.length() != length())
+			return false;
+		for (int i = 0; i < length(); i++) {
+			if (charAt(i) != other.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,248 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * Analyzer that skips white spaces, line comments and block comments, for
+ * example {@code //}, {@code #} and <code>/* ... *&#47;</code> comments.
+ * <p>
+ * Line comments last until the end of the line, the line terminating
+ * character is skipped as a white space. Block comments do not nest. A block
+ * comment that is not closed is not skipped, the analysis of the grammar will
+ * fail at its start.
+ * <p>
+ * The ASCII characters are classified using a lookup table. If the source code
+ * is backed by an array (see {@link SourceCode#array()}) then the array is
+ * scanned directly without calling {@link SourceCode#charAt(int)} for each
+ * character.
+ * <p>
+ * Usually this analyzer is not created directly, the grammar calls
+ * {@link com.javax0.jdsl.GrammarDefinition#skipSpacesAndComments(String, String, String)}.
+ */
+public class CommentAndSpaceSkippingAnalyzer extends SkippingAnalyzer implements
+		FirstSet.Provider {
+	private static final int ASCII = 128;
+	private static final byte SPACE = 1;
+	private static final byte COMMENT_START = 2;
+
+	private final char[][] lineComments;
+	private final char[] blockCommentStart;
+	private final char[] blockCommentEnd;
+	private final byte[] table = new byte[ASCII];
+	private final FirstSet firstSet;
+
+	/**
+	 * @param lineComment
+	 *            the string that starts a line comment or {@code null} if
+	 *            there are no line comments
+	 * @param blockCommentStart
+	 *            the string that starts a block comment or {@code null} if
+	 *            there are no block comments
+	 * @param blockCommentEnd
+	 *            the string that ends a block comment, {@code null} if and only
+	 *            if {@code blockCommentStart} is {@code null}
+	 */
+	public CommentAndSpaceSkippingAnalyzer(final String lineComment,
+			final String blockCommentStart, final String blockCommentEnd) {
+		this(lineComment == null ? new String[0] : new String[] { lineComment },
+				blockCommentStart, blockCommentEnd);
+	}
+
+	/**
+	 * @param lineComments
+	 *            the strings that start line comments, e.g. {@code "//"} and
+	 *            {@code "#"}
+	 * @param blockCommentStart
+	 *            the string that starts a block comment or {@code null} if
+	 *            there are no block comments
+	 * @param blockCommentEnd
+	 *            the string that ends a block comment, {@code null} if and only
+	 *            if {@code blockCommentStart} is {@code null}
+	 */
+	public CommentAndSpaceSkippingAnalyzer(final String[] lineComments,
+			final String blockCommentStart, final String blockCommentEnd) {
+		if ((blockCommentStart == null) != (blockCommentEnd == null)) {
+			throw new IllegalArgumentException(
+					"Block comments need both the start and the end string");
+		}
+		this.lineComments = new char[lineComments.length][];
+		for (int i = 0; i < lineComments.length; i++) {
+			this.lineComments[i] = nonEmpty(lineComments[i]);
+		}
+		this.blockCommentStart = blockCommentStart == null ? null
+				: nonEmpty(blockCommentStart);
+		this.blockCommentEnd = blockCommentEnd == null ? null
+				: nonEmpty(blockCommentEnd);
+		for (char ch = 0; ch < ASCII; ch++) {
+			table[ch] = classify(ch);
+		}
+		firstSet = FirstSet.matching(ch -> classify(ch) != 0);
+	}
+
+	private static char[] nonEmpty(final String comment) {
+		if (comment == null || comment.isEmpty()) {
+			throw new IllegalArgumentException(
+					"Comment delimiters can not be null or empty");
+		}
+		return comment.toCharArray();
+	}
+
+	private byte classify(final char ch) {
+		byte flags = Character.isWhitespace(ch) ? SPACE : 0;
+		for (final char[] lineComment : lineComments) {
+			if (lineComment[0] == ch) {
+				flags |= COMMENT_START;
+			}
+		}
+		if (blockCommentStart != null && blockCommentStart[0] == ch) {
+			flags |= COMMENT_START;
+		}
+		return flags;
+	}
+
+	private int flags(final char ch) {
+		return ch < ASCII ? table[ch] : classify(ch);
+	}
+
+	@Override
+	protected int countCharacters(final SourceCode input) {
+		return countCharacters(input, 0);
+	}
+
+	@Override
+	protected int countCharacters(final SourceCode input, final int offset) {
+		final char[] array = input.array();
+		if (array != null) {
+			final int start = input.arrayOffset() + offset;
+			return skip(array, start, input.arrayOffset() + input.length())
+					- start;
+		}
+		return skipCharAt(input, offset) - offset;
+	}
+
+	/**
+	 * Skip the white spaces and comments in the array.
+	 *
+	 * @param chars
+	 *            the characters
+	 * @param from
+	 *            the index of the first character to skip
+	 * @param to
+	 *            the index following the last character of the input
+	 * @return the index of the first character not skipped
+	 */
+	public int skip(final char[] chars, final int from, final int to) {
+		int i = from;
+		while (i < to) {
+			final int flags = flags(chars[i]);
+			if ((flags & SPACE) != 0) {
+				i++;
+				continue;
+			}
+			if ((flags & COMMENT_START) == 0) {
+				break;
+			}
+			final int end = commentEnd(chars, i, to);
+			if (end == i) {
+				break;
+			}
+			i = end;
+		}
+		return i;
+	}
+
+	private int commentEnd(final char[] chars, final int start, final int to) {
+		for (final char[] lineComment : lineComments) {
+			if (startsWith(chars, start, to, lineComment)) {
+				int i = start + lineComment.length;
+				while (i < to && chars[i] != '\n' && chars[i] != '\r') {
+					i++;
+				}
+				return i;
+			}
+		}
+		if (blockCommentStart != null
+				&& startsWith(chars, start, to, blockCommentStart)) {
+			final char first = blockCommentEnd[0];
+			for (int i = start + blockCommentStart.length; i < to; i++) {
+				if (chars[i] == first
+						&& startsWith(chars, i, to, blockCommentEnd)) {
+					return i + blockCommentEnd.length;
+				}
+			}
+		}
+		return start;
+	}
+
+	private static boolean startsWith(final char[] chars, final int start,
+			final int to, final char[] prefix) {
+		if (to - start < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (chars[start + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int skipCharAt(final SourceCode input, final int from) {
+		int i = from;
+		while (input.hasAtLeast(i + 1)) {
+			final int flags = flags(input.charAt(i));
+			if ((flags & SPACE) != 0) {
+				i++;
+				continue;
+			}
+			if ((flags & COMMENT_START) == 0) {
+				break;
+			}
+			final int end = commentEnd(input, i);
+			if (end == i) {
+				break;
+			}
+			i = end;
+		}
+		return i;
+	}
+
+	private int commentEnd(final SourceCode input, final int start) {
+		for (final char[] lineComment : lineComments) {
+			if (startsWith(input, start, lineComment)) {
+				int i = start + lineComment.length;
+				while (input.hasAtLeast(i + 1) && input.charAt(i) != '\n'
+						&& input.charAt(i) != '\r') {
+					i++;
+				}
+				return i;
+			}
+		}
+		if (blockCommentStart != null
+				&& startsWith(input, start, blockCommentStart)) {
+			for (int i = start + blockCommentStart.length; input
+					.hasAtLeast(i + blockCommentEnd.length); i++) {
+				if (startsWith(input, i, blockCommentEnd)) {
+					return i + blockCommentEnd.length;
+				}
+			}
+		}
+		return start;
+	}
+
+	private static boolean startsWith(final SourceCode input, final int start,
+			final char[] prefix) {
+		if (!input.hasAtLeast(start + prefix.length)) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (input.charAt(start + i) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public FirstSet firstSet() {
+		return firstSet;
+	}
+}
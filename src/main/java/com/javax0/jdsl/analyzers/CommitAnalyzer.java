@@ -0,0 +1,35 @@
+package com.javax0.jdsl.analyzers;
+
+import com.javax0.jdsl.log.Reporter;
+import com.javax0.jdsl.log.ReporterFactory;
+
+/**
+ * Analyzer that consumes no characters and always succeeds. It calls
+ * {@link SourceCode#commit()} on the input declaring that the analysis will
+ * not go back before the current position. Source code reading a stream, like
+ * {@link ReaderSourceCode}, frees the characters before the position.
+ * <p>
+ * The analyzer is created by {@link com.javax0.jdsl.GrammarDefinition#cut()}.
+ */
+public class CommitAnalyzer implements Rule, FirstSet.Provider {
+	private final Reporter reporter = ReporterFactory.getReporter();
+
+	@Override
+	public AnalysisResult analyze(final SourceCode input) {
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(CommitAnalyzer.class, input);
+		}
+		input.commit();
+		return SimpleAnalysisResult.success(CommitAnalyzer.class, input, null);
+	}
+
+	@Override
+	public FirstSet firstSet() {
+		return FirstSet.NULLABLE;
+	}
+
+	@Override
+	public String toString() {
+		return "cut";
+	}
+}
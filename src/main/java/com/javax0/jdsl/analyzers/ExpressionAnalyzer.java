@@ -8,7 +8,9 @@ import com.javax0.jdsl.executors.SimpleListExecutorFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * An expression is a conventional expression, using binary operators, unary prefix operators, unary postfix operators,
@@ -29,87 +31,50 @@ import java.util.List;
  * expression :== expression_1
  * }
  * </pre>
+ * <p>
+ * The higher the priority the stronger the operator binds its operands. The analysis does not follow the priority
+ * levels recursively. It is an operator precedence (Pratt) parser that reads the tags and the operators left to right
+ * in one pass and keeps the operators waiting for their right operand on a stack. Only parentheses and the argument
+ * lists of the postfix calls start a new analysis of an expression. The operators are looked up by the first character
+ * of the input, operators given as strings are tried the longest first, so that {@code <=} is found even if {@code <}
+ * was added earlier.
+ * <p>
+ * Binary operators of the same priority are left associative unless they are added as
+ * {@link Associativity#RIGHT right associative}. A prefix operator followed by a binary or a postfix operator of the
+ * same priority is applied first.
+ * <p>
+ * The executor of the expression follows the precedence. A tag alone is the executor of the tag. An operation is a list
+ * executor created by the factory (see {@link #setFactory(Factory)}) holding the executors of the operands and of the
+ * operator in the order they appear in the source:
+ * <pre>
+ *     binary operator:  [left operand, operator, right operand]
+ *     prefix operator:  [operator, operand]
+ *     postfix operator: [operand, operator]
+ *     postfix call:     [operand, call executor, list of the arguments]
+ * </pre>
+ * Operators without executor are left out of the list.
+ * <p>
+ * An expression analyzer is usually created calling {@link com.javax0.jdsl.GrammarDefinition#expression()}, which sets
+ * the skipping analyzer of the grammar to ignore the spaces between the elements of the expression.
  */
 public final class ExpressionAnalyzer implements Rule {
 
-    private final ExpressionListAnalyser listAnalyser = new ExpressionListAnalyser();
-
-    @Override
-    public AnalysisResult analyze(final SourceCode input) {
-        return null;
-    }
-
     /**
-     * A mutating class supporting the analysis process. It maintains the state of the input source code, the list of
-     * collected executors, the result of the last executed analysis and the analyser used during the last analysis
+     * The associativity of a binary operator.
      */
-    private static class AnalysisContext {
-        AnalysisContext(final SourceCode input) {
-            this(input, new ArrayList<>());
-        }
-
-        AnalysisContext(final SourceCode input, List<Executor> executors) {
-            this.input = input;
-            this.executors = executors;
-        }
-
-        SourceCode input;
-        List<Executor> executors;
-        AnalysisResult result;
-        Analyzer analyzer;
-
-        /**
-         * Analyse using the analyser and update the context.
-         * <p>
-         * If the analysis is successful, then the input is set after the analysed characters, and the result is stored
-         * in the field 'result'. Also, the executor from the result is added to the list of the executors if it is not
-         * null.
-         * <p>
-         * Independent of the success or not, the last analyser object is also stored.
-         *
-         * @param analyzer the analyser to use
-         */
-        void analyzeWith(Analyzer analyzer) {
-            this.analyzer = analyzer;
-            result = analyzer.analyze(input);
-            if (result.wasSuccessful()) {
-                if (result.getExecutor() != null) {
-                    executors.add(result.getExecutor());
-                }
-                input = result.remainingSourceCode();
-            }
-        }
-
-        /**
-         * Get the last analyser, which was used. This is used for the list separator. In case there are multiple list
-         * separators possible in the language, when an expression list first separator is matched by an analyser the
-         * rest separators should also match the one. For example, some language could allow ',' as well as ';' as
-         * expression list separator. In that case if a list uses ',' it cannot use ';' and the other way around.
-         * If a grammar wants intermixed expression list separators, then it should define an analyser that accepts
-         * bot ',' and ';' instead of having two terminal symbol analysers.
-         *
-         * @return the last analyser used, failed or not
-         */
-        Analyzer lastAnalyzer() {
-            return analyzer;
-        }
-
+    public enum Associativity {
         /**
-         * @return true if the last analysis failed
+         * {@code a - b - c} is {@code (a - b) - c}
          */
-        boolean failed() {
-            return !result.wasSuccessful();
-        }
-
+        LEFT,
         /**
-         * @return true if the last analysis was successful
+         * {@code a ^ b ^ c} is {@code a ^ (b ^ c)}
          */
-        boolean success() {
-            return result.wasSuccessful();
-        }
-
+        RIGHT
     }
 
+    private final ExpressionListAnalyser listAnalyser = new ExpressionListAnalyser();
+
     /**
      * A simple generic fail result.
      */
@@ -138,27 +103,153 @@ public final class ExpressionAnalyzer implements Rule {
     private static class Operator {
         final Analyzer operatorAnalyzer;
         final int priority;
+        final Associativity associativity;
 
-        private Operator(final String operator, final int priority, final Executor executor) {
-            this(TerminalSymbolAnalyzer.analyzer(operator, executor), priority);
+        private Operator(final Analyzer operatorAnalyzer, final int priority, final Associativity associativity) {
+            this.operatorAnalyzer = operatorAnalyzer;
+            this.priority = priority;
+            this.associativity = associativity;
         }
+    }
 
-        private Operator(final Analyzer operatorAnalyzer, final int priority) {
-            this.operatorAnalyzer = operatorAnalyzer;
+    private static class PostfixCall {
+        final Pair parentheses;
+        final Executor executor;
+        final int priority;
+
+        private PostfixCall(final Analyzer open, final Analyzer close, final Executor executor, final int priority) {
+            this.parentheses = new Pair(open, close);
+            this.executor = executor;
             this.priority = priority;
         }
+
+    }
+
+    /**
+     * An operator found in the input and the result of its analysis.
+     */
+    private static final class Match<T> {
+        final T operator;
+        final AnalysisResult result;
+        // the length of the lexeme of a terminal symbol operator, 0 if the operator is analyzed by another analyzer
+        final int lexemeLength;
+
+        private Match(final T operator, final AnalysisResult result, final int lexemeLength) {
+            this.operator = operator;
+            this.result = result;
+            this.lexemeLength = lexemeLength;
+        }
+    }
+
+    /**
+     * The operators of one kind arranged by the characters they may start with.
+     */
+    private static final class OperatorTable<T> {
+        private static final int ASCII_SIZE = 128;
+        private final List<List<T>> byFirstCharacter = new ArrayList<>(ASCII_SIZE);
+        private final List<T> all;
+        private final Function<T, Analyzer> analyzerOf;
+
+        private OperatorTable(final List<T> operators, final Function<T, Analyzer> analyzerOf) {
+            this.analyzerOf = analyzerOf;
+            all = new ArrayList<>(operators);
+            all.sort(Comparator.comparingInt(op -> -lexemeLength(analyzerOf.apply(op))));
+            final List<FirstSet> firstSets = new ArrayList<>(all.size());
+            for (final T operator : all) {
+                firstSets.add(FirstSet.of(analyzerOf.apply(operator)));
+            }
+            for (char ch = 0; ch < ASCII_SIZE; ch++) {
+                final List<T> candidates = new ArrayList<>();
+                for (int i = 0; i < all.size(); i++) {
+                    if (firstSets.get(i).mayStartWith(ch)) {
+                        candidates.add(all.get(i));
+                    }
+                }
+                byFirstCharacter.add(candidates.isEmpty() ? List.of() : candidates);
+            }
+        }
+
+        private static int lexemeLength(final Analyzer analyzer) {
+            return analyzer instanceof TerminalSymbolAnalyzer ? ((TerminalSymbolAnalyzer) analyzer).getLexeme().length() : 0;
+        }
+
+        private Match<T> match(final SourceCode input) {
+            final List<T> candidates;
+            if (input.hasAtLeast(1) && input.charAt(0) < ASCII_SIZE) {
+                candidates = byFirstCharacter.get(input.charAt(0));
+            } else {
+                candidates = all;
+            }
+            for (final T operator : candidates) {
+                final Analyzer analyzer = analyzerOf.apply(operator);
+                final AnalysisResult result = analyzer.analyze(input);
+                if (result.wasSuccessful()) {
+                    return new Match<>(operator, result, lexemeLength(analyzer));
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The operator tables built from the operators defined when the analysis starts.
+     */
+    private static final class Tables {
+        private final OperatorTable<Operator> unaryPrefixes;
+        private final OperatorTable<Operator> unaryPostfixes;
+        private final OperatorTable<Operator> binaries;
+        private final OperatorTable<PostfixCall> postfixCalls;
+
+        private Tables(final ExpressionAnalyzer expression) {
+            unaryPrefixes = new OperatorTable<>(expression.unaryPrefixes, op -> op.operatorAnalyzer);
+            unaryPostfixes = new OperatorTable<>(expression.unaryPostfixes, op -> op.operatorAnalyzer);
+            binaries = new OperatorTable<>(expression.binaries, op -> op.operatorAnalyzer);
+            postfixCalls = new OperatorTable<>(expression.postfixCalls, call -> call.parentheses.open);
+        }
+    }
+
+    /**
+     * A prefix or binary operator waiting on the stack for its right operand to be complete.
+     */
+    private static final class Pending {
+        final Operator operator;
+        final Executor executor;
+        final boolean prefix;
+
+        private Pending(final Operator operator, final Executor executor, final boolean prefix) {
+            this.operator = operator;
+            this.executor = executor;
+            this.prefix = prefix;
+        }
     }
 
-    int maxPriority = 1;
+    private volatile Tables tables;
+
+    private SkippingAnalyzer skipAnalyzer;
 
     final List<Analyzer> terminals = new ArrayList<>(1);
 
-    Factory<ListExecutor> factory;
+    Factory<? extends ListExecutor> factory = SimpleListExecutorFactory.INSTANCE;
 
-    public void setFactory(Factory<ListExecutor> factory) {
+    /**
+     * Set the factory that creates the executors of the operations. The default factory creates
+     * {@link com.javax0.jdsl.executors.SimpleListExecutor}s.
+     *
+     * @param factory the factory of the list executors
+     */
+    public void setFactory(final Factory<? extends ListExecutor> factory) {
         this.factory = factory;
     }
 
+    /**
+     * Set the skipping analyzer that skips the characters (usually spaces) before the elements of the expression.
+     *
+     * @param skipAnalyzer the skipping analyzer or {@code null} if nothing is skipped
+     */
+    public void setSkipAnalyzer(final SkippingAnalyzer skipAnalyzer) {
+        this.skipAnalyzer = skipAnalyzer;
+    }
+
     public void addTerminals(Analyzer... analyzer) {
         terminals.addAll(List.of(analyzer));
     }
@@ -170,7 +261,7 @@ public final class ExpressionAnalyzer implements Rule {
     }
 
     public void addListSeparator(final String lexeme, final Executor executor) {
-        listSeparators.add(TerminalSymbolAnalyzer.analyzer(lexeme, executor));
+        listSeparators.add(terminal(lexeme, executor));
     }
 
     public void addListSeparator(String... separators) {
@@ -187,19 +278,6 @@ public final class ExpressionAnalyzer implements Rule {
         parentheses.add(new Pair(open, close));
     }
 
-    private static class PostfixCall {
-        final Pair parentheses;
-        final Executor executor;
-        final int priority;
-
-        private PostfixCall(final Analyzer open, final Analyzer close, final Executor executor, final int priority) {
-            this.parentheses = new Pair(open, close);
-            this.executor = executor;
-            this.priority = priority;
-        }
-
-    }
-
     final List<PostfixCall> postfixCalls = new ArrayList<>(2);
 
     /**
@@ -224,245 +302,298 @@ public final class ExpressionAnalyzer implements Rule {
      */
     public void addPostfixCall(final Analyzer open, final Analyzer close, final Executor executor, final int priority) {
         postfixCalls.add(new PostfixCall(open, close, executor, priority));
-        maxPriority = Math.max(maxPriority, priority);
+        tables = null;
     }
 
     final List<Operator> unaryPrefixes = new ArrayList<>();
 
     public void addUnaryPrefix(final String operator, final int priority, final Executor executor) {
-        addUnaryPrefix(TerminalSymbolAnalyzer.analyzer(operator, executor), priority);
+        addUnaryPrefix(terminal(operator, executor), priority);
     }
 
     public void addUnaryPrefix(final Analyzer operator, final int priority) {
-        unaryPrefixes.add(new Operator(operator, priority));
-        maxPriority = Math.max(maxPriority, priority);
+        unaryPrefixes.add(new Operator(operator, priority, Associativity.RIGHT));
+        tables = null;
     }
 
     final List<Operator> unaryPostfixes = new ArrayList<>();
 
     public void addUnaryPostfix(final String operator, final int priority, final Executor executor) {
-        addUnaryPostfix(TerminalSymbolAnalyzer.analyzer(operator, executor), priority);
+        addUnaryPostfix(terminal(operator, executor), priority);
     }
 
     public void addUnaryPostfix(final Analyzer operator, final int priority) {
-        unaryPostfixes.add(new Operator(operator, priority));
-        maxPriority = Math.max(maxPriority, priority);
+        unaryPostfixes.add(new Operator(operator, priority, Associativity.LEFT));
+        tables = null;
     }
 
     final List<Operator> binaries = new ArrayList<>();
 
+    /**
+     * Define a left associative binary operator.
+     *
+     * @param operator the lexeme of the operator
+     * @param priority the priority of the operator, higher priority binds stronger
+     * @param executor the executor of the operator, which is put between the executors of the operands
+     */
     public void addBinary(final String operator, final int priority, final Executor executor) {
-        addBinary(TerminalSymbolAnalyzer.analyzer(operator, executor), priority);
+        addBinary(operator, priority, Associativity.LEFT, executor);
+    }
+
+    /**
+     * Define a binary operator.
+     *
+     * @param operator      the lexeme of the operator
+     * @param priority      the priority of the operator, higher priority binds stronger
+     * @param associativity the associativity of the operator
+     * @param executor      the executor of the operator, which is put between the executors of the operands
+     */
+    public void addBinary(final String operator, final int priority, final Associativity associativity, final Executor executor) {
+        addBinary(terminal(operator, executor), priority, associativity);
     }
 
     public void addBinary(final Analyzer operator, final int priority) {
-        binaries.add(new Operator(operator, priority));
-        maxPriority = Math.max(maxPriority, priority);
+        addBinary(operator, priority, Associativity.LEFT);
     }
 
-    private class TagAnalyzer implements Analyzer {
+    public void addBinary(final Analyzer operator, final int priority, final Associativity associativity) {
+        binaries.add(new Operator(operator, priority, associativity));
+        tables = null;
+    }
 
-        @Override
-        public AnalysisResult analyze(final SourceCode input) {
-            for (final var p : parentheses) {
-                final var openRes = p.open.analyze(input);
-                if (openRes.wasSuccessful()) {
-                    return getComplexTagAnalysisResult(p, openRes.remainingSourceCode());
-                }
-            }
-            for (final var t : terminals) {
-                final var terminalResult = t.analyze(input);
-                if (terminalResult.wasSuccessful()) {
-                    return terminalResult;
-                }
-            }
-            return SimpleAnalysisResult.failed(TagAnalyzer.class, "Tag could not be analyzed");
-        }
+    private static Analyzer terminal(final String lexeme, final Executor executor) {
+        return TerminalSymbolAnalyzer.analyzer(lexeme, TerminalSymbolAnalyzer.CharCompare.caseSensitive, executor);
+    }
 
-        /**
-         * Analyze a tag that is '( expression )'. The input already points after the opening parentheses.
-         *
-         * @param p     the pair of parentheses
-         * @param input after the opening parentheses
-         * @return the analysis result
-         */
-        private AnalysisResult getComplexTagAnalysisResult(final Pair p, final SourceCode input) {
-            final var expressionAnalysisRes = ExpressionAnalyzer.this.analyze(input);
-            if (!expressionAnalysisRes.wasSuccessful()) {
-                return SimpleAnalysisResult.failed(TagAnalyzer.class, "expression syntax error between parentheses");
-            }
-            final var analysisResult = p.close.analyze(expressionAnalysisRes.remainingSourceCode());
-            if (analysisResult.wasSuccessful()) {
-                return SimpleAnalysisResult.success(TagAnalyzer.class, analysisResult.remainingSourceCode(), expressionAnalysisRes.getExecutor());
-            }
-            return SimpleAnalysisResult.failed(TagAnalyzer.class, "no closing parenthesis");
+    private Tables tables() {
+        Tables tables = this.tables;
+        if (tables == null) {
+            tables = new Tables(this);
+            this.tables = tables;
         }
+        return tables;
     }
 
-    private class ExpressionListAnalyser implements Analyzer {
-
-        Factory<ListExecutor> factory = new SimpleListExecutorFactory();
+    private SourceCode skip(final SourceCode input) {
+        return skipAnalyzer == null ? input : skipAnalyzer.analyze(input).remainingSourceCode();
+    }
 
-        @Override
-        public AnalysisResult analyze(final SourceCode input) {
-            final var context = new AnalysisContext(input);
-            context.analyzeWith(ExpressionAnalyzer.this);
-            if (context.success()) {
-                AnalysisResult separatorRes;
-                analyzeFirstListSeparator(context);
-                Analyzer listSeparatorAnalyser = context.lastAnalyzer();
-                while (context.success()) {
-                    context.analyzeWith(ExpressionAnalyzer.this);
-                    if (context.failed()) {
+    @Override
+    public AnalysisResult analyze(final SourceCode input) {
+        final Tables tables = tables();
+        final List<Executor> operands = new ArrayList<>();
+        final List<Pending> operators = new ArrayList<>();
+        SourceCode rest = input;
+        // the input following the last complete operand and the size of the operator stack there, where the
+        // analysis backtracks to when an operator is not followed by an operand
+        SourceCode completeRest = null;
+        int completeOperators = 0;
+        while (true) {
+            final SourceCode operandStart = skip(rest);
+            final Match<Operator> prefix = tables.unaryPrefixes.match(operandStart);
+            if (prefix != null) {
+                operators.add(new Pending(prefix.operator, prefix.result.getExecutor(), true));
+                rest = prefix.result.remainingSourceCode();
+                continue;
+            }
+            final AnalysisResult tag = analyzeTag(operandStart);
+            if (!tag.wasSuccessful()) {
+                if (completeRest == null) {
+                    return FAIL;
+                }
+                operators.subList(completeOperators, operators.size()).clear();
+                rest = completeRest;
+                break;
+            }
+            operands.add(tag.getExecutor());
+            rest = tag.remainingSourceCode();
+            while (true) {
+                final SourceCode postfixStart = skip(rest);
+                final Match<PostfixCall> call = tables.postfixCalls.match(postfixStart);
+                if (call != null) {
+                    final AnalysisResult arguments = listAnalyser.analyze(call.result.remainingSourceCode());
+                    if (!arguments.wasSuccessful()) {
                         return FAIL;
                     }
-                    context.analyzeWith(listSeparatorAnalyser);
+                    final AnalysisResult close = call.operator.parentheses.close.analyze(skip(arguments.remainingSourceCode()));
+                    if (!close.wasSuccessful()) {
+                        return FAIL;
+                    }
+                    reduce(operators, operands, call.operator.priority, true);
+                    push(operands, pop(operands), call.operator.executor, arguments.getExecutor());
+                    rest = close.remainingSourceCode();
+                    continue;
                 }
-                final var executor = factory.get().withList(context.executors);
-                return SimpleAnalysisResult.success(ExpressionListAnalyser.class, context.input, executor);
-            } else {
-                // empty expression list
-                return SimpleAnalysisResult.success(ExpressionListAnalyser.class, input, factory.get());
+                final Match<Operator> postfix = tables.unaryPostfixes.match(postfixStart);
+                if (postfix != null && !isLonger(tables.binaries.match(postfixStart), postfix)) {
+                    reduce(operators, operands, postfix.operator.priority, true);
+                    push(operands, pop(operands), postfix.result.getExecutor());
+                    rest = postfix.result.remainingSourceCode();
+                    continue;
+                }
+                break;
+            }
+            final Match<Operator> binary = tables.binaries.match(skip(rest));
+            if (binary == null) {
+                break;
             }
+            reduce(operators, operands, binary.operator.priority, binary.operator.associativity == Associativity.LEFT);
+            completeRest = rest;
+            completeOperators = operators.size();
+            operators.add(new Pending(binary.operator, binary.result.getExecutor(), false));
+            rest = binary.result.remainingSourceCode();
         }
+        reduce(operators, operands, Integer.MIN_VALUE, true);
+        return SimpleAnalysisResult.success(ExpressionAnalyzer.class, rest, operands.get(0));
+    }
 
-        private void analyzeFirstListSeparator(final AnalysisContext contex) {
+    /**
+     * @return {@code true} if the operator {@code a} matches more characters of the input than the operator {@code b}.
+     * Postfix and binary operators are matched at the same position, and the longer one wins, thus a postfix
+     * {@code !} does not hide a binary {@code !=}. The lengths of the lexemes are compared when both operators are
+     * terminal symbols, otherwise the lengths of the remaining inputs, which may read a stream input till the end.
+     */
+    private static boolean isLonger(final Match<?> a, final Match<?> b) {
+        if (a == null) {
+            return false;
+        }
+        if (a.lexemeLength > 0 && b.lexemeLength > 0) {
+            return a.lexemeLength > b.lexemeLength;
         }
+        return a.result.remainingSourceCode().length() < b.result.remainingSourceCode().length();
     }
 
-    private class ExpressionAnalyzerPriorityN implements Analyzer {
-        Factory<ListExecutor> factory = new SimpleListExecutorFactory();
-
-        private final Analyzer underlying;
-        private final Operator[] unaryPrefixes;
-        private final Operator[] unaryPostfixes;
-        private final Operator[] binaries;
-
-        private final PostfixCall[] postfixCalls;
-
-        private ExpressionAnalyzerPriorityN(final int priority) {
-            if (priority == maxPriority) {
-                underlying = new TagAnalyzer();
+    /**
+     * Apply the operators waiting on the stack that bind stronger than an operator of the given priority.
+     *
+     * @param operators the stack of the waiting operators
+     * @param operands  the stack of the executors of the operands
+     * @param priority  the priority of the next operator
+     * @param equalToo  apply the binary operators of the same priority as well (left associativity)
+     */
+    private void reduce(final List<Pending> operators, final List<Executor> operands, final int priority, final boolean equalToo) {
+        while (!operators.isEmpty()) {
+            final Pending top = operators.get(operators.size() - 1);
+            final int topPriority = top.operator.priority;
+            if (topPriority < priority || (topPriority == priority && !equalToo && !top.prefix)) {
+                return;
+            }
+            operators.remove(operators.size() - 1);
+            if (top.prefix) {
+                push(operands, top.executor, pop(operands));
             } else {
-                underlying = new ExpressionAnalyzerPriorityN(priority + 1);
+                final Executor right = pop(operands);
+                push(operands, pop(operands), top.executor, right);
             }
-            unaryPrefixes = ExpressionAnalyzer.this.unaryPrefixes.stream().filter(op -> op.priority == priority).toArray(Operator[]::new);
-            unaryPostfixes = ExpressionAnalyzer.this.unaryPostfixes.stream().filter(op -> op.priority == priority).toArray(Operator[]::new);
-            binaries = ExpressionAnalyzer.this.binaries.stream().filter(op -> op.priority == priority).toArray(Operator[]::new);
-            postfixCalls = ExpressionAnalyzer.this.postfixCalls.stream().filter(pfc -> pfc.priority == priority).toArray(PostfixCall[]::new);
         }
+    }
 
-        /**
-         * <pre>
-         * {@code
-         * EXP(X) =  unary* X (binaryOp_N X)* unary_N* |
-         *          X (postfix_parameterized_operator_N_opening expressionList postfix_parameterized_operator_N_closing)+
-         * }
-         * </pre>
-         *
-         * @param input
-         * @return the result of the analysis
-         */
-        @Override
-        public AnalysisResult analyze(final SourceCode input) {
-            final var context = new AnalysisContext(input);
-            analyzeUnaryList(context, unaryPrefixes);
-            context.analyzeWith(in -> analyseExpressionWithPostfix(context));
-            if (context.failed()) {
-                return FAIL;
-            }
-            context.analyzeWith(in -> operatorAnalyze(in, binaries));
-            while (context.success()) {
-                context.analyzeWith(in -> analyseExpressionWithPostfix(context));
-                if (context.failed()) {
-                    return FAIL;
-                }
+    private static Executor pop(final List<Executor> operands) {
+        return operands.remove(operands.size() - 1);
+    }
+
+    private void push(final List<Executor> operands, final Executor... executors) {
+        final List<Executor> executorList = new ArrayList<>(executors.length);
+        for (final Executor executor : executors) {
+            if (executor != null) {
+                executorList.add(executor);
             }
-            analyzeUnaryList(context, unaryPostfixes);
-            return createResultWithExecutor(context);
         }
+        operands.add(factory.get().withList(executorList));
+    }
 
-        private AnalysisResult analyseExpressionWithPostfix(AnalysisContext context) {
-            context.analyzeWith(underlying);
-            if (context.failed()) {
-                return FAIL;
+    /**
+     * Analyze a tag, which is either an expression between parentheses or a terminal.
+     *
+     * @param input the input at the start of the tag
+     * @return the analysis result
+     */
+    private AnalysisResult analyzeTag(final SourceCode input) {
+        for (final var p : parentheses) {
+            final var openRes = p.open.analyze(input);
+            if (openRes.wasSuccessful()) {
+                return getComplexTagAnalysisResult(p, openRes.remainingSourceCode());
             }
-            var postFixCall = findPostFixCall(context);
-            while (context.success() && postFixCall != null) {
-                context.analyzeWith(ExpressionAnalyzer.this.listAnalyser);
-                if (context.failed()) {
-                    return FAIL;
-                }
-                context.analyzeWith(postFixCall.parentheses.close);
-                if (context.failed()) {
-                    return FAIL;
-                }
-                postFixCall = findPostFixCall(context);
+        }
+        for (final var t : terminals) {
+            final var terminalResult = t.analyze(input);
+            if (terminalResult.wasSuccessful()) {
+                return terminalResult;
             }
-            //TODO
-            return null;
         }
+        return SimpleAnalysisResult.failed(ExpressionAnalyzer.class, "Tag could not be analyzed");
+    }
 
-
-        /**
-         * Try all the postfix call openings. If one accepts the start of the input then step the context and return the
-         * structure to the postfix call so  that the caller later can analyze the matching closing. For example, if
-         * the opening is '(' then the closing will be ')', if the opening is '[' the colsing has to be ']'.
-         * <p>
-         * If there is no matching opening postfix call then return null and the context will be in a failed state.
-         * Even though it is guaranteed that the returned value is not null when the context is success, the caller
-         * is encouraged to check the nullity of the return value.
-         *
-         * @param context the analysis context before the
-         * @return teh structure of the found post fix call
-         */
-        private PostfixCall findPostFixCall(final AnalysisContext context) {
-            for (final var call : postfixCalls) {
-                context.analyzeWith(call.parentheses.open);
-                if (context.success()) {
-                    return call;
-                }
-            }
-            return null;
+    /**
+     * Analyze a tag that is '( expression )'. The input already points after the opening parentheses.
+     *
+     * @param p     the pair of parentheses
+     * @param input after the opening parentheses
+     * @return the analysis result
+     */
+    private AnalysisResult getComplexTagAnalysisResult(final Pair p, final SourceCode input) {
+        final var expressionAnalysisRes = analyze(input);
+        if (!expressionAnalysisRes.wasSuccessful()) {
+            return SimpleAnalysisResult.failed(ExpressionAnalyzer.class, "expression syntax error between parentheses");
         }
+        final var analysisResult = p.close.analyze(skip(expressionAnalysisRes.remainingSourceCode()));
+        if (analysisResult.wasSuccessful()) {
+            return SimpleAnalysisResult.success(ExpressionAnalyzer.class, analysisResult.remainingSourceCode(), expressionAnalysisRes.getExecutor());
+        }
+        return SimpleAnalysisResult.failed(ExpressionAnalyzer.class, "no closing parenthesis");
+    }
 
+    /**
+     * Analyzes the argument list of a postfix call. The list may be empty. When a list contains more than one
+     * expression then the separator first matched is used between all the expressions of the list. For example, some
+     * language could allow ',' as well as ';' as expression list separator. In that case if a list uses ',' it cannot
+     * use ';' and the other way around. If a grammar wants intermixed expression list separators, then it should define
+     * an analyser that accepts both ',' and ';' instead of having two terminal symbol analysers.
+     */
+    private class ExpressionListAnalyser implements Analyzer {
 
-        /**
-         * Analyzes a list of unary operators and add the executors returned by the individual analysis result to the
-         * executors in the context.
-         * The analysis is always successful, because it is an {@code (unary)*} analysis, and should be treated by the
-         * caller as such, even if the context state is failed.
-         *
-         * @param context   containing the analysis context
-         * @param operators the array of operators that may be used on this level
-         */
-        private void analyzeUnaryList(final AnalysisContext context, final ExpressionAnalyzer.Operator[] operators) {
-            context.analyzeWith(in -> operatorAnalyze(in, operators));
-            while (context.success()) {
-                context.analyzeWith(in -> operatorAnalyze(in, operators));
-            }
-        }
+        final Factory<ListExecutor> factory = SimpleListExecutorFactory.INSTANCE;
 
-        /**
-         * Analyze the input and return a successful result if the input starts with an operator that is on the current priority level.
-         *
-         * @param input     the input that may start with an operator
-         * @param operators the array of the operators to check. These can be unary prefix, postfix or binary operators.
-         * @return the analysis result
-         */
-        private AnalysisResult operatorAnalyze(final SourceCode input, final ExpressionAnalyzer.Operator[] operators) {
-            for (final var operator : operators) {
-                final var result = operator.operatorAnalyzer.analyze(input);
-                if (result.wasSuccessful()) {
-                    return result;
+        @Override
+        public AnalysisResult analyze(final SourceCode input) {
+            final List<Executor> executors = new ArrayList<>();
+            AnalysisResult result = ExpressionAnalyzer.this.analyze(input);
+            if (!result.wasSuccessful()) {
+                // empty expression list
+                return SimpleAnalysisResult.success(ExpressionListAnalyser.class, input, factory.get().withList(executors));
+            }
+            executors.add(result.getExecutor());
+            SourceCode rest = result.remainingSourceCode();
+            Analyzer listSeparatorAnalyser = null;
+            while (true) {
+                final SourceCode separatorStart = skip(rest);
+                AnalysisResult separatorRes = null;
+                if (listSeparatorAnalyser == null) {
+                    for (final Analyzer separator : listSeparators) {
+                        final AnalysisResult res = separator.analyze(separatorStart);
+                        if (res.wasSuccessful()) {
+                            listSeparatorAnalyser = separator;
+                            separatorRes = res;
+                            break;
+                        }
+                    }
+                } else {
+                    separatorRes = listSeparatorAnalyser.analyze(separatorStart);
                 }
+                if (separatorRes == null || !separatorRes.wasSuccessful()) {
+                    break;
+                }
+                if (separatorRes.getExecutor() != null) {
+                    executors.add(separatorRes.getExecutor());
+                }
+                result = ExpressionAnalyzer.this.analyze(separatorRes.remainingSourceCode());
+                if (!result.wasSuccessful()) {
+                    return FAIL;
+                }
+                executors.add(result.getExecutor());
+                rest = result.remainingSourceCode();
             }
-            return SimpleAnalysisResult.failed(ExpressionAnalyzerPriorityN.class);
+            return SimpleAnalysisResult.success(ExpressionListAnalyser.class, rest, factory.get().withList(executors));
         }
     }
-
-    private SimpleAnalysisResult createResultWithExecutor(final AnalysisContext context) {
-        final var executor = factory.get().withList(context.executors);
-        return SimpleAnalysisResult.success(ExpressionAnalyzerPriorityN.class, context.input, executor);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * The set of the characters that the input can start with when an analyzer
+ * accepts it. This is what compiler text books call the FIRST set of a grammar
+ * rule.
+ * <p>
+ * The set is only precise for the ASCII characters (0 to 127). Any other
+ * character may be the start of an accepted input. A set can also be
+ * <ul>
+ * <li><b>unknown</b>: the analyzer may accept input starting with any character,
+ * for example when it is a user defined analyzer, and</li>
+ * <li><b>nullable</b>: the analyzer may accept the input without consuming any
+ * character, in which case the first character of the input does not matter.</li>
+ * </ul>
+ * <p>
+ * Analyzers that know what characters they start with implement the interface
+ * {@link Provider}. The sets are used by the {@link AlternativesAnalyzer} to
+ * avoid trying alternatives that can not match the next character.
+ */
+public final class FirstSet {
+	public static final FirstSet UNKNOWN = new FirstSet(-1L, -1L, true, true);
+	public static final FirstSet NULLABLE = new FirstSet(0L, 0L, true, false);
+	public static final FirstSet EMPTY = new FirstSet(0L, 0L, false, false);
+
+	/**
+	 * Analyzers that can tell their first set implement this interface.
+	 */
+	public interface Provider {
+		/**
+		 * Get the first set of the analyzer. The method is called after the
+		 * grammar is defined. Analyzers that have underlying analyzers may
+		 * compute the set only once and remember it.
+		 */
+		FirstSet firstSet();
+	}
+
+	/**
+	 * Predicate on characters.
+	 */
+	@FunctionalInterface
+	public interface CharPredicate {
+		boolean test(char ch);
+	}
+
+	private static final int ASCII_SIZE = 128;
+
+	private final long low;
+	private final long high;
+	private final boolean nullable;
+	private final boolean unknown;
+
+	private FirstSet(final long low, final long high, final boolean nullable,
+			final boolean unknown) {
+		this.low = low;
+		this.high = high;
+		this.nullable = nullable;
+		this.unknown = unknown;
+	}
+
+	/**
+	 * Get the first set of any analyzer. If the analyzer does not implement
+	 * {@link Provider} then the result is {@link #UNKNOWN}.
+	 */
+	public static FirstSet of(final Analyzer analyzer) {
+		if (analyzer instanceof Provider) {
+			return ((Provider) analyzer).firstSet();
+		}
+		return UNKNOWN;
+	}
+
+	/**
+	 * Create a non-nullable first set containing the ASCII characters that
+	 * match the predicate.
+	 */
+	public static FirstSet matching(final CharPredicate predicate) {
+		long low = 0L;
+		long high = 0L;
+		for (char ch = 0; ch < ASCII_SIZE; ch++) {
+			if (predicate.test(ch)) {
+				if (ch < 64) {
+					low |= 1L << ch;
+				} else {
+					high |= 1L << (ch - 64);
+				}
+			}
+		}
+		return new FirstSet(low, high, false, false);
+	}
+
+	/**
+	 * Create a non-nullable first set containing the characters.
+	 */
+	public static FirstSet of(final String characters) {
+		return matching(ch -> characters.indexOf(ch) != -1);
+	}
+
+	/**
+	 * @return the set that contains the characters of both sets. It is nullable
+	 *         or unknown if any of the sets is.
+	 */
+	public FirstSet union(final FirstSet other) {
+		return new FirstSet(low | other.low, high | other.high, nullable
+				|| other.nullable, unknown || other.unknown);
+	}
+
+	/**
+	 * @return the same set of characters but nullable as specified by the
+	 *         argument
+	 */
+	public FirstSet nullable(final boolean nullable) {
+		return new FirstSet(low, high, nullable, unknown);
+	}
+
+	/**
+	 * @return the first set of an analyzer that is followed by another one
+	 *         whose first set is {@code next}. The characters of {@code next}
+	 *         are only included if this set is nullable.
+	 */
+	public FirstSet followedBy(final FirstSet next) {
+		if (!nullable) {
+			return this;
+		}
+		return new FirstSet(low | next.low, high | next.high, next.nullable,
+				unknown || next.unknown);
+	}
+
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	public boolean isUnknown() {
+		return unknown;
+	}
+
+	/**
+	 * @return {@code true} if the analyzer may accept an input starting with
+	 *         the character {@code ch}, or without consuming any character
+	 */
+	public boolean mayStartWith(final char ch) {
+		return unknown || nullable || ch >= ASCII_SIZE || contains(ch);
+	}
+
+	private boolean contains(final char ch) {
+		if (ch < 64) {
+			return (low & (1L << ch)) != 0;
+		}
+		return (high & (1L << (ch - 64))) != 0;
+	}
+
+	@Override
+	public String toString() {
+		if (unknown) {
+			return "FIRST(?)";
+		}
+		final StringBuilder sb = new StringBuilder("FIRST(");
+		for (char ch = 0; ch < ASCII_SIZE; ch++) {
+			if (contains(ch)) {
+				sb.append(ch);
+			}
+		}
+		if (nullable) {
+			sb.append(",nullable");
+		}
+		return sb.append(")").toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(low) * 31 + Long.hashCode(high) * 7
+				+ (nullable ? 2 : 0) + (unknown ? 1 : 0);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof FirstSet))
+			return false;
+		final FirstSet other = (FirstSet) obj;
+		return low == other.low && high == other.high
+				&& nullable == other.nullable && unknown == other.unknown;
+	}
+}
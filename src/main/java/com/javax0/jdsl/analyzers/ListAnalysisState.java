@@ -1,26 +1,149 @@
 package com.javax0.jdsl.analyzers;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+/**
+ * The state of a list or sequence analysis: the states of the underlying
+ * analyses in the order of the input.
+ * <p>
+ * Most of the underlying states are {@code null}, only the closures of the
+ * {@link NullAnalyzer}s produce states. The states of nested lists and
+ * sequences that do not contain such states do not hold a list either. The
+ * states collected by a {@link Builder} are stored in a list only when they
+ * differ: a state of a closure, or nested list states of different shapes, for
+ * example repetitions of different lengths. Otherwise only the number of the
+ * underlying analyses and one of the (equal) underlying states is stored, thus
+ * grammars that do not use states do not allocate state lists, not even for
+ * nested rules like {@code many(list(...))}.
+ */
 public class ListAnalysisState implements State, Iterable<State> {
 
 	final private List<State> states;
+	final private int size;
+	final private State element;
 
 	public ListAnalysisState(final List<State> states) {
 		this.states = states;
+		this.size = -1;
+		this.element = null;
+	}
+
+	private ListAnalysisState(final int size, final State element) {
+		this.states = null;
+		this.size = size;
+		this.element = size == 0 ? null : element;
+	}
+
+	/**
+	 * @return a state of {@code size} underlying states that are all the same
+	 *         {@code element}, which is {@code null} or a state without a list
+	 */
+	static ListAnalysisState uniform(final int size, final State element) {
+		return new ListAnalysisState(size, element);
+	}
+
+	/**
+	 * @return {@code true} if the state is {@code null} or a list state that
+	 *         does not hold a list
+	 */
+	static boolean isUniform(final State state) {
+		return state == null || state instanceof ListAnalysisState
+				&& ((ListAnalysisState) state).states == null;
+	}
+
+	/**
+	 * @return {@code true} if the two uniform states (see
+	 *         {@link #isUniform(State)}) are the same, thus one of them can
+	 *         stand for both
+	 */
+	static boolean sameShape(final State a, final State b) {
+		if (a == b) {
+			return true;
+		}
+		if (a == null || b == null) {
+			return false;
+		}
+		final ListAnalysisState x = (ListAnalysisState) a;
+		final ListAnalysisState y = (ListAnalysisState) b;
+		return x.size == y.size && sameShape(x.element, y.element);
 	}
 
 	public List<State> getStates() {
-		return states;
+		return states == null ? Collections.nCopies(size, element) : states;
 	}
 
 	@Override
 	public Iterator<State> iterator() {
-		return states.iterator();
+		return getStates().iterator();
 	}
-	
+
 	public int size(){
-		return states.size();
+		return states == null ? size : states.size();
+	}
+
+	/**
+	 * Collects the states of the underlying analyses and creates the list
+	 * only when a state differs from the previous ones, see
+	 * {@link ListAnalysisState}.
+	 */
+	public static final class Builder {
+		private List<State> states = null;
+		private int size = 0;
+		private State element = null;
+
+		public void add(final State state) {
+			if (states == null) {
+				if (size == 0 && isUniform(state)) {
+					element = state;
+					size++;
+					return;
+				}
+				if (size > 0 && isUniform(state) && sameShape(element, state)) {
+					size++;
+					return;
+				}
+				materialize();
+			}
+			states.add(state);
+			size++;
+		}
+
+		private void materialize() {
+			states = new ArrayList<>(Collections.nCopies(size, element));
+		}
+
+		/**
+		 * Add the states collected by the other builder after the states
+		 * collected by this builder.
+		 */
+		public void addAll(final Builder other) {
+			if (states == null && other.states == null) {
+				if (other.size == 0) {
+					return;
+				}
+				if (size == 0 || sameShape(element, other.element)) {
+					element = other.element;
+					size += other.size;
+					return;
+				}
+			}
+			if (states == null) {
+				materialize();
+			}
+			if (other.states == null) {
+				states.addAll(Collections.nCopies(other.size, other.element));
+			} else {
+				states.addAll(other.states);
+			}
+			size += other.size;
+		}
+
+		public ListAnalysisState build() {
+			return states == null ? uniform(size, element)
+					: new ListAnalysisState(states);
+		}
 	}
 }
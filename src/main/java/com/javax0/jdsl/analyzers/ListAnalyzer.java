@@ -1,10 +1,9 @@
 package com.javax0.jdsl.analyzers;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
-import com.javax0.jdsl.executors.Executor;
 import com.javax0.jdsl.executors.Factory;
 import com.javax0.jdsl.executors.ListExecutor;
 import com.javax0.jdsl.log.Reporter;
@@ -20,16 +19,19 @@ import com.javax0.jdsl.log.ReporterFactory;
  *
  * 
  */
-public class ListAnalyzer extends SpaceIgnoringAnalyzer {
+public class ListAnalyzer extends SpaceIgnoringAnalyzer implements
+		FirstSet.Provider {
 	private final Reporter reporter = ReporterFactory.getReporter();
-	private final List<Analyzer> analyzerList = new LinkedList<>();
+	private final List<Analyzer> analyzerList = new ArrayList<>();
+	private FirstSet firstSet = null;
 
-	protected List<Analyzer> getAnalyzerList() {
+	public List<Analyzer> getAnalyzerList() {
 		return analyzerList;
 	}
 
 	public void add(final List<Analyzer> analyzers) {
         analyzerList.addAll(analyzers);
+        firstSet = null;
     }
 
 	/**
@@ -40,6 +42,7 @@ public class ListAnalyzer extends SpaceIgnoringAnalyzer {
 	 */
 	public void add(final Analyzer... analyzers) {
 		Collections.addAll(analyzerList, analyzers);
+		firstSet = null;
 	}
 
 	/**
@@ -52,21 +55,60 @@ public class ListAnalyzer extends SpaceIgnoringAnalyzer {
 	}
 
 	@Override
-	public AnalysisResult analyze() {
-		reporter.logStart(ListAnalyzer.class, getInput(), analyzerList);
-		final List<Executor> executors = new LinkedList<>();
-		final List<State> states = new LinkedList<>();
-
+	protected AnalysisResult analyze(final Cursor cursor) {
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(ListAnalyzer.class, cursor.getInput(),
+					analyzerList);
+		}
 		for (final Analyzer analyzer : analyzerList) {
-			final AnalysisResult result = analyzer.analyze(getInput());
+			final AnalysisResult result = Reporter.invoke(reporter, analyzer,
+					cursor.getInput());
 			if (!result.wasSuccessful()) {
 				return SimpleAnalysisResult.failed(ListAnalyzer.class);
 			}
-			advanceList(result, executors, states);
+			cursor.advance(result);
 		}
 
-		return SimpleAnalysisResult.success(ListAnalyzer.class, getInput(),
-				createExecutor(executors), new ListAnalysisState(states));
+		return SimpleAnalysisResult.success(ListAnalyzer.class,
+				cursor.getInput(), cursor.createExecutor(),
+				cursor.createState());
+	}
+
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		final int mark = builder.mark();
+		int end = skip(input, offset, builder);
+		for (final Analyzer analyzer : analyzerList) {
+			end = OffsetAnalyzer.analyze(analyzer, input, end, builder);
+			if (end == FAILED) {
+				builder.reset(mark);
+				return FAILED;
+			}
+			builder.push();
+			end = skip(input, end, builder);
+		}
+		return success(builder, mark, end);
+	}
+
+	/**
+	 * The first set of the list is the first set of the first element, joined
+	 * with the first sets of the following elements so long as the previous
+	 * elements may match without consuming any character.
+	 */
+	@Override
+	public FirstSet firstSet() {
+		if (firstSet == null) {
+			// in case the list is its own element the first set is unknown
+			firstSet = FirstSet.UNKNOWN;
+			FirstSet elementsFirstSet = FirstSet.NULLABLE;
+			for (final Analyzer analyzer : analyzerList) {
+				elementsFirstSet = elementsFirstSet.followedBy(FirstSet
+						.of(analyzer));
+			}
+			firstSet = skippedFirstSet().union(elementsFirstSet);
+		}
+		return firstSet;
 	}
 
 	@Override
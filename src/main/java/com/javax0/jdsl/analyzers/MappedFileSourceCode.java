@@ -0,0 +1,380 @@
+package com.javax0.jdsl.analyzers;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SourceCode implementation that reads an UTF-8 (or ASCII) encoded file mapped
+ * into the memory. The content of the file is not read into the heap, the
+ * characters are decoded from the mapped bytes when they are needed.
+ * <p>
+ * When the source code is created the file is read once to count the
+ * characters and to build an index that holds the byte position of every
+ * {@value #BLOCK_SIZE}th character. If the file contains only ASCII characters
+ * then there is no need for the index: the position of a character is the same
+ * as the position of the byte. Otherwise {@link #charAt(int)} decodes the block
+ * containing the character and keeps the last few decoded blocks in a small
+ * cache, so the analyzers reading the input character by character decode each
+ * block only once.
+ * <p>
+ * Files larger than 2GB are mapped using more than one mapping. The position
+ * of the source code in the file is a {@code long}, {@link #rest(int)} creates
+ * a new small object holding the new position and shares the mappings, the
+ * index and the cache with the original object.
+ * <p>
+ * Malformed UTF-8 byte sequences are decoded as {@code U+FFFD}, one for each
+ * byte. A byte order mark at the start of the file is skipped.
+ * <p>
+ * {@link #length()} returns {@link Integer#MAX_VALUE} when more characters
+ * remain. Memoizing analyzers do not memoize the results on these positions,
+ * because they identify the position by the remaining length.
+ * <p>
+ * The mappings stay valid until the source code objects are garbage collected.
+ * The file should not be modified while it is analyzed.
+ */
+public class MappedFileSourceCode implements SourceCode {
+	static final int BLOCK_SIZE = 1024;
+	private static final int BLOCK_SHIFT = 10;
+	private static final int CACHE_SIZE = 16;
+	private static final int DEFAULT_MAPPING_SHIFT = 30;
+	private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+	private final Content content;
+	private final long offset;
+
+	/**
+	 * Create a new source code that contains the characters of the file.
+	 *
+	 * @param path
+	 *            the UTF-8 encoded file
+	 * @throws IOException
+	 *             if the file can not be opened or mapped
+	 */
+	public MappedFileSourceCode(final Path path) throws IOException {
+		this(path, DEFAULT_MAPPING_SHIFT);
+	}
+
+	/**
+	 * @param mappingShift
+	 *            the size of one mapping is {@code 1 << mappingShift} bytes.
+	 *            Tests use small mappings to get files that are mapped by more
+	 *            than one mapping.
+	 */
+	MappedFileSourceCode(final Path path, final int mappingShift)
+			throws IOException {
+		this(new Content(path, mappingShift), 0);
+	}
+
+	private MappedFileSourceCode(final Content content, final long offset) {
+		this.content = content;
+		this.offset = offset;
+	}
+
+	/**
+	 * A decoded block of characters. The fields are final, thus a block put
+	 * into the cache by one thread can safely be used by other threads.
+	 */
+	private static final class Block {
+		private final long number;
+		private final char[] chars;
+
+		private Block(final long number, final char[] chars) {
+			this.number = number;
+			this.chars = chars;
+		}
+	}
+
+	/**
+	 * The mapped file, the index of the blocks and the cache of the decoded
+	 * blocks shared by all the source code objects created from the same file.
+	 */
+	private static final class Content {
+		private final MappedByteBuffer[] mappings;
+		private final int mappingShift;
+		private final long mappingMask;
+		private final long byteLength;
+		private final long start;
+		private final long charLength;
+		private final boolean ascii;
+		/**
+		 * The position of the first byte of each block shifted left by one.
+		 * The lowest bit is set when the first character of the block is the
+		 * low surrogate of the four byte sequence starting at the position.
+		 * {@code null} if the file is ASCII.
+		 */
+		private final long[] blockStarts;
+		private final Block[] cache = new Block[CACHE_SIZE];
+
+		private Content(final Path path, final int mappingShift)
+				throws IOException {
+			this.mappingShift = mappingShift;
+			this.mappingMask = (1L << mappingShift) - 1;
+			try (final FileChannel channel = FileChannel.open(path,
+					StandardOpenOption.READ)) {
+				byteLength = channel.size();
+				final long mappingSize = 1L << mappingShift;
+				mappings = new MappedByteBuffer[(int) ((byteLength
+						+ mappingSize - 1) >>> mappingShift)];
+				for (int i = 0; i < mappings.length; i++) {
+					final long position = (long) i << mappingShift;
+					mappings[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+							position,
+							Math.min(mappingSize, byteLength - position));
+				}
+			}
+			start = hasByteOrderMark() ? 3 : 0;
+
+			long position = start;
+			long chars = 0;
+			boolean asciiOnly = true;
+			long[] starts = null;
+			int blocks = 0;
+			long nextBlockStart = 0;
+			while (position < byteLength) {
+				final byte b = byteAt(position);
+				if (b >= 0 && asciiOnly) {
+					position++;
+					chars++;
+					continue;
+				}
+				if (asciiOnly) {
+					asciiOnly = false;
+					blocks = (int) ((chars + BLOCK_SIZE - 1) >>> BLOCK_SHIFT);
+					starts = new long[Math.max(16, 2 * blocks)];
+					for (int k = 0; k < blocks; k++) {
+						starts[k] = (start + ((long) k << BLOCK_SHIFT)) << 1;
+					}
+					nextBlockStart = (long) blocks << BLOCK_SHIFT;
+				}
+				if (chars == nextBlockStart) {
+					starts = add(starts, blocks++, position << 1);
+					nextBlockStart += BLOCK_SIZE;
+				}
+				if (b >= 0) {
+					position++;
+					chars++;
+					continue;
+				}
+				final long decoded = decode(position);
+				if (codePoint(decoded) >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+					if (chars + 1 == nextBlockStart) {
+						starts = add(starts, blocks++, (position << 1) | 1);
+						nextBlockStart += BLOCK_SIZE;
+					}
+					chars += 2;
+				} else {
+					chars++;
+				}
+				position += byteCount(decoded);
+			}
+			charLength = chars;
+			ascii = asciiOnly;
+			blockStarts = starts;
+		}
+
+		private static long[] add(long[] array, final int index,
+				final long value) {
+			if (index == array.length) {
+				final long[] newArray = new long[array.length * 2];
+				System.arraycopy(array, 0, newArray, 0, index);
+				array = newArray;
+			}
+			array[index] = value;
+			return array;
+		}
+
+		private boolean hasByteOrderMark() {
+			return byteLength >= 3 && byteAt(0) == (byte) 0xEF
+					&& byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF;
+		}
+
+		private byte byteAt(final long position) {
+			return mappings[(int) (position >>> mappingShift)]
+					.get((int) (position & mappingMask));
+		}
+
+		private boolean isContinuation(final long position) {
+			return position < byteLength
+					&& (byteAt(position) & 0xC0) == 0x80;
+		}
+
+		private int continuation(final long position) {
+			return byteAt(position) & 0x3F;
+		}
+
+		/**
+		 * Decode the byte sequence starting at the position.
+		 *
+		 * @return the number of the bytes in the upper half and the code point
+		 *         in the lower half
+		 */
+		private long decode(final long position) {
+			final int b0 = byteAt(position) & 0xFF;
+			int codePoint = -1;
+			int bytes = 1;
+			if (b0 < 0x80) {
+				codePoint = b0;
+			} else if (b0 >= 0xC2 && b0 <= 0xDF) {
+				if (isContinuation(position + 1)) {
+					codePoint = (b0 & 0x1F) << 6 | continuation(position + 1);
+					bytes = 2;
+				}
+			} else if (b0 >= 0xE0 && b0 <= 0xEF) {
+				if (isContinuation(position + 1)
+						&& isContinuation(position + 2)) {
+					final int cp = (b0 & 0x0F) << 12
+							| continuation(position + 1) << 6
+							| continuation(position + 2);
+					if (cp >= 0x800
+							&& (cp < Character.MIN_SURROGATE || cp > Character.MAX_SURROGATE)) {
+						codePoint = cp;
+						bytes = 3;
+					}
+				}
+			} else if (b0 >= 0xF0 && b0 <= 0xF4) {
+				if (isContinuation(position + 1)
+						&& isContinuation(position + 2)
+						&& isContinuation(position + 3)) {
+					final int cp = (b0 & 0x07) << 18
+							| continuation(position + 1) << 12
+							| continuation(position + 2) << 6
+							| continuation(position + 3);
+					if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT
+							&& cp <= Character.MAX_CODE_POINT) {
+						codePoint = cp;
+						bytes = 4;
+					}
+				}
+			}
+			if (codePoint < 0) {
+				codePoint = REPLACEMENT_CHARACTER;
+			}
+			return (long) bytes << 32 | codePoint;
+		}
+
+		private static int codePoint(final long decoded) {
+			return (int) decoded;
+		}
+
+		private static int byteCount(final long decoded) {
+			return (int) (decoded >>> 32);
+		}
+
+		private char charAt(final long index) {
+			if (ascii) {
+				return (char) byteAt(start + index);
+			}
+			final long number = index >>> BLOCK_SHIFT;
+			final int slot = (int) (number & (CACHE_SIZE - 1));
+			Block block = cache[slot];
+			if (block == null || block.number != number) {
+				block = new Block(number, decodeBlock(number));
+				cache[slot] = block;
+			}
+			return block.chars[(int) (index & (BLOCK_SIZE - 1))];
+		}
+
+		private char[] decodeBlock(final long number) {
+			final char[] chars = new char[(int) Math.min(BLOCK_SIZE,
+					charLength - (number << BLOCK_SHIFT))];
+			final long blockStart = blockStarts[(int) number];
+			long position = blockStart >>> 1;
+			int i = 0;
+			if ((blockStart & 1) != 0) {
+				final long decoded = decode(position);
+				chars[i++] = Character.lowSurrogate(codePoint(decoded));
+				position += byteCount(decoded);
+			}
+			while (i < chars.length) {
+				final byte b = byteAt(position);
+				if (b >= 0) {
+					chars[i++] = (char) b;
+					position++;
+					continue;
+				}
+				final long decoded = decode(position);
+				final int codePoint = codePoint(decoded);
+				if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+					chars[i++] = Character.highSurrogate(codePoint);
+					if (i < chars.length) {
+						chars[i++] = Character.lowSurrogate(codePoint);
+					}
+				} else {
+					chars[i++] = (char) codePoint;
+				}
+				position += byteCount(decoded);
+			}
+			return chars;
+		}
+	}
+
+	@Override
+	public char charAt(final int i) {
+		if (i < 0 || offset + i >= content.charLength) {
+			throw new IndexOutOfBoundsException("index " + i
+					+ " is out of the source code");
+		}
+		return content.charAt(offset + i);
+	}
+
+	@Override
+	public int length() {
+		final long remaining = content.charLength - offset;
+		return remaining > Integer.MAX_VALUE ? Integer.MAX_VALUE
+				: (int) remaining;
+	}
+
+	@Override
+	public SourceCode rest(final int i) {
+		final SourceCode result;
+		if (i < length()) {
+			if (i == 0) {
+				result = this;
+			} else {
+				result = new MappedFileSourceCode(content, offset + i);
+			}
+		} else {
+			result = StringSourceCode.EMPTY_SOURCE;
+		}
+		return result;
+	}
+
+	/**
+	 * Get the characters that remain in the source code. Note that this
+	 * creates a string of all the remaining characters of the file.
+	 */
+	@Override
+	public String toString() {
+		final int length = length();
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(content.charAt(offset + i));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return content.hashCode() * 31 + Long.hashCode(offset);
+	}
+
+	/**
+	 * Two mapped file source codes are equal if they were created from the
+	 * same object and they are at the same position.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		final MappedFileSourceCode other = (MappedFileSourceCode) obj;
+		return content == other.content && offset == other.offset;
+	}
+
+}
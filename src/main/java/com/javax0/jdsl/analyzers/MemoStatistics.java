@@ -0,0 +1,58 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * Hit and miss counters of the packrat memo tables summed up over the analyses
+ * performed by a grammar. The object is thread safe, the counters of the memo
+ * tables used by concurrent analyses can be added.
+ */
+public class MemoStatistics {
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	private long analyses = 0;
+
+	/**
+	 * Add the counters of the memo table that was used during an analysis.
+	 */
+	public synchronized void add(final MemoTable memoTable) {
+		hits += memoTable.getHits();
+		misses += memoTable.getMisses();
+		evictions += memoTable.getEvictions();
+		analyses++;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return the number of analyses the counters were collected from
+	 */
+	public synchronized long getAnalyses() {
+		return analyses;
+	}
+
+	/**
+	 * @return the ratio of the hits among all lookups, or zero if there was no
+	 *         lookup
+	 */
+	public synchronized double getHitRatio() {
+		final long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format(
+				"memo hits=%d misses=%d evictions=%d hit ratio=%.2f analyses=%d",
+				hits, misses, evictions, getHitRatio(), analyses);
+	}
+}
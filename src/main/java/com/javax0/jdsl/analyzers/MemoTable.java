@@ -0,0 +1,170 @@
+package com.javax0.jdsl.analyzers;
+
+import java.util.Arrays;
+
+/**
+ * Memo table used by the {@link MemoizingAnalyzer}s during a single analysis.
+ * <p>
+ * The table stores the {@link AnalysisResult} of an analyzer keyed by the
+ * identifier of the analyzer and the position of the input. The position is
+ * the number of characters remaining in the input. During a single analysis
+ * every source code object is the rest of the same input, therefore this number
+ * identifies the position uniquely.
+ * <p>
+ * The table is bounded. It starts small and grows until it reaches the maximum
+ * number of entries. After that a new entry overwrites the entry that was stored
+ * in the same slot (the table is direct mapped, like a hardware cache) and the
+ * overwrite is counted as an eviction.
+ * <p>
+ * The table that belongs to the current analysis is stored in a thread local
+ * variable. {@link com.javax0.jdsl.GrammarDefinition} starts a new table before
+ * the analysis and restores the previous one after it, thus grammars used inside
+ * other grammars have their own tables.
+ */
+public class MemoTable {
+	private static final ThreadLocal<MemoTable> CURRENT = new ThreadLocal<>();
+	private static final long NO_KEY = -1L;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int maxCapacity;
+	private long[] keys;
+	private AnalysisResult[] results;
+	private int size = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**
+	 * @param maxEntries
+	 *            the maximum number of results stored in the table. It is
+	 *            rounded up to the next power of two.
+	 */
+	public MemoTable(final int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException(
+					"maxEntries of the memo table has to be positive");
+		}
+		this.maxCapacity = powerOfTwoNotLessThan(maxEntries);
+		allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+	}
+
+	private static int powerOfTwoNotLessThan(final int n) {
+		final int highest = Integer.highestOneBit(n);
+		if (highest == n || highest == 1 << 30) {
+			return highest;
+		}
+		return highest << 1;
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, NO_KEY);
+		results = new AnalysisResult[capacity];
+	}
+
+	/**
+	 * Start to use {@code table} as the memo table of the current thread.
+	 *
+	 * @return the table that was used before, which has to be passed to
+	 *         {@link #end(MemoTable)} when the analysis is finished
+	 */
+	public static MemoTable begin(final MemoTable table) {
+		final MemoTable previous = CURRENT.get();
+		CURRENT.set(table);
+		return previous;
+	}
+
+	/**
+	 * Restore the memo table that was active before calling
+	 * {@link #begin(MemoTable)}.
+	 */
+	public static void end(final MemoTable previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * @return the memo table of the analysis running in the current thread, or
+	 *         {@code null} if there is no memoizing analysis running
+	 */
+	public static MemoTable current() {
+		return CURRENT.get();
+	}
+
+	private static long key(final int analyzerId, final int position) {
+		return ((long) analyzerId << 32) | (position & 0xFFFFFFFFL);
+	}
+
+	private int slot(final long key, final int capacity) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h >>> 32) & (capacity - 1);
+	}
+
+	/**
+	 * Get the stored result of the analyzer identified by {@code analyzerId}
+	 * for the input that has {@code position} characters remaining.
+	 *
+	 * @return the stored result or {@code null} if there is none
+	 */
+	public AnalysisResult get(final int analyzerId, final int position) {
+		final long key = key(analyzerId, position);
+		final int slot = slot(key, keys.length);
+		if (keys[slot] == key) {
+			hits++;
+			return results[slot];
+		}
+		misses++;
+		return null;
+	}
+
+	/**
+	 * Store the result of the analyzer identified by {@code analyzerId} for
+	 * the input that has {@code position} characters remaining.
+	 */
+	public void put(final int analyzerId, final int position,
+			final AnalysisResult result) {
+		if (size >= keys.length / 2 && keys.length < maxCapacity) {
+			grow();
+		}
+		final long key = key(analyzerId, position);
+		store(key, result);
+	}
+
+	private void store(final long key, final AnalysisResult result) {
+		final int slot = slot(key, keys.length);
+		if (keys[slot] == NO_KEY) {
+			size++;
+		} else if (keys[slot] != key) {
+			evictions++;
+		}
+		keys[slot] = key;
+		results[slot] = result;
+	}
+
+	private void grow() {
+		final long[] oldKeys = keys;
+		final AnalysisResult[] oldResults = results;
+		allocate(keys.length * 2);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != NO_KEY) {
+				store(oldKeys[i], oldResults[i]);
+			}
+		}
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+}
@@ -0,0 +1,147 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * An analyzer that remembers the results of the underlying analyzer during an
+ * analysis. When the underlying analyzer is asked to analyze the same position
+ * of the input again, typically because an alternative failed and the next
+ * alternative starts with the same rule, then the stored result is returned
+ * without analyzing the input again. This is what is usually called packrat
+ * parsing.
+ * <p>
+ * The results are stored in the {@link MemoTable} of the current analysis. If
+ * there is no memo table, because the analyzer is used outside of a
+ * {@link com.javax0.jdsl.GrammarDefinition} that was switched to packrat mode,
+ * then the analyzer simply invokes the underlying analyzer.
+ * <p>
+ * Note that the closures of {@link NullAnalyzer}s inside a memoized rule are
+ * not executed again when the result of the rule comes from the memo table.
+ * <p>
+ * These analyzers are created by
+ * {@link com.javax0.jdsl.GrammarDefinition} when the grammar calls
+ * {@link com.javax0.jdsl.GrammarDefinition#packrat()}. There is no need to
+ * create them directly.
+ */
+public class MemoizingAnalyzer implements Rule, OffsetAnalyzer,
+		FirstSet.Provider {
+	private final Analyzer underlyingAnalyzer;
+	private final int id;
+
+	/**
+	 * @param underlyingAnalyzer
+	 *            the analyzer to memoize
+	 * @param id
+	 *            identifies the analyzer in the memo table. Different
+	 *            memoizing analyzers of the same grammar have to have different
+	 *            identifiers.
+	 */
+	public MemoizingAnalyzer(final Analyzer underlyingAnalyzer, final int id) {
+		this.underlyingAnalyzer = underlyingAnalyzer;
+		this.id = id;
+	}
+
+	/**
+	 * @return the identifier of the analyzer in the memo table
+	 */
+	public int getId() {
+		return id;
+	}
+
+	public Analyzer getUnderlyingAnalyzer() {
+		return underlyingAnalyzer;
+	}
+
+	@Override
+	public AnalysisResult analyze(final SourceCode input) {
+		final MemoTable memoTable = MemoTable.current();
+		if (memoTable == null || input == null || !isMemoizable(input)) {
+			return underlyingAnalyzer.analyze(input);
+		}
+		final int position = input.length();
+		if (position == Integer.MAX_VALUE) {
+			// inputs longer than this, e.g. huge mapped files, report this
+			// length for all the positions, it does not identify the position
+			return underlyingAnalyzer.analyze(input);
+		}
+		final AnalysisResult memoized = memoTable.get(id, position);
+		if (memoized != null) {
+			return memoized;
+		}
+		final AnalysisResult result = underlyingAnalyzer.analyze(input);
+		memoTable.put(id, position, result);
+		return result;
+	}
+
+	/**
+	 * Offset based version of {@link #analyze(SourceCode)}. The memo table
+	 * stores the same results for both versions, a successful result holds
+	 * the rest of the input following the analyzed part. Failed analyses do
+	 * not allocate a result.
+	 */
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		final MemoTable memoTable = MemoTable.current();
+		if (memoTable == null || !isMemoizable(input)) {
+			return OffsetAnalyzer.analyze(underlyingAnalyzer, input, offset,
+					builder);
+		}
+		final int length = input.length();
+		if (length == Integer.MAX_VALUE) {
+			return OffsetAnalyzer.analyze(underlyingAnalyzer, input, offset,
+					builder);
+		}
+		final int position = length - offset;
+		final AnalysisResult memoized = memoTable.get(id, position);
+		if (memoized != null) {
+			if (!memoized.wasSuccessful()) {
+				return FAILED;
+			}
+			builder.success(memoized.getExecutor(), memoized.getState());
+			return length - memoized.remainingSourceCode().length();
+		}
+		final int end = OffsetAnalyzer.analyze(underlyingAnalyzer, input,
+				offset, builder);
+		memoTable.put(id, position, SimpleAnalysisResult.of(
+				MemoizingAnalyzer.class, input, end, builder));
+		return end;
+	}
+
+	/**
+	 * The memo table identifies the position by the remaining length of the
+	 * input. The length of a {@link ReaderSourceCode} is known only after the
+	 * whole stream was read, thus these inputs are not memoized, otherwise the
+	 * packrat analysis would read the whole stream into the memory.
+	 */
+	private static boolean isMemoizable(final SourceCode input) {
+		return !(input instanceof ReaderSourceCode);
+	}
+
+	@Override
+	public FirstSet firstSet() {
+		return FirstSet.of(underlyingAnalyzer);
+	}
+
+	@Override
+	public String toString() {
+		return underlyingAnalyzer.toString();
+	}
+
+	/**
+	 * Memoizing analyzer that wraps a {@link Define} analyzer, typically a
+	 * {@link PassThroughAnalyzer} created calling
+	 * {@link com.javax0.jdsl.GrammarDefinition#later()}.
+	 */
+	public static class Delayed extends MemoizingAnalyzer implements Define {
+		private final Define underlyingDefine;
+
+		public Delayed(final Define underlyingDefine, final int id) {
+			super(underlyingDefine, id);
+			this.underlyingDefine = underlyingDefine;
+		}
+
+		@Override
+		public void define(final Analyzer analyzer) {
+			underlyingDefine.define(analyzer);
+		}
+	}
+}
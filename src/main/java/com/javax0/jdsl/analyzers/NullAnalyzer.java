@@ -29,7 +29,7 @@ import com.javax0.jdsl.GrammarDefinition;
  *
  * 
  */
-public class NullAnalyzer implements Rule {
+public class NullAnalyzer implements Rule, OffsetAnalyzer {
 
 	private final Closure closure;
 
@@ -47,4 +47,12 @@ public class NullAnalyzer implements Rule {
 				closure.exec(input));
 	}
 
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		builder.success(null,
+				closure.exec(offset == 0 ? input : input.rest(offset)));
+		return offset;
+	}
+
 }
@@ -0,0 +1,69 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * An analyzer that can analyze the input starting at an offset without
+ * creating {@link AnalysisResult} objects and the rest of the input.
+ * <p>
+ * The method {@link #analyze(SourceCode, int, AnalysisBuilder)} returns the
+ * offset where the analyzed part of the input ends, or {@link #FAILED}, and
+ * passes the executor and the state of a successful analysis to the
+ * {@link AnalysisBuilder} given by the caller. A failing analysis does not
+ * allocate anything, therefore trying alternatives that fail is cheap.
+ * <p>
+ * The analyzers implementing this interface also implement the
+ * {@link Analyzer#analyze(SourceCode)} method, which is an adapter on top of
+ * the offset based analysis or the original implementation that also reports
+ * the analysis. The offset based analysis does not report,
+ * {@link com.javax0.jdsl.GrammarDefinition} uses it only when reporting is
+ * switched off.
+ */
+public interface OffsetAnalyzer extends Analyzer {
+	/**
+	 * The value returned when the analysis failed.
+	 */
+	int FAILED = -1;
+
+	/**
+	 * Analyze the input starting at the offset. The default implementation
+	 * analyzes the rest of the input calling {@link #analyze(SourceCode)}.
+	 *
+	 * @param input
+	 *            the source code to analyze
+	 * @param offset
+	 *            the offset of the first character to analyze in the input
+	 * @param builder
+	 *            gets the executor and the state of a successful analysis
+	 * @return the offset of the first character following the analyzed part
+	 *         of the input, or {@link #FAILED}
+	 */
+	default int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		return adapt(this, input, offset, builder);
+	}
+
+	/**
+	 * Analyze the input starting at the offset using any analyzer. Analyzers
+	 * that do not implement this interface analyze the rest of the input.
+	 *
+	 * @return the offset of the first character following the analyzed part
+	 *         of the input, or {@link #FAILED}
+	 */
+	static int analyze(final Analyzer analyzer, final SourceCode input,
+			final int offset, final AnalysisBuilder builder) {
+		if (analyzer instanceof OffsetAnalyzer) {
+			return ((OffsetAnalyzer) analyzer).analyze(input, offset, builder);
+		}
+		return adapt(analyzer, input, offset, builder);
+	}
+
+	private static int adapt(final Analyzer analyzer, final SourceCode input,
+			final int offset, final AnalysisBuilder builder) {
+		final SourceCode rest = offset == 0 ? input : input.rest(offset);
+		final AnalysisResult result = analyzer.analyze(rest);
+		if (!result.wasSuccessful()) {
+			return FAILED;
+		}
+		builder.success(result.getExecutor(), result.getState());
+		return offset + rest.length() - result.remainingSourceCode().length();
+	}
+}
@@ -16,7 +16,8 @@ import com.javax0.jdsl.log.ReporterFactory;
  *
  * 
  */
-public class PassThroughAnalyzer implements Define {
+public class PassThroughAnalyzer implements Define, OffsetAnalyzer,
+		FirstSet.Provider {
 	private final Reporter reporter = ReporterFactory.getReporter();
 
 	private final String name;
@@ -26,6 +27,15 @@ public class PassThroughAnalyzer implements Define {
 	}
 
 	private Analyzer underlyingAnalyzer = null;
+	private FirstSet firstSet = null;
+
+	/**
+	 * @return the analyzer defined calling {@link #define(Analyzer)} or
+	 *         {@code null} if it is not defined yet
+	 */
+	public Analyzer getUnderlyingAnalyzer() {
+		return underlyingAnalyzer;
+	}
 
 	public boolean isDefined() {
 		return underlyingAnalyzer != null;
@@ -42,21 +52,55 @@ public class PassThroughAnalyzer implements Define {
 
 	@Override
 	public AnalysisResult analyze(final SourceCode input) {
-		reporter.logStart(PassThroughAnalyzer.class, input);
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(PassThroughAnalyzer.class, input);
+		}
 		if (underlyingAnalyzer == null) {
 			throw new RuntimeException(
 					PassThroughAnalyzer.class.toString()
 							+ " can not analyze until the underlying analyzer was not set");
 		}
-		final AnalysisResult result = underlyingAnalyzer.analyze(input);
-		if (result.wasSuccessful()) {
-			reporter.logSuccess(PassThroughAnalyzer.class);
-		} else {
-			reporter.logFail(PassThroughAnalyzer.class);
+		final AnalysisResult result = Reporter.invoke(reporter,
+				underlyingAnalyzer, input);
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			if (result.wasSuccessful()) {
+				reporter.logSuccess(PassThroughAnalyzer.class);
+			} else {
+				reporter.logFail(PassThroughAnalyzer.class);
+			}
 		}
 		return result;
 	}
 
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		if (underlyingAnalyzer == null) {
+			throw new RuntimeException(
+					PassThroughAnalyzer.class.toString()
+							+ " can not analyze until the underlying analyzer was not set");
+		}
+		return OffsetAnalyzer.analyze(underlyingAnalyzer, input, offset,
+				builder);
+	}
+
+	/**
+	 * Get the first set of the underlying analyzer. When the underlying
+	 * analyzer refers back to this analyzer (left recursion) then the first set
+	 * is unknown.
+	 */
+	@Override
+	public FirstSet firstSet() {
+		if (underlyingAnalyzer == null) {
+			return FirstSet.UNKNOWN;
+		}
+		if (firstSet == null) {
+			firstSet = FirstSet.UNKNOWN;
+			firstSet = FirstSet.of(underlyingAnalyzer);
+		}
+		return firstSet;
+	}
+
 	@Override
 	public String toString() {
 		return name;
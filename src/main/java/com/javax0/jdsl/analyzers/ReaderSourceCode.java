@@ -0,0 +1,244 @@
+package com.javax0.jdsl.analyzers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * SourceCode implementation that reads the characters from a {@link Reader}
+ * when they are needed. The characters are stored in chunks. The chunks are
+ * shared by the source code objects created from the same reader by
+ * {@link #rest(int)}, which only hold the position of their first character.
+ * <p>
+ * The analyzers ask {@link #hasAtLeast(int)} and the source code reads only as
+ * many chunks as needed to answer it. {@link #length()} reads the whole
+ * stream, therefore it should not be used with this implementation. The
+ * memoizing analyzers of the packrat mode do not memoize the results on these
+ * inputs, and the grammar does not split them into parts for the parallel
+ * analysis, because both need the length of the input.
+ * <p>
+ * The chunks that contain only characters before a position that was
+ * committed calling {@link #commit()} are freed. The grammar can declare such
+ * a position using {@link com.javax0.jdsl.GrammarDefinition#cut()}, for
+ * example {@code many(list(command, cut()))} analyzes a stream of commands
+ * keeping only the chunks of the current command in memory. Reading a
+ * character before the committed position throws
+ * {@link IllegalStateException}.
+ * <p>
+ * The reader is not closed by the source code. Reading errors are thrown as
+ * {@link UncheckedIOException}. The objects are not thread safe, one stream is
+ * analyzed by one thread.
+ */
+public class ReaderSourceCode implements SourceCode {
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	private final Stream stream;
+	private final long offset;
+
+	/**
+	 * Create a new source code reading the reader using chunks of
+	 * {@link #DEFAULT_CHUNK_SIZE} characters.
+	 */
+	public ReaderSourceCode(final Reader reader) {
+		this(reader, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param reader
+	 *            the reader that provides the characters
+	 * @param chunkSize
+	 *            the number of characters stored in one chunk
+	 */
+	public ReaderSourceCode(final Reader reader, final int chunkSize) {
+		if (reader == null) {
+			throw new IllegalArgumentException(
+					"reader can not be null when constructing ReaderSourceCode object");
+		}
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize has to be positive");
+		}
+		this.stream = new Stream(reader, chunkSize);
+		this.offset = 0;
+	}
+
+	/**
+	 * Create a new source code reading the channel and decoding the bytes
+	 * using the character set.
+	 */
+	public ReaderSourceCode(final ReadableByteChannel channel,
+			final Charset charset) {
+		this(Channels.newReader(channel, charset.newDecoder(), -1));
+	}
+
+	private ReaderSourceCode(final Stream stream, final long offset) {
+		this.stream = stream;
+		this.offset = offset;
+	}
+
+	/**
+	 * The characters read from the reader. The chunk with the index
+	 * {@code firstChunk} holds the characters starting at the position
+	 * {@code firstChunk * chunkSize}, and so on.
+	 */
+	private static final class Stream {
+		private final Reader reader;
+		private final int chunkSize;
+		private char[][] chunks = new char[4][];
+		private int chunkCount = 0;
+		private long firstChunk = 0;
+		private long available = 0;
+		private boolean endOfStream = false;
+
+		private Stream(final Reader reader, final int chunkSize) {
+			this.reader = reader;
+			this.chunkSize = chunkSize;
+		}
+
+		/**
+		 * Read the stream until the character at the position is available or
+		 * the stream ends.
+		 */
+		private void readUntil(final long position) {
+			while (available <= position && !endOfStream) {
+				final int inChunk = (int) (available % chunkSize);
+				if (inChunk == 0) {
+					addChunk();
+				}
+				final int read;
+				try {
+					read = reader.read(chunks[chunkCount - 1], inChunk,
+							chunkSize - inChunk);
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				if (read < 0) {
+					endOfStream = true;
+				} else {
+					available += read;
+				}
+			}
+		}
+
+		private void addChunk() {
+			if (chunkCount == chunks.length) {
+				final char[][] newChunks = new char[chunks.length * 2][];
+				System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+				chunks = newChunks;
+			}
+			chunks[chunkCount++] = new char[chunkSize];
+		}
+
+		private char charAt(final long position) {
+			readUntil(position);
+			if (position >= available) {
+				throw new IndexOutOfBoundsException("position " + position
+						+ " is after the end of the stream");
+			}
+			final long chunk = position / chunkSize;
+			if (chunk < firstChunk) {
+				throw new IllegalStateException("position " + position
+						+ " is before the committed position of the stream");
+			}
+			return chunks[(int) (chunk - firstChunk)][(int) (position % chunkSize)];
+		}
+
+		private void commit(final long position) {
+			final int freed = (int) Math.min(position / chunkSize - firstChunk,
+					chunkCount - 1);
+			if (freed > 0) {
+				System.arraycopy(chunks, freed, chunks, 0, chunkCount - freed);
+				for (int i = chunkCount - freed; i < chunkCount; i++) {
+					chunks[i] = null;
+				}
+				chunkCount -= freed;
+				firstChunk += freed;
+			}
+		}
+	}
+
+	@Override
+	public char charAt(final int i) {
+		return stream.charAt(offset + i);
+	}
+
+	/**
+	 * Get the number of the characters remaining in the stream. This method
+	 * reads the whole stream.
+	 */
+	@Override
+	public int length() {
+		stream.readUntil(Long.MAX_VALUE);
+		final long remaining = stream.available - offset;
+		return remaining > Integer.MAX_VALUE ? Integer.MAX_VALUE
+				: (int) remaining;
+	}
+
+	@Override
+	public boolean hasAtLeast(final int n) {
+		if (n <= 0) {
+			return true;
+		}
+		final long last = offset + n - 1;
+		stream.readUntil(last);
+		return last < stream.available;
+	}
+
+	@Override
+	public SourceCode rest(final int i) {
+		final SourceCode result;
+		if (hasAtLeast(i + 1)) {
+			if (i == 0) {
+				result = this;
+			} else {
+				result = new ReaderSourceCode(stream, offset + i);
+			}
+		} else {
+			result = StringSourceCode.EMPTY_SOURCE;
+		}
+		return result;
+	}
+
+	@Override
+	public void commit() {
+		stream.commit(offset);
+	}
+
+	/**
+	 * Get the characters remaining in the stream. This method reads the whole
+	 * stream.
+	 */
+	@Override
+	public String toString() {
+		final int length = length();
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(charAt(i));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return stream.hashCode() * 31 + Long.hashCode(offset);
+	}
+
+	/**
+	 * Two reader source codes are equal if they read the same stream and they
+	 * are at the same position.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		final ReaderSourceCode other = (ReaderSourceCode) obj;
+		return stream == other.stream && offset == other.offset;
+	}
+
+}
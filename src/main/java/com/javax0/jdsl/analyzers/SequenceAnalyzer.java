@@ -1,11 +1,9 @@
 package com.javax0.jdsl.analyzers;
 
-import java.util.LinkedList;
-import java.util.List;
-
-import com.javax0.jdsl.executors.Executor;
 import com.javax0.jdsl.executors.Factory;
 import com.javax0.jdsl.executors.ListExecutor;
+import com.javax0.jdsl.log.Reporter;
+import com.javax0.jdsl.log.ReporterFactory;
 
 import static java.lang.String.format;
 
@@ -22,11 +20,14 @@ import static java.lang.String.format;
  *
  * 
  */
-public class SequenceAnalyzer extends SpaceIgnoringAnalyzer {
+public class SequenceAnalyzer extends SpaceIgnoringAnalyzer implements
+		FirstSet.Provider {
+	private final Reporter reporter = ReporterFactory.getReporter();
 	private final Analyzer analyzer;
 	private final int minRepetition;
 	private final int maxRepetition;
 	public static final int INFINITE = -1;
+	private FirstSet firstSet = null;
 
 	public static Analyzer analyzer(
 			final Factory<ListExecutor> listExecutorFactory,
@@ -56,32 +57,252 @@ public class SequenceAnalyzer extends SpaceIgnoringAnalyzer {
 		this.maxRepetition = maxRepetition;
 	}
 
-	@Override
-	public AnalysisResult analyze() {
-		final List<Executor> executors = new LinkedList<>();
-		final List<State> states = new LinkedList<>();
+	public Analyzer getAnalyzer() {
+		return analyzer;
+	}
+
+	public int getMinRepetition() {
+		return minRepetition;
+	}
+
+	/**
+	 * @return the maximum number of the repetitions or {@link #INFINITE}
+	 */
+	public int getMaxRepetition() {
+		return maxRepetition;
+	}
 
+	@Override
+	protected AnalysisResult analyze(final Cursor cursor) {
 		int i = 0;
 		while (i < minRepetition) {
-			final AnalysisResult result = analyzer.analyze(getInput());
+			final AnalysisResult result = Reporter.invoke(reporter, analyzer,
+					cursor.getInput());
 			if (!result.wasSuccessful()) {
 				return SimpleAnalysisResult.failed(SequenceAnalyzer.class);
 			}
-			advanceList(result, executors, states);
+			cursor.advance(result);
 			i++;
 		}
 		while (maxRepetition == INFINITE || i < maxRepetition) {
-			final AnalysisResult result = analyzer.analyze(getInput());
+			final AnalysisResult result = Reporter.invoke(reporter, analyzer,
+					cursor.getInput());
 			if (!result.wasSuccessful()) {
-				return SimpleAnalysisResult.success(SequenceAnalyzer.class,
-						getInput(), createExecutor(executors),
-						new ListAnalysisState(states));
+				break;
+			}
+			cursor.advance(result);
+			i++;
+		}
+		return SimpleAnalysisResult.success(SequenceAnalyzer.class,
+				cursor.getInput(), cursor.createExecutor(),
+				cursor.createState());
+	}
+
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		final int mark = builder.mark();
+		int end = skip(input, offset, builder);
+		int i = 0;
+		while (maxRepetition == INFINITE || i < maxRepetition) {
+			final int next = OffsetAnalyzer.analyze(analyzer, input, end,
+					builder);
+			if (next == FAILED) {
+				break;
 			}
-			advanceList(result, executors, states);
+			builder.push();
+			end = skip(input, next, builder);
 			i++;
 		}
-		return SimpleAnalysisResult.success(SequenceAnalyzer.class, getInput(),
-				createExecutor(executors), new ListAnalysisState(states));
+		if (i < minRepetition) {
+			builder.reset(mark);
+			return FAILED;
+		}
+		return success(builder, mark, end);
+	}
+
+	/**
+	 * @return an object that analyzes the repetitions of the input one by one
+	 */
+	public Repetitions repetitions(final SourceCode input) {
+		return new Repetitions(cursor(input));
+	}
+
+	/**
+	 * @return {@code true} if the number of the repetitions is not limited.
+	 *         Only these sequences can be analyzed in parts, see
+	 *         {@link #part(SourceCode)}.
+	 */
+	public boolean isUnlimited() {
+		return maxRepetition == INFINITE;
+	}
+
+	/**
+	 * Create a part of the analysis that starts at the input. The part
+	 * analyzes repetitions when {@link Part#analyzeUntil(int)} is called.
+	 * Parts of the same input can be analyzed in parallel and then joined
+	 * calling {@link Part#append(Part)}. The maximum number of the repetitions
+	 * is not checked by the parts.
+	 *
+	 * @param input
+	 *            the input where the part starts
+	 * @return the new part
+	 */
+	public Part part(final SourceCode input) {
+		return new Part(cursor(input));
+	}
+
+	/**
+	 * A part of an analysis that collects the executors and the states of the
+	 * repetitions it analyzed.
+	 */
+	public final class Part {
+		private final Cursor cursor;
+		private final int startLength;
+		private int count = 0;
+		private boolean failed = false;
+
+		private Part(final Cursor cursor) {
+			this.cursor = cursor;
+			this.startLength = cursor.getInput().length();
+		}
+
+		/**
+		 * Analyze repetitions until the remaining input is not longer than
+		 * {@code endLength} or the underlying analyzer fails.
+		 *
+		 * @param endLength
+		 *            the length of the input following the part, zero to
+		 *            analyze till the end
+		 * @return this
+		 */
+		public Part analyzeUntil(final int endLength) {
+			while (!failed && cursor.getInput().length() > endLength) {
+				final AnalysisResult result = Reporter.invoke(reporter,
+						analyzer, cursor.getInput());
+				if (!result.wasSuccessful()) {
+					failed = true;
+				} else {
+					cursor.advance(result);
+					count++;
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * @return the length of the input where the part started, the skipped
+		 *         characters already consumed
+		 */
+		public int getStartLength() {
+			return startLength;
+		}
+
+		/**
+		 * @return the input following the repetitions analyzed so far
+		 */
+		public SourceCode getInput() {
+			return cursor.getInput();
+		}
+
+		/**
+		 * @return {@code true} if the part stopped because the underlying
+		 *         analyzer failed. No part following this one can be appended
+		 *         in this case.
+		 */
+		public boolean hasFailed() {
+			return failed;
+		}
+
+		/**
+		 * Append the repetitions of the part that was analyzed starting where
+		 * this part ends.
+		 */
+		public void append(final Part next) {
+			cursor.append(next.cursor);
+			count += next.count;
+			failed = next.failed;
+		}
+
+		/**
+		 * @return the result of the sequence analyzer for the repetitions
+		 *         analyzed so far, the same as {@link #analyze(SourceCode)}
+		 *         returns for the same input
+		 */
+		public AnalysisResult result() {
+			if (count < minRepetition) {
+				return SimpleAnalysisResult.failed(SequenceAnalyzer.class);
+			}
+			return SimpleAnalysisResult.success(SequenceAnalyzer.class,
+					cursor.getInput(), cursor.createExecutor(),
+					cursor.createState());
+		}
+	}
+
+	/**
+	 * Analyzes the repetitions one at a time when {@link #next()} is called.
+	 * The results of the repetitions are not collected.
+	 */
+	public final class Repetitions {
+		private final Cursor cursor;
+		private int count = 0;
+		private boolean finished = false;
+
+		private Repetitions(final Cursor cursor) {
+			this.cursor = cursor;
+		}
+
+		/**
+		 * Analyze the next repetition.
+		 *
+		 * @return the result of the underlying analyzer or {@code null} if
+		 *         there are no more repetitions, because the underlying
+		 *         analyzer failed or the maximum number of repetitions was
+		 *         reached
+		 */
+		public AnalysisResult next() {
+			if (finished
+					|| (maxRepetition != INFINITE && count >= maxRepetition)) {
+				finished = true;
+				return null;
+			}
+			final AnalysisResult result = Reporter.invoke(reporter, analyzer,
+					cursor.getInput());
+			if (!result.wasSuccessful()) {
+				finished = true;
+				return null;
+			}
+			cursor.skipOver(result);
+			count++;
+			return result;
+		}
+
+		/**
+		 * @return {@code true} if at least the minimum number of repetitions
+		 *         were analyzed
+		 */
+		public boolean isComplete() {
+			return count >= minRepetition;
+		}
+
+		/**
+		 * @return the input following the repetitions analyzed so far
+		 */
+		public SourceCode getInput() {
+			return cursor.getInput();
+		}
+	}
+
+	@Override
+	public FirstSet firstSet() {
+		if (firstSet == null) {
+			firstSet = FirstSet.UNKNOWN;
+			final FirstSet underlying = FirstSet.of(analyzer);
+			firstSet = skippedFirstSet().union(
+					underlying.nullable(minRepetition == 0
+							|| underlying.isNullable()));
+		}
+		return firstSet;
 	}
 
 	@Override
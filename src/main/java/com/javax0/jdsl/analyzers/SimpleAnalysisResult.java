@@ -36,20 +36,26 @@ public class SimpleAnalysisResult implements AnalysisResult {
 
 	public static SimpleAnalysisResult failed(
 			final Class<? extends Analyzer> klass) {
-		ReporterFactory.getReporter().logFail(klass);
+		if (ReporterFactory.isReporting()) {
+			ReporterFactory.getReporter().logFail(klass);
+		}
 		return FAILED_RESULT;
 	}
 
 	public static SimpleAnalysisResult failed(
 			final Class<? extends Analyzer> klass, final String reason) {
-		ReporterFactory.getReporter().logFail(klass, reason);
+		if (ReporterFactory.isReporting()) {
+			ReporterFactory.getReporter().logFail(klass, reason);
+		}
 		return FAILED_RESULT;
 	}
 
 	public static SimpleAnalysisResult success(
 			final Class<? extends Analyzer> klass, final SourceCode in,
 			final Executor r, final State state) {
-		ReporterFactory.getReporter().logSuccess(klass);
+		if (ReporterFactory.isReporting()) {
+			ReporterFactory.getReporter().logSuccess(klass);
+		}
 		return new SimpleAnalysisResult(true, in, r, state);
 	}
 
@@ -59,6 +65,27 @@ public class SimpleAnalysisResult implements AnalysisResult {
 		return success(klass, in, r, null);
 	}
 
+	/**
+	 * Create the result of an offset based analysis, see
+	 * {@link OffsetAnalyzer}.
+	 * 
+	 * @param input
+	 *            the analyzed input
+	 * @param end
+	 *            the offset returned by the analysis
+	 * @param builder
+	 *            holds the executor and the state of a successful analysis
+	 */
+	public static SimpleAnalysisResult of(
+			final Class<? extends Analyzer> klass, final SourceCode input,
+			final int end, final AnalysisBuilder builder) {
+		if (end == OffsetAnalyzer.FAILED) {
+			return failed(klass);
+		}
+		return success(klass, end == 0 ? input : input.rest(end),
+				builder.getExecutor(), builder.getState());
+	}
+
 	@Override
 	public boolean wasSuccessful() {
 		return success;
@@ -17,19 +17,45 @@ import com.javax0.jdsl.log.ReporterFactory;
  *
  * 
  */
-public abstract class SkippingAnalyzer implements Rule {
+public abstract class SkippingAnalyzer implements Rule, OffsetAnalyzer {
 	private final Reporter reporter = ReporterFactory.getReporter();
 	private final static Executor NO_EXECUTOR = null;
 
 	protected abstract int countCharacters(final SourceCode input);
 
+	/**
+	 * Count the characters to skip starting at the offset. The default
+	 * implementation counts the characters of the rest of the input,
+	 * implementations should override it to avoid creating the rest.
+	 */
+	protected int countCharacters(final SourceCode input, final int offset) {
+		return countCharacters(offset == 0 ? input : input.rest(offset));
+	}
+
+	/**
+	 * @return the offset of the first character not skipped starting at the
+	 *         offset
+	 */
+	public int skip(final SourceCode input, final int offset) {
+		return offset + countCharacters(input, offset);
+	}
+
+	@Override
+	public final int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		builder.success(NO_EXECUTOR, null);
+		return skip(input, offset);
+	}
+
 	@Override
 	public final AnalysisResult analyze(final SourceCode input) {
 		final int numberOfSkippedCharactets = countCharacters(input);
-		reporter.logStart(SkippingAnalyzer.class, input, " skipping %d chars",
-				numberOfSkippedCharactets);
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(SkippingAnalyzer.class, input,
+					" skipping %d chars", numberOfSkippedCharactets);
+		}
 		final AnalysisResult result;
-		if (numberOfSkippedCharactets < input.length()) {
+		if (input.hasAtLeast(numberOfSkippedCharactets + 1)) {
 			if (numberOfSkippedCharactets == 0) {
 				result = SimpleAnalysisResult.success(SkippingAnalyzer.class,
 						input, NO_EXECUTOR);
@@ -28,4 +28,49 @@ public interface SourceCode {
 	 * {@code i} characters of the original ({@code this}) source code.
 	 */
 	SourceCode rest(final int i);
+
+	/**
+	 * Decide if there are at least {@code n} characters available in the
+	 * source code. Analyzers should use this method instead of
+	 * {@link #length()} when they only need to know that the next characters
+	 * exist, because it does not need to know the total length of the input.
+	 * Source code implementations that read the input from a stream override
+	 * it to read only as many characters as needed.
+	 */
+	default boolean hasAtLeast(final int n) {
+		return length() >= n;
+	}
+
+	/**
+	 * Declare that the analysis will not go back to any position before this
+	 * source code. Implementations that buffer the input can free the buffers
+	 * that hold the characters before the position. The default implementation
+	 * does nothing.
+	 * <p>
+	 * See {@link com.javax0.jdsl.GrammarDefinition#cut()}.
+	 */
+	default void commit() {
+	}
+
+	/**
+	 * Get the array holding the characters of the source code, if there is
+	 * one. Analyzers can scan the array directly instead of calling
+	 * {@link #charAt(int)} for each character. The character
+	 * {@code charAt(i)} is {@code array()[arrayOffset() + i]}. The array must
+	 * not be modified.
+	 *
+	 * @return the array or {@code null} if the source code is not backed by
+	 *         an array. The default implementation returns {@code null}.
+	 */
+	default char[] array() {
+		return null;
+	}
+
+	/**
+	 * @return the index of the first character of the source code in the
+	 *         array returned by {@link #array()}
+	 */
+	default int arrayOffset() {
+		return 0;
+	}
 }
@@ -4,7 +4,10 @@ import com.javax0.jdsl.executors.Executor;
 import com.javax0.jdsl.executors.Factory;
 import com.javax0.jdsl.executors.ListExecutor;
 import com.javax0.jdsl.executors.SimpleListExecutor;
+import com.javax0.jdsl.log.Reporter;
+import com.javax0.jdsl.log.ReporterFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -12,43 +15,179 @@ import java.util.List;
  * typically white space. The parts to ignore is defined providing a
  * {@link SkippingAnalyzer}, typically an instance of the
  * {@link WhiteSpaceSkippingAnalyzer}.
+ * <p>
+ * The analyzer does not store anything about the input being analyzed. The
+ * position and the executors and states collected during one call of
+ * {@link #analyze(SourceCode)} are in a {@link Cursor} that belongs to that
+ * call. Because of this the same analyzer can be used recursively and by
+ * several threads at the same time once the grammar is defined.
  *
  * @author Peter Verhas
  */
-public abstract class SpaceIgnoringAnalyzer implements Rule {
+public abstract class SpaceIgnoringAnalyzer implements Rule, OffsetAnalyzer {
+    private final Reporter reporter = ReporterFactory.getReporter();
     private SkippingAnalyzer skippingAnalyzer = null;
 
     public void setSkipAnalyzer(final SkippingAnalyzer skipAnalyzer) {
         this.skippingAnalyzer = skipAnalyzer;
     }
 
+    /**
+     * @return the analyzer that skips the ignored characters or {@code null}
+     * if there is none
+     */
+    public SkippingAnalyzer getSkippingAnalyzer() {
+        return skippingAnalyzer;
+    }
+
     private SourceCode skip(final SourceCode sc) {
         final SourceCode skippedSourceCode;
         if (skippingAnalyzer == null) {
             skippedSourceCode = sc;
-        } else {
-            final AnalysisResult result = skippingAnalyzer.analyze(sc);
+        } else if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+            final AnalysisResult result = Reporter.invoke(reporter, skippingAnalyzer, sc);
             skippedSourceCode = result.remainingSourceCode();
+        } else {
+            final int skipped = skippingAnalyzer.skip(sc, 0);
+            skippedSourceCode = skipped == 0 ? sc : sc.rest(skipped);
         }
         return skippedSourceCode;
     }
 
-    abstract protected AnalysisResult analyze();
+    /**
+     * @return the offset of the first character not skipped starting at the
+     * offset. The result is cached in the builder, see
+     * {@link AnalysisBuilder#skip(SkippingAnalyzer, SourceCode, int)}.
+     */
+    protected final int skip(final SourceCode input, final int offset, final AnalysisBuilder builder) {
+        return skippingAnalyzer == null ? offset : builder.skip(skippingAnalyzer, input, offset);
+    }
+
+    /**
+     * Finish a successful offset based analysis: create the executor and the
+     * state from the results pushed to the builder since the mark, remove
+     * them from the stack and pass the new executor and state to the
+     * builder.
+     *
+     * @return the end
+     */
+    protected final int success(final AnalysisBuilder builder, final int mark, final int end) {
+        final Executor executor = createExecutor(builder.executors(mark));
+        final State state = builder.state(mark);
+        builder.reset(mark);
+        builder.success(executor, state);
+        return end;
+    }
+
+    /**
+     * @return the first set of the characters the skipping analyzer skips, or
+     * an empty first set if there is no skipping analyzer. List analyzers skip
+     * before their first element, therefore these characters are part of their
+     * first sets.
+     */
+    protected FirstSet skippedFirstSet() {
+        if (skippingAnalyzer == null) {
+            return FirstSet.EMPTY;
+        }
+        return FirstSet.of(skippingAnalyzer);
+    }
+
+    /**
+     * Analyze the input starting at the position of the cursor.
+     *
+     * @param cursor created for this call, the skipping analyzer was already
+     *               applied to the start of the input
+     */
+    abstract protected AnalysisResult analyze(Cursor cursor);
 
     @Override
     public final AnalysisResult analyze(final SourceCode input) {
-        setInput(input);
-        return analyze();
+        return analyze(new Cursor(input));
     }
 
-    private SourceCode input;
-
-    protected void setInput(final SourceCode input) {
-        this.input = skip(input);
+    /**
+     * @return a new cursor at the start of the input, the skipping analyzer
+     * already applied
+     */
+    protected final Cursor cursor(final SourceCode input) {
+        return new Cursor(input);
     }
 
-    protected SourceCode getInput() {
-        return input;
+    /**
+     * The state of a single analysis performed by a space ignoring analyzer:
+     * the input that is not analyzed yet and the executors and the states
+     * returned by the underlying analyzers so far.
+     */
+    protected final class Cursor {
+        private SourceCode input;
+        private final List<Executor> executors = new ArrayList<>();
+        private final ListAnalysisState.Builder states = new ListAnalysisState.Builder();
+
+        private Cursor(final SourceCode input) {
+            this.input = skip(input);
+        }
+
+        public SourceCode getInput() {
+            return input;
+        }
+
+        /**
+         * If the executor is not null in the result then add that to the
+         * executors.
+         * <p>
+         * Add the state from the result to the states.
+         * <p>
+         * Advance the input to the remaining source code skipping the
+         * ignored characters.
+         *
+         * @param result that comes from some analyzer.
+         */
+        public void advance(final AnalysisResult result) {
+            if (result.getExecutor() != null) {
+                executors.add(result.getExecutor());
+            }
+            states.add(result.getState());
+            input = skip(result.remainingSourceCode());
+        }
+
+        /**
+         * Advance the input to the remaining source code skipping the ignored
+         * characters without collecting the executor and the state of the
+         * result.
+         *
+         * @param result that comes from some analyzer.
+         */
+        public void skipOver(final AnalysisResult result) {
+            input = skip(result.remainingSourceCode());
+        }
+
+        /**
+         * Append the executors and the states collected by the other cursor
+         * to the ones collected by this cursor and continue at the position
+         * of the other cursor.
+         *
+         * @param other cursor that analyzed the input following this cursor
+         */
+        public void append(final Cursor other) {
+            executors.addAll(other.executors);
+            states.addAll(other.states);
+            input = other.input;
+        }
+
+        /**
+         * @return the executor created from the executors collected so far
+         * using {@link #createExecutor(List)}
+         */
+        public Executor createExecutor() {
+            return SpaceIgnoringAnalyzer.this.createExecutor(executors);
+        }
+
+        /**
+         * @return the state containing the states collected so far
+         */
+        public State createState() {
+            return states.build();
+        }
     }
 
     protected SpaceIgnoringAnalyzer(final Factory<? extends ListExecutor> listExecutorFactory) {
@@ -57,31 +196,11 @@ public abstract class SpaceIgnoringAnalyzer implements Rule {
 
     private final Factory<? extends ListExecutor> listExecutorFactory;
 
-    /**
-     * If the executor is not null in the result then add that to the executors.
-     * <p>
-     * Add the state from the result to the states.
-     * <p>
-     * Advance the input to the remaining source code.
-     *
-     * @param result    that comes from some analyzer.
-     * @param executors list of executors for some list.
-     * @param states    list of states for some list.
-     */
-    protected void advanceList(final AnalysisResult result,
-                               final List<Executor> executors, final List<State> states) {
-        if (result.getExecutor() != null) {
-            executors.add(result.getExecutor());
-        }
-        states.add(result.getState());
-        setInput(result.remainingSourceCode());
-    }
-
     /**
      * Create a new executor. If possible to make simplification flattening
      * simple executor structure then flatten.
      */
-    protected Executor createExecutor(final List<Executor> executors) {
+    public Executor createExecutor(final List<Executor> executors) {
         final Executor executor;
         if (listExecutorFactory != null && executors.size() > 0) {
             final var listExecutor = listExecutorFactory.get();
@@ -0,0 +1,26 @@
+package com.javax0.jdsl.analyzers;
+
+/**
+ * Finds the positions where the input of a grammar analyzed in parallel can be
+ * split into parts, see {@link com.javax0.jdsl.GrammarDefinition#parallel()}.
+ * A position is good for splitting if a top level element of the grammar
+ * starts there, possibly after some skipped characters.
+ * <p>
+ * The splitter only has to make a good guess. The parts are verified after
+ * the analysis: when a part does not start where the analysis of the previous
+ * part ended the rest of the input is analyzed sequentially. A wrong position
+ * costs time but does not change the result.
+ */
+@FunctionalInterface
+public interface Splitter {
+
+	/**
+	 * Find the positions where the input can be split.
+	 *
+	 * @param input
+	 *            the whole input of the analysis
+	 * @return the positions in ascending order. A position is the index of
+	 *         the first character of a part.
+	 */
+	int[] split(SourceCode input);
+}
@@ -0,0 +1,80 @@
+package com.javax0.jdsl.analyzers;
+
+import java.util.Arrays;
+
+/**
+ * Splitter that splits the input after each separator character, for example
+ * after each {@code ;}, unless the separator is inside a string. Strings are
+ * recognized the same way as the
+ * {@link com.javax0.jdsl.analyzers.terminals.StringAnalyzer} does: they are
+ * enclosed between {@code "} or {@code '} characters, or between three of them
+ * when the string may span more than one line, and the {@code \} character
+ * escapes the next character.
+ */
+public class StatementSplitter implements Splitter {
+	private static final char DQ = '"';
+	private static final char PQ = '\'';
+	private static final char BS = '\\';
+
+	private final char separator;
+
+	/**
+	 * @param separator
+	 *            the character that terminates the top level elements
+	 */
+	public StatementSplitter(final char separator) {
+		this.separator = separator;
+	}
+
+	private static boolean isTriple(final SourceCode input, final int i,
+			final int length, final char quote) {
+		return i + 2 < length && input.charAt(i + 1) == quote
+				&& input.charAt(i + 2) == quote;
+	}
+
+	@Override
+	public int[] split(final SourceCode input) {
+		final int length = input.length();
+		int[] positions = new int[16];
+		int count = 0;
+		int i = 0;
+		while (i < length) {
+			final char ch = input.charAt(i);
+			if (ch == DQ || ch == PQ) {
+				i = skipString(input, i, length, ch);
+			} else {
+				i++;
+				if (ch == separator && i < length) {
+					if (count == positions.length) {
+						positions = Arrays.copyOf(positions, count * 2);
+					}
+					positions[count++] = i;
+				}
+			}
+		}
+		return Arrays.copyOf(positions, count);
+	}
+
+	/**
+	 * @return the position after the string starting at {@code i}
+	 */
+	private static int skipString(final SourceCode input, int i,
+			final int length, final char quote) {
+		final boolean triple = isTriple(input, i, length, quote);
+		i += triple ? 3 : 1;
+		while (i < length) {
+			final char ch = input.charAt(i);
+			if (ch == BS) {
+				i += 2;
+			} else if (ch == quote
+					&& (!triple || isTriple(input, i, length, quote))) {
+				return i + (triple ? 3 : 1);
+			} else if (!triple && (ch == '\n' || ch == '\r')) {
+				return i;
+			} else {
+				i++;
+			}
+		}
+		return length;
+	}
+}
@@ -2,6 +2,12 @@ package com.javax0.jdsl.analyzers;
 
 /**
  * SourceCode implementation that has an underlying String.
+ * <p>
+ * The static method {@link #sourceCode(String)} does not return an instance of
+ * this class but rather a {@link CharArraySourceCode} that does not copy the
+ * rest of the input each time some characters are consumed. Source code
+ * objects created using the constructor also return such objects from the
+ * method {@link #rest(int)}.
  * 
  *
  * 
@@ -11,8 +17,14 @@ public class StringSourceCode implements SourceCode {
 
 	private final String source;
 
+	private CharArraySourceCode charArraySourceCode = null;
+
 	public static SourceCode sourceCode(final String source) {
-		return new StringSourceCode(source);
+		if (source == null) {
+			throw new IllegalArgumentException(
+					"source can not be null when creating source code");
+		}
+		return new CharArraySourceCode(source);
 	}
 
 	public StringSourceCode(final String source) {
@@ -40,7 +52,7 @@ public class StringSourceCode implements SourceCode {
 			if (i == 0) {
 				result = this;
 			} else {
-				result = new StringSourceCode(source.substring(i));
+				result = asCharArraySourceCode().rest(i);
 			}
 		} else {
 			result = EMPTY_SOURCE;
@@ -48,6 +60,35 @@ public class StringSourceCode implements SourceCode {
 		return result;
 	}
 
+	/**
+	 * The characters are copied into the array of a {@link CharArraySourceCode}
+	 * the first time an analyzer needs the array.
+	 */
+	@Override
+	public char[] array() {
+		return asCharArraySourceCode().array();
+	}
+
+	@Override
+	public int arrayOffset() {
+		return asCharArraySourceCode().arrayOffset();
+	}
+
+	/**
+	 * Get the {@link CharArraySourceCode} holding the same characters. It is
+	 * created when first needed and reused afterwards, thus the characters are
+	 * copied only once. (The field is not volatile, but concurrent threads can
+	 * at worst create the same object more than once.)
+	 */
+	private CharArraySourceCode asCharArraySourceCode() {
+		CharArraySourceCode result = charArraySourceCode;
+		if (result == null) {
+			result = new CharArraySourceCode(source);
+			charArraySourceCode = result;
+		}
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return source;
@@ -64,6 +105,8 @@ public class StringSourceCode implements SourceCode {
 			return true;
 		if (obj == null)
 			return false;
+		if (obj instanceof CharArraySourceCode)
+			return obj.equals(this);
 		if (getClass() != obj.getClass())
 			return false;
 		return source.equals(((StringSourceCode) obj).source);
@@ -11,17 +11,39 @@ package com.javax0.jdsl.analyzers;
  * @author Peter Verhas
  * 
  */
-public class WhiteSpaceSkippingAnalyzer extends SkippingAnalyzer {
+public class WhiteSpaceSkippingAnalyzer extends SkippingAnalyzer implements
+		FirstSet.Provider {
 
 	@Override
 	protected int countCharacters(final SourceCode input) {
 		int i = 0;
-		while (i < input.length() && Character.isWhitespace(input.charAt(i))) {
+		while (input.hasAtLeast(i + 1) && Character.isWhitespace(input.charAt(i))) {
 			i++;
 		}
 		return i;
 	}
 
+	@Override
+	protected int countCharacters(final SourceCode input, final int offset) {
+		int i = offset;
+		while (input.hasAtLeast(i + 1) && Character.isWhitespace(input.charAt(i))) {
+			i++;
+		}
+		return i - offset;
+	}
+
+	private static final FirstSet FIRST_SET = FirstSet
+			.matching(Character::isWhitespace);
+
+	/**
+	 * @return the characters that this analyzer skips. It is used by the list
+	 *         analyzers that skip the spaces before their first element.
+	 */
+	@Override
+	public FirstSet firstSet() {
+		return FIRST_SET;
+	}
+
 	private static final SkippingAnalyzer INSTANCE = new WhiteSpaceSkippingAnalyzer();
 
 	public static SkippingAnalyzer spaces() {
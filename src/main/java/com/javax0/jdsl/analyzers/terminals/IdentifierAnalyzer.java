@@ -1,7 +1,10 @@
 package com.javax0.jdsl.analyzers.terminals;
 
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
 import com.javax0.jdsl.analyzers.AnalysisResult;
 import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
 import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
 import com.javax0.jdsl.analyzers.SourceCode;
 import com.javax0.jdsl.executors.TerminalSymbolExecutor;
@@ -26,11 +29,11 @@ import com.javax0.jdsl.log.ReporterFactory;
  * @author Peter Verhas
  * 
  */
-public class IdentifierAnalyzer implements Analyzer {
+public class IdentifierAnalyzer implements OffsetAnalyzer, FirstSet.Provider {
 	private final Reporter reporter = ReporterFactory.getReporter();
 
 	private boolean isIndexInRange(final int i, final SourceCode input) {
-		return i < input.length();
+		return input.hasAtLeast(i + 1);
 	}
 
 	private boolean isDigit(final int i, final SourceCode input) {
@@ -48,26 +51,44 @@ public class IdentifierAnalyzer implements Analyzer {
 
 	@Override
 	public AnalysisResult analyze(final SourceCode input) {
-		reporter.logStart(IdentifierAnalyzer.class, input);
-		if (isStartChar(0, input)) {
-			final StringBuilder sb = new StringBuilder();
-			int i = 0;
-			while (isIdentifierCharacter(i, input)) {
-				sb.append(input.charAt(i));
-				i++;
-			}
-			return SimpleAnalysisResult.success(IdentifierAnalyzer.class,
-					input.rest(i),
-					new TerminalSymbolExecutor<>(sb.toString()));
-		} else {
-			return SimpleAnalysisResult.failed(IdentifierAnalyzer.class);
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(IdentifierAnalyzer.class, input);
 		}
+		final AnalysisBuilder builder = new AnalysisBuilder();
+		return SimpleAnalysisResult.of(IdentifierAnalyzer.class, input,
+				analyze(input, 0, builder), builder);
+	}
+
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		if (!isStartChar(offset, input)) {
+			return FAILED;
+		}
+		int i = offset;
+		while (isIdentifierCharacter(i, input)) {
+			i++;
+		}
+		final StringBuilder sb = new StringBuilder(i - offset);
+		for (int j = offset; j < i; j++) {
+			sb.append(input.charAt(j));
+		}
+		builder.success(new TerminalSymbolExecutor<>(sb.toString()), null);
+		return i;
 	}
 
 	public static Analyzer identifier() {
 		return new IdentifierAnalyzer();
 	}
 
+	private static final FirstSet FIRST_SET = FirstSet
+			.matching(Character::isAlphabetic);
+
+	@Override
+	public FirstSet firstSet() {
+		return FIRST_SET;
+	}
+
 	@Override
 	public String toString() {
 		return "identifier";
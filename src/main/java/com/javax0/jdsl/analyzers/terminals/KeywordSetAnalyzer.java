@@ -0,0 +1,242 @@
+package com.javax0.jdsl.analyzers.terminals;
+
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
+import com.javax0.jdsl.analyzers.Rule;
+import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.executors.Executor;
+import com.javax0.jdsl.log.Reporter;
+import com.javax0.jdsl.log.ReporterFactory;
+
+import java.util.Arrays;
+
+/**
+ * Analyzer that accepts one of several terminal symbols. It works the same way
+ * as an {@link com.javax0.jdsl.analyzers.AlternativesAnalyzer} that has
+ * {@link TerminalSymbolAnalyzer}s as alternatives, but it reads the input only
+ * once walking a trie of the lexemes.
+ * <p>
+ * The semantics of the alternatives are kept: if more than one lexeme matches
+ * the start of the input then the one that was declared first wins, even if a
+ * later one is longer. The result has the executor of the matching terminal
+ * symbol.
+ * <p>
+ * {@link com.javax0.jdsl.GrammarDefinition} creates this analyzer when all the
+ * alternatives of an {@code or(...)} are terminal symbols.
+ */
+public class KeywordSetAnalyzer implements Rule, OffsetAnalyzer, FirstSet.Provider {
+    private static final int NO_KEYWORD = Integer.MAX_VALUE;
+    private final Reporter reporter = ReporterFactory.getReporter();
+
+    private final String[] lexemes;
+    private final Executor[] executors;
+    private final boolean caseInsensitive;
+    private final Node root = new Node();
+    private final FirstSet firstSet;
+
+    private static class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        /**
+         * The index of the keyword that ends in this node.
+         */
+        private int keyword = NO_KEYWORD;
+        /**
+         * The smallest index of the keywords that end in the nodes below this
+         * node.
+         */
+        private int minKeywordBelow = NO_KEYWORD;
+
+        private Node child(final char ch) {
+            final int i = Arrays.binarySearch(labels, ch);
+            return i < 0 ? null : children[i];
+        }
+
+        private Node addChild(final char ch) {
+            int i = Arrays.binarySearch(labels, ch);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            final char[] newLabels = new char[labels.length + 1];
+            final Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i, newLabels, i + 1, labels.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+            newLabels[i] = ch;
+            newChildren[i] = new Node();
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[i];
+        }
+    }
+
+    /**
+     * Decide if the alternatives can be replaced by a keyword set analyzer.
+     * This is the case when there are at least two alternatives and all of
+     * them are {@link TerminalSymbolAnalyzer}s (not extended) that compare the
+     * characters the same way, either case-sensitive or case-insensitive.
+     *
+     * @param analyzers the alternatives
+     * @return {@code true} if {@link #of(Analyzer...)} can be called
+     */
+    public static boolean canReplace(final Analyzer... analyzers) {
+        if (analyzers.length < 2) {
+            return false;
+        }
+        TerminalSymbolAnalyzer.CharCompare charCompare = null;
+        for (final Analyzer analyzer : analyzers) {
+            if (analyzer == null || analyzer.getClass() != TerminalSymbolAnalyzer.class) {
+                return false;
+            }
+            final TerminalSymbolAnalyzer.CharCompare cc = ((TerminalSymbolAnalyzer) analyzer).getCharCompare();
+            if (cc != TerminalSymbolAnalyzer.CharCompare.caseSensitive
+                    && cc != TerminalSymbolAnalyzer.CharCompare.caseInsensitive) {
+                return false;
+            }
+            if (charCompare != null && charCompare != cc) {
+                return false;
+            }
+            charCompare = cc;
+        }
+        return true;
+    }
+
+    /**
+     * Create a keyword set analyzer from alternatives. The arguments have to
+     * pass {@link #canReplace(Analyzer...)}.
+     *
+     * @param analyzers the terminal symbol analyzers in the order of the alternatives
+     * @return the new analyzer
+     */
+    public static KeywordSetAnalyzer of(final Analyzer... analyzers) {
+        if (!canReplace(analyzers)) {
+            throw new IllegalArgumentException(
+                    "Only terminal symbol analyzers with the same character comparison can form a keyword set");
+        }
+        final String[] lexemes = new String[analyzers.length];
+        final Executor[] executors = new Executor[analyzers.length];
+        for (int i = 0; i < analyzers.length; i++) {
+            final TerminalSymbolAnalyzer terminal = (TerminalSymbolAnalyzer) analyzers[i];
+            lexemes[i] = terminal.getLexeme();
+            executors[i] = terminal.getExecutor();
+        }
+        return new KeywordSetAnalyzer(lexemes, executors,
+                ((TerminalSymbolAnalyzer) analyzers[0]).getCharCompare() == TerminalSymbolAnalyzer.CharCompare.caseInsensitive);
+    }
+
+    /**
+     * Create a keyword set analyzer with no executors.
+     *
+     * @param lexemes         the lexemes in the order of preference
+     * @param caseInsensitive {@code true} if the lexemes are matched case-insensitive
+     */
+    public KeywordSetAnalyzer(final String[] lexemes, final boolean caseInsensitive) {
+        this(lexemes, new Executor[lexemes.length], caseInsensitive);
+    }
+
+    /**
+     * @param lexemes         the lexemes in the order of preference
+     * @param executors       the executors returned when the lexeme with the same index matches
+     * @param caseInsensitive {@code true} if the lexemes are matched case-insensitive
+     */
+    public KeywordSetAnalyzer(final String[] lexemes, final Executor[] executors, final boolean caseInsensitive) {
+        if (lexemes.length != executors.length) {
+            throw new IllegalArgumentException("There has to be one executor for each lexeme");
+        }
+        this.lexemes = lexemes.clone();
+        this.executors = executors.clone();
+        this.caseInsensitive = caseInsensitive;
+        FirstSet first = FirstSet.EMPTY;
+        for (int k = 0; k < this.lexemes.length; k++) {
+            final String lexeme = this.lexemes[k];
+            Node node = root;
+            for (int i = 0; i < lexeme.length(); i++) {
+                node.minKeywordBelow = Math.min(node.minKeywordBelow, k);
+                node = node.addChild(normalize(lexeme.charAt(i)));
+            }
+            if (node.keyword == NO_KEYWORD) {
+                node.keyword = k;
+            }
+            first = first.union(new TerminalSymbolAnalyzer(lexeme, caseInsensitive ?
+                    TerminalSymbolAnalyzer.CharCompare.caseInsensitive :
+                    TerminalSymbolAnalyzer.CharCompare.caseSensitive).firstSet());
+        }
+        this.firstSet = first;
+    }
+
+    /**
+     * @return the lexemes in the order of preference
+     */
+    public String[] getLexemes() {
+        return lexemes.clone();
+    }
+
+    /**
+     * @return the executors of the lexemes with the same index
+     */
+    public Executor[] getExecutors() {
+        return executors.clone();
+    }
+
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    private char normalize(final char ch) {
+        return caseInsensitive ? Character.toLowerCase(ch) : ch;
+    }
+
+    @Override
+    public AnalysisResult analyze(final SourceCode input) {
+        if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+            reporter.logStart(KeywordSetAnalyzer.class, input, "%s?", this);
+        }
+        final AnalysisBuilder builder = new AnalysisBuilder();
+        return SimpleAnalysisResult.of(KeywordSetAnalyzer.class, input, analyze(input, 0, builder), builder);
+    }
+
+    @Override
+    public int analyze(final SourceCode input, final int offset, final AnalysisBuilder builder) {
+        int best = NO_KEYWORD;
+        int bestEnd = 0;
+        Node node = root;
+        int i = offset;
+        while (true) {
+            if (node.keyword < best) {
+                best = node.keyword;
+                bestEnd = i;
+            }
+            if (node.minKeywordBelow >= best || !input.hasAtLeast(i + 1)) {
+                break;
+            }
+            node = node.child(normalize(input.charAt(i)));
+            if (node == null) {
+                break;
+            }
+            i++;
+        }
+        if (best == NO_KEYWORD) {
+            return FAILED;
+        }
+        builder.success(executors[best], null);
+        return bestEnd;
+    }
+
+    @Override
+    public FirstSet firstSet() {
+        return firstSet;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + String.join("|", lexemes) + "]";
+    }
+}
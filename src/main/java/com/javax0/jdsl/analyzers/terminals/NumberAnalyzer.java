@@ -1,10 +1,14 @@
 package com.javax0.jdsl.analyzers.terminals;
 
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
 import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
 import com.javax0.jdsl.analyzers.Rule;
 import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
 import com.javax0.jdsl.analyzers.SourceCode;
-import com.javax0.jdsl.executors.TerminalSymbolExecutor;
+import com.javax0.jdsl.executors.DoubleTerminalSymbolExecutor;
+import com.javax0.jdsl.executors.LongTerminalSymbolExecutor;
 import com.javax0.jdsl.log.Reporter;
 import com.javax0.jdsl.log.ReporterFactory;
 
@@ -16,16 +20,19 @@ import com.javax0.jdsl.log.ReporterFactory;
  * The exponential part starts with 'e' or 'E', has optional '+' or '-' and
  * digits. This is just the usual and normal number representation. The result
  * of the analysis will contain an executor that returns the analyzed value of
- * the number, either as a {@code Long} or {@code Double}.
+ * the number, either as a {@code Long} or {@code Double}. The executor is a
+ * {@link LongTerminalSymbolExecutor} or a {@link DoubleTerminalSymbolExecutor}
+ * that can also return the value without boxing.
  * 
  *
  * 
  */
-public class NumberAnalyzer implements Rule {
+public class NumberAnalyzer implements Rule, OffsetAnalyzer,
+		FirstSet.Provider {
 	private final Reporter reporter = ReporterFactory.getReporter();
 
 	private boolean isIndexInRange(final int i, final SourceCode input) {
-		return i < input.length();
+		return input.hasAtLeast(i + 1);
 	}
 
 	private boolean isDigit(final int i, final SourceCode input) {
@@ -52,11 +59,21 @@ public class NumberAnalyzer implements Rule {
 
 	@Override
 	public AnalysisResult analyze(final SourceCode input) {
-		reporter.logStart(NumberAnalyzer.class, input);
-		int i = 0;
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(NumberAnalyzer.class, input);
+		}
+		final AnalysisBuilder builder = new AnalysisBuilder();
+		return SimpleAnalysisResult.of(NumberAnalyzer.class, input,
+				analyze(input, 0, builder), builder);
+	}
+
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		int i = offset;
 		long sig = 1;
 		if (isSignChar(i, input)) {
-			if (input.charAt(0) == '-') {
+			if (input.charAt(offset) == '-') {
 				sig = -1;
 			}
 			i++;
@@ -68,9 +85,9 @@ public class NumberAnalyzer implements Rule {
 				i++;
 			}
 			if (!isChar(i, input, '.', 'e', 'E')) {
-				return SimpleAnalysisResult.success(NumberAnalyzer.class,
-						input.rest(i), new TerminalSymbolExecutor<>(result
-								* sig));
+				builder.success(new LongTerminalSymbolExecutor(result * sig),
+						null);
+				return i;
 			}
 			double mantissa = (double) result;
 			if (input.charAt(i) == '.') {
@@ -97,16 +114,15 @@ public class NumberAnalyzer implements Rule {
 					i++;
 				}
 				exponent *= esig;
-				return SimpleAnalysisResult.success(NumberAnalyzer.class, input
-						.rest(i), new TerminalSymbolExecutor<>(mantissa
-						* sig * Math.pow(10.0, exponent)));
+				builder.success(new DoubleTerminalSymbolExecutor(mantissa * sig
+						* Math.pow(10.0, exponent)), null);
 			} else {
-				return SimpleAnalysisResult.success(NumberAnalyzer.class, input
-						.rest(i), new TerminalSymbolExecutor<>(mantissa
-						* sig));
+				builder.success(new DoubleTerminalSymbolExecutor(mantissa
+						* sig), null);
 			}
+			return i;
 		} else {
-			return SimpleAnalysisResult.failed(NumberAnalyzer.class);
+			return FAILED;
 		}
 	}
 
@@ -116,6 +132,14 @@ public class NumberAnalyzer implements Rule {
 		return INSTANCE;
 	}
 
+	private static final FirstSet FIRST_SET = FirstSet.matching(ch -> ch == '+'
+			|| ch == '-' || Character.isDigit(ch));
+
+	@Override
+	public FirstSet firstSet() {
+		return FIRST_SET;
+	}
+
 	@Override
 	public String toString() {
 		return "number";
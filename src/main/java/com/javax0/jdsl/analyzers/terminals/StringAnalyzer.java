@@ -1,6 +1,9 @@
 package com.javax0.jdsl.analyzers.terminals;
 
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
 import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
 import com.javax0.jdsl.analyzers.Rule;
 import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
 import com.javax0.jdsl.analyzers.SourceCode;
@@ -14,27 +17,28 @@ import com.javax0.jdsl.log.ReporterFactory;
  * @author Peter Verhas
  * 
  */
-public class StringAnalyzer implements Rule {
+public class StringAnalyzer implements Rule, OffsetAnalyzer,
+		FirstSet.Provider {
 	private final Reporter reporter = ReporterFactory.getReporter();
 	private static final char DQ = '"';
 	private static final char PQ = '\'';
 	private static final char BS = '\\';
 
 	private static boolean isDq(SourceCode input, int i) {
-		return input.length() > i && input.charAt(i) == DQ;
+		return input.hasAtLeast(i + 1) && input.charAt(i) == DQ;
 	}
 
 	private static boolean is3Dq(SourceCode input, int i) {
-		return input.length() > i + 2 && input.charAt(i) == DQ
+		return input.hasAtLeast(i + 3) && input.charAt(i) == DQ
 				&& input.charAt(i + 1) == DQ && input.charAt(i + 2) == DQ;
 	}
 
 	private static boolean isPq(SourceCode input, int i) {
-		return input.length() > i && input.charAt(i) == PQ;
+		return input.hasAtLeast(i + 1) && input.charAt(i) == PQ;
 	}
 
 	private static boolean is3Pq(SourceCode input, int i) {
-		return input.length() > i + 2 && input.charAt(i) == PQ
+		return input.hasAtLeast(i + 3) && input.charAt(i) == PQ
 				&& input.charAt(i + 1) == PQ && input.charAt(i + 2) == PQ;
 	}
 
@@ -42,15 +46,15 @@ public class StringAnalyzer implements Rule {
 		DQ, PQ, DQ3, PQ3, NONE
 	}
 
-	private static Terminator getTerminator(SourceCode input) {
+	private static Terminator getTerminator(SourceCode input, int offset) {
 		final Terminator terminator;
-		if (is3Dq(input, 0)) {
+		if (is3Dq(input, offset)) {
 			terminator = Terminator.DQ3;
-		} else if (isDq(input, 0)) {
+		} else if (isDq(input, offset)) {
 			terminator = Terminator.DQ;
-		} else if (is3Pq(input, 0)) {
+		} else if (is3Pq(input, offset)) {
 			terminator = Terminator.PQ3;
-		} else if (isPq(input, 0)) {
+		} else if (isPq(input, offset)) {
 			terminator = Terminator.PQ;
 		} else {
 			terminator = Terminator.NONE;
@@ -124,30 +128,35 @@ public class StringAnalyzer implements Rule {
 		return ch == '\n' || ch == '\r';
 	}
 
-	@Override
-	public AnalysisResult analyze(final SourceCode input) {
-		reporter.logStart(StringAnalyzer.class, input);
-		StringBuilder sb = new StringBuilder();
-		final Terminator terminator = getTerminator(input);
+	private static final int NOT_TERMINATED_BEFORE_EOL = -2;
+	private static final int NOT_TERMINATED = -3;
+
+	/**
+	 * Scan the string starting at the offset and append its characters to
+	 * the string builder.
+	 *
+	 * @return the offset following the string, {@link #FAILED} if the input
+	 *         does not start as a string, {@link #NOT_TERMINATED_BEFORE_EOL}
+	 *         or {@link #NOT_TERMINATED} if the string is not terminated
+	 */
+	private static int scan(final SourceCode input, final int offset,
+			final StringBuilder sb) {
+		final Terminator terminator = getTerminator(input, offset);
 		if (terminator == Terminator.NONE) {
-			return SimpleAnalysisResult.failed(StringAnalyzer.class,
-					"does not start as a string");
+			return FAILED;
 		}
 		final boolean singleLine = singleLine(terminator);
 		boolean escaped = false;
-		for (int i = length(terminator); i < input.length(); i++) {
+		for (int i = offset + length(terminator); input.hasAtLeast(i + 1); i++) {
 			if (escaped) {
 				sb.append(convertEscapedChar(input.charAt(i)));
 				escaped = false;
 			} else {
 				if (isTerminated(input, i, terminator)) {
-					return SimpleAnalysisResult.success(StringAnalyzer.class,
-							input.rest(i + length(terminator)),
-							new TerminalSymbolExecutor<>(sb.toString()));
+					return i + length(terminator);
 				}
 				if (singleLine && isNL(input.charAt(i))) {
-					return SimpleAnalysisResult.failed(StringAnalyzer.class,
-							"single line string not terminated before eol");
+					return NOT_TERMINATED_BEFORE_EOL;
 				}
 				if (input.charAt(i) == BS) {
 					escaped = true;
@@ -156,9 +165,46 @@ public class StringAnalyzer implements Rule {
 				}
 			}
 		}
+		return NOT_TERMINATED;
+	}
+
+	@Override
+	public AnalysisResult analyze(final SourceCode input) {
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			reporter.logStart(StringAnalyzer.class, input);
+		}
+		final StringBuilder sb = new StringBuilder();
+		final int end = scan(input, 0, sb);
+		switch (end) {
+		case FAILED:
+			return SimpleAnalysisResult.failed(StringAnalyzer.class,
+					"does not start as a string");
+		case NOT_TERMINATED_BEFORE_EOL:
+			return SimpleAnalysisResult.failed(StringAnalyzer.class,
+					"single line string not terminated before eol");
+		case NOT_TERMINATED:
+			return SimpleAnalysisResult.failed(StringAnalyzer.class,
+					"string not terminated");
+		default:
+			return SimpleAnalysisResult.success(StringAnalyzer.class,
+					input.rest(end),
+					new TerminalSymbolExecutor<>(sb.toString()));
+		}
+	}
 
-		return SimpleAnalysisResult.failed(StringAnalyzer.class,
-				"string not terminated");
+	@Override
+	public int analyze(final SourceCode input, final int offset,
+			final AnalysisBuilder builder) {
+		if (getTerminator(input, offset) == Terminator.NONE) {
+			return FAILED;
+		}
+		final StringBuilder sb = new StringBuilder();
+		final int end = scan(input, offset, sb);
+		if (end < 0) {
+			return FAILED;
+		}
+		builder.success(new TerminalSymbolExecutor<>(sb.toString()), null);
+		return end;
 	}
 
 	public static final Rule INSTANCE = new StringAnalyzer();
@@ -167,6 +213,14 @@ public class StringAnalyzer implements Rule {
 		return INSTANCE;
 	}
 
+	private static final FirstSet FIRST_SET = FirstSet.matching(ch -> ch == DQ
+			|| ch == PQ);
+
+	@Override
+	public FirstSet firstSet() {
+		return FIRST_SET;
+	}
+
 	@Override
 	public String toString() {
 		return "number";
@@ -1,6 +1,9 @@
 package com.javax0.jdsl.analyzers.terminals;
 
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
 import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
 import com.javax0.jdsl.analyzers.Rule;
 import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
 import com.javax0.jdsl.analyzers.SourceCode;
@@ -8,7 +11,7 @@ import com.javax0.jdsl.executors.Executor;
 import com.javax0.jdsl.log.Reporter;
 import com.javax0.jdsl.log.ReporterFactory;
 
-public class TerminalSymbolAnalyzer implements Rule {
+public class TerminalSymbolAnalyzer implements Rule, OffsetAnalyzer, FirstSet.Provider {
     private final Reporter reporter = ReporterFactory.getReporter();
 
     public interface CharCompare {
@@ -89,8 +92,10 @@ public class TerminalSymbolAnalyzer implements Rule {
 
     @Override
     public AnalysisResult analyze(final SourceCode input) {
-        reporter.logStart(TerminalSymbolAnalyzer.class, input, "%s?", lexeme);
-        if (lexeme.length() > input.length()) {
+        if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+            reporter.logStart(TerminalSymbolAnalyzer.class, input, "%s?", lexeme);
+        }
+        if (!input.hasAtLeast(lexeme.length())) {
             return SimpleAnalysisResult.failed(TerminalSymbolAnalyzer.class,
                     "input short");
         }
@@ -105,6 +110,41 @@ public class TerminalSymbolAnalyzer implements Rule {
                 input.rest(lexeme.length()), executor);
     }
 
+    @Override
+    public int analyze(final SourceCode input, final int offset, final AnalysisBuilder builder) {
+        if (!input.hasAtLeast(offset + lexeme.length())) {
+            return FAILED;
+        }
+        for (int i = 0; i < lexeme.length(); i++) {
+            if (!charCompare.isEqual(lexeme.charAt(i), input.charAt(offset + i))) {
+                return FAILED;
+            }
+        }
+        builder.success(executor, null);
+        return offset + lexeme.length();
+    }
+
+    public String getLexeme() {
+        return lexeme;
+    }
+
+    public CharCompare getCharCompare() {
+        return charCompare;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public FirstSet firstSet() {
+        if (lexeme.isEmpty()) {
+            return FirstSet.NULLABLE;
+        }
+        final char first = lexeme.charAt(0);
+        return FirstSet.matching(ch -> charCompare.isEqual(first, ch));
+    }
+
     @Override
     public String toString() {
         return (lexeme);
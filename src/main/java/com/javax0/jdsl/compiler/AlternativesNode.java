@@ -0,0 +1,48 @@
+package com.javax0.jdsl.compiler;
+
+/**
+ * Compiled {@link com.javax0.jdsl.analyzers.AlternativesAnalyzer}. The
+ * alternatives that can not start with the next character are not tried.
+ */
+final class AlternativesNode extends Node {
+    static final int DISPATCH_TABLE_SIZE = 128;
+    Node[] alternatives;
+    /**
+     * {@code true} for the alternatives whose success is ignored, these are
+     * the compiled {@link com.javax0.jdsl.analyzers.NullAnalyzer}s.
+     */
+    boolean[] ignored;
+    /**
+     * The indexes of the alternatives for each ASCII character.
+     */
+    int[][] dispatchTable;
+    private int[] all;
+
+    void setAlternatives(final Node[] alternatives, final boolean[] ignored, final int[][] dispatchTable) {
+        this.alternatives = alternatives;
+        this.ignored = ignored;
+        this.dispatchTable = dispatchTable;
+        this.all = new int[alternatives.length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+    }
+
+    @Override
+    int match(final Frame frame, final int position) {
+        int[] candidates = all;
+        if (position < frame.limit) {
+            final char ch = frame.chars[position];
+            if (ch < DISPATCH_TABLE_SIZE) {
+                candidates = dispatchTable[ch];
+            }
+        }
+        for (final int i : candidates) {
+            final int end = alternatives[i].match(frame, position);
+            if (end != FAILED && !ignored[i]) {
+                return end;
+            }
+        }
+        return FAILED;
+    }
+}
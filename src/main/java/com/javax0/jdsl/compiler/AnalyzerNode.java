@@ -0,0 +1,25 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.OffsetAnalyzer;
+
+/**
+ * Node that calls an analyzer the compiler does not know, e.g. the number and
+ * the string analyzers or the analyzers of the application. The analyzers
+ * implementing {@link OffsetAnalyzer} analyze the input at the offset of the
+ * position and pass their results to the builder of the frame, any other
+ * analyzer gets the rest of the input starting at the position.
+ */
+final class AnalyzerNode extends Node {
+    private final Analyzer analyzer;
+
+    AnalyzerNode(final Analyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    @Override
+    int match(final Frame frame, final int position) {
+        final int end = OffsetAnalyzer.analyze(analyzer, frame.input, position - frame.offset, frame.builder);
+        return end == OffsetAnalyzer.FAILED ? FAILED : frame.offset + end;
+    }
+}
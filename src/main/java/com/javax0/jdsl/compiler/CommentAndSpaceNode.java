@@ -0,0 +1,20 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.CommentAndSpaceSkippingAnalyzer;
+
+/**
+ * Compiled {@link CommentAndSpaceSkippingAnalyzer}, it scans the characters of
+ * the frame.
+ */
+final class CommentAndSpaceNode extends Node {
+    private final CommentAndSpaceSkippingAnalyzer analyzer;
+
+    CommentAndSpaceNode(final CommentAndSpaceSkippingAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    @Override
+    int match(final Frame frame, final int position) {
+        return frame.matched(analyzer.skip(frame.chars, position, frame.limit), null, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.CharArraySourceCode;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.Rule;
+import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+
+/**
+ * Analyzer created by {@link GrammarCompiler}. It analyzes the inputs that
+ * hold their characters in the memory, {@link StringSourceCode} and
+ * {@link CharArraySourceCode}, using the compiled nodes. Other inputs, for
+ * example the ones reading a stream, are analyzed by the original analyzer.
+ * The nodes work on the array the input is backed by, the characters are not
+ * copied.
+ */
+public final class CompiledGrammar implements Rule, FirstSet.Provider {
+    private final Analyzer analyzer;
+    private final Node root;
+
+    CompiledGrammar(final Analyzer analyzer, final Node root) {
+        this.analyzer = analyzer;
+        this.root = root;
+    }
+
+    /**
+     * @return the analyzer that was compiled
+     */
+    public Analyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    @Override
+    public AnalysisResult analyze(final SourceCode input) {
+        if (!(input instanceof StringSourceCode) && !(input instanceof CharArraySourceCode)) {
+            return analyzer.analyze(input);
+        }
+        final char[] array = input.array();
+        final Frame frame = array == null ? new Frame(input, input.toString().toCharArray(), 0)
+                : new Frame(input, array, input.arrayOffset());
+        final int end = root.match(frame, frame.offset);
+        if (end == Node.FAILED) {
+            return SimpleAnalysisResult.failed(CompiledGrammar.class);
+        }
+        return SimpleAnalysisResult.success(CompiledGrammar.class, frame.rest(end),
+                frame.builder.getExecutor(), frame.builder.getState());
+    }
+
+    @Override
+    public FirstSet firstSet() {
+        return FirstSet.of(analyzer);
+    }
+
+    @Override
+    public String toString() {
+        return analyzer.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.javax0.jdsl.compiler;
+
+/**
+ * Compiled {@link com.javax0.jdsl.analyzers.PassThroughAnalyzer}. The target
+ * is set after the node is created, because the underlying rule usually
+ * refers back to the node.
+ */
+final class DelegateNode extends Node {
+    Node target;
+
+    @Override
+    int match(final Frame frame, final int position) {
+        return target.match(frame, position);
+    }
+}
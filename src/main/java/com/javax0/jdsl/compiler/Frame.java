@@ -0,0 +1,66 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.SpaceIgnoringAnalyzer;
+import com.javax0.jdsl.analyzers.State;
+import com.javax0.jdsl.executors.Executor;
+
+/**
+ * The data of one analysis performed by a compiled grammar: the input and its
+ * characters, and the {@link AnalysisBuilder} that holds the executor and the
+ * state of the last successful match.
+ * <p>
+ * The characters are usually the array the input is backed by (see
+ * {@link SourceCode#array()}), which may contain characters before and after
+ * the input. The positions the nodes work with are indexes in this array, the
+ * input starts at {@code offset} and ends before {@code limit}.
+ * <p>
+ * The lists and the sequences collect the executors and the states of their
+ * elements on the stack of the builder, the same way as the offset based
+ * analyzers do (see {@link com.javax0.jdsl.analyzers.OffsetAnalyzer}), thus a
+ * failing match does not allocate anything.
+ */
+final class Frame {
+    final SourceCode input;
+    final char[] chars;
+    final int offset;
+    final int limit;
+    final AnalysisBuilder builder = new AnalysisBuilder();
+
+    Frame(final SourceCode input, final char[] chars, final int offset) {
+        this.input = input;
+        this.chars = chars;
+        this.offset = offset;
+        this.limit = offset + input.length();
+    }
+
+    /**
+     * @return the input starting at the position
+     */
+    SourceCode rest(final int position) {
+        return position == offset ? input : input.rest(position - offset);
+    }
+
+    /**
+     * Set the executor and the state of the match and return the position.
+     */
+    int matched(final int position, final Executor executor, final State state) {
+        builder.success(executor, state);
+        return position;
+    }
+
+    /**
+     * Create the executor and the state of a list or sequence match from the
+     * results pushed to the stack of the builder since the mark, and remove
+     * them from the stack.
+     *
+     * @return the position
+     */
+    int matched(final int position, final SpaceIgnoringAnalyzer analyzer, final int mark) {
+        final Executor executor = analyzer.createExecutor(builder.executors(mark));
+        final State state = builder.state(mark);
+        builder.reset(mark);
+        return matched(position, executor, state);
+    }
+}
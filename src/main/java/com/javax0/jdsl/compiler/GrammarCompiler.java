@@ -0,0 +1,196 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.AlternativesAnalyzer;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.CommentAndSpaceSkippingAnalyzer;
+import com.javax0.jdsl.analyzers.FirstSet;
+import com.javax0.jdsl.analyzers.ListAnalyzer;
+import com.javax0.jdsl.analyzers.MemoizingAnalyzer;
+import com.javax0.jdsl.analyzers.NoExecutorListAnalyzer;
+import com.javax0.jdsl.analyzers.NullAnalyzer;
+import com.javax0.jdsl.analyzers.PassThroughAnalyzer;
+import com.javax0.jdsl.analyzers.SequenceAnalyzer;
+import com.javax0.jdsl.analyzers.SpaceIgnoringAnalyzer;
+import com.javax0.jdsl.analyzers.WhiteSpaceSkippingAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.KeywordSetAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
+import com.javax0.jdsl.executors.Executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles the analyzers of a grammar into a tree of nodes that analyze the
+ * characters of the input in an array using integer positions. The compiled
+ * grammar does not create a new source code object and an analysis result for
+ * each analyzer call, the lists and the sequences collect the executors and the
+ * states on a stack shared by the whole analysis, and the alternatives, the
+ * terminal symbols and the white space skipping are specialized nodes without
+ * the reporting calls.
+ * <p>
+ * The results, the executors and the states are the same as the ones created
+ * by the original analyzers. The list, sequence, alternatives, pass through,
+ * memoizing, terminal symbol, keyword set and white space skipping analyzers
+ * are compiled. Any other analyzer, e.g. the number, string and identifier
+ * analyzers, is called at the offset of the position if it implements
+ * {@link com.javax0.jdsl.analyzers.OffsetAnalyzer}, and with the rest of the
+ * input otherwise.
+ * <p>
+ * The reporters are not called by the compiled nodes, use the original grammar
+ * to debug or profile the analysis.
+ * <p>
+ * {@link com.javax0.jdsl.GrammarDefinition#compile()} compiles the grammar when
+ * it is built.
+ */
+public final class GrammarCompiler {
+    private final Map<Analyzer, Node> nodes = new IdentityHashMap<>();
+
+    private GrammarCompiler() {
+    }
+
+    /**
+     * Compile the analyzer and all the analyzers it uses. The analyzers have
+     * to be fully defined.
+     *
+     * @param analyzer the root analyzer of the grammar
+     * @return the compiled grammar
+     * @throws IllegalArgumentException if there is an analyzer created by
+     *                                  {@link com.javax0.jdsl.GrammarDefinition#later()}
+     *                                  that was not defined
+     */
+    public static CompiledGrammar compile(final Analyzer analyzer) {
+        return new CompiledGrammar(analyzer, new GrammarCompiler().node(analyzer));
+    }
+
+    private Node node(final Analyzer analyzer) {
+        Node node = nodes.get(analyzer);
+        if (node == null) {
+            node = create(analyzer);
+        }
+        return node;
+    }
+
+    private Node create(final Analyzer analyzer) {
+        final Class<?> klass = analyzer.getClass();
+        if (klass == PassThroughAnalyzer.class) {
+            final PassThroughAnalyzer passThrough = (PassThroughAnalyzer) analyzer;
+            if (!passThrough.isDefined()) {
+                throw new IllegalArgumentException("Delayed defined analyzer " + passThrough + " was not defined");
+            }
+            final DelegateNode node = new DelegateNode();
+            nodes.put(analyzer, node);
+            node.target = node(passThrough.getUnderlyingAnalyzer());
+            return node;
+        }
+        if (klass == MemoizingAnalyzer.class || klass == MemoizingAnalyzer.Delayed.class) {
+            final MemoizingAnalyzer memoizing = (MemoizingAnalyzer) analyzer;
+            final MemoNode node = new MemoNode(memoizing.getId());
+            nodes.put(analyzer, node);
+            node.underlying = node(memoizing.getUnderlyingAnalyzer());
+            return node;
+        }
+        if (klass == ListAnalyzer.class || klass == NoExecutorListAnalyzer.class) {
+            final ListAnalyzer list = (ListAnalyzer) analyzer;
+            final ListNode node = new ListNode(list);
+            nodes.put(analyzer, node);
+            node.skip = skip(list);
+            node.elements = nodes(list.getAnalyzerList());
+            return node;
+        }
+        if (klass == SequenceAnalyzer.class) {
+            final SequenceAnalyzer sequence = (SequenceAnalyzer) analyzer;
+            final SequenceNode node = new SequenceNode(sequence);
+            nodes.put(analyzer, node);
+            node.skip = skip(sequence);
+            node.element = node(sequence.getAnalyzer());
+            return node;
+        }
+        if (klass == AlternativesAnalyzer.class) {
+            final AlternativesNode node = new AlternativesNode();
+            nodes.put(analyzer, node);
+            final List<Analyzer> alternatives = ((AlternativesAnalyzer) analyzer).getAnalyzerList();
+            final boolean[] ignored = new boolean[alternatives.size()];
+            for (int i = 0; i < ignored.length; i++) {
+                ignored[i] = alternatives.get(i) instanceof NullAnalyzer;
+            }
+            node.setAlternatives(nodes(alternatives), ignored, dispatchTable(alternatives));
+            return node;
+        }
+        if (klass == KeywordSetAnalyzer.class) {
+            return keywordSet((KeywordSetAnalyzer) analyzer);
+        }
+        if (klass == TerminalSymbolAnalyzer.class) {
+            final TerminalSymbolAnalyzer terminal = (TerminalSymbolAnalyzer) analyzer;
+            final Node node = new TerminalNode(terminal.getLexeme(), terminal.getCharCompare(), terminal.getExecutor());
+            nodes.put(analyzer, node);
+            return node;
+        }
+        final Node node;
+        if (klass == WhiteSpaceSkippingAnalyzer.class) {
+            node = new WhiteSpaceNode();
+        } else if (klass == CommentAndSpaceSkippingAnalyzer.class) {
+            node = new CommentAndSpaceNode((CommentAndSpaceSkippingAnalyzer) analyzer);
+        } else {
+            node = new AnalyzerNode(analyzer);
+        }
+        nodes.put(analyzer, node);
+        return node;
+    }
+
+    private Node skip(final SpaceIgnoringAnalyzer analyzer) {
+        return analyzer.getSkippingAnalyzer() == null ? null : node(analyzer.getSkippingAnalyzer());
+    }
+
+    private Node[] nodes(final List<Analyzer> analyzers) {
+        final Node[] result = new Node[analyzers.size()];
+        int i = 0;
+        for (final Analyzer analyzer : analyzers) {
+            result[i++] = node(analyzer);
+        }
+        return result;
+    }
+
+    /**
+     * A keyword set is compiled to alternatives of terminal symbols, which it
+     * replaced when the grammar was defined.
+     */
+    private Node keywordSet(final KeywordSetAnalyzer keywordSet) {
+        final String[] lexemes = keywordSet.getLexemes();
+        final Executor[] executors = keywordSet.getExecutors();
+        final TerminalSymbolAnalyzer.CharCompare charCompare = keywordSet.isCaseInsensitive()
+                ? TerminalSymbolAnalyzer.CharCompare.caseInsensitive
+                : TerminalSymbolAnalyzer.CharCompare.caseSensitive;
+        final List<Analyzer> terminals = new ArrayList<>();
+        final Node[] alternatives = new Node[lexemes.length];
+        for (int i = 0; i < lexemes.length; i++) {
+            terminals.add(new TerminalSymbolAnalyzer(lexemes[i], charCompare));
+            alternatives[i] = new TerminalNode(lexemes[i], charCompare, executors[i]);
+        }
+        final AlternativesNode node = new AlternativesNode();
+        nodes.put(keywordSet, node);
+        node.setAlternatives(alternatives, new boolean[lexemes.length], dispatchTable(terminals));
+        return node;
+    }
+
+    private static int[][] dispatchTable(final List<Analyzer> alternatives) {
+        final List<FirstSet> firstSets = new ArrayList<>();
+        for (final Analyzer analyzer : alternatives) {
+            firstSets.add(FirstSet.of(analyzer));
+        }
+        final int[][] table = new int[AlternativesNode.DISPATCH_TABLE_SIZE][];
+        final int[] candidates = new int[alternatives.size()];
+        for (char ch = 0; ch < table.length; ch++) {
+            int count = 0;
+            for (int i = 0; i < candidates.length; i++) {
+                if (firstSets.get(i).mayStartWith(ch)) {
+                    candidates[count++] = i;
+                }
+            }
+            table[ch] = Arrays.copyOf(candidates, count);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,38 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
+import com.javax0.jdsl.analyzers.SpaceIgnoringAnalyzer;
+
+/**
+ * Compiled {@link com.javax0.jdsl.analyzers.ListAnalyzer}.
+ */
+final class ListNode extends Node {
+    private final SpaceIgnoringAnalyzer analyzer;
+    Node skip;
+    Node[] elements;
+
+    ListNode(final SpaceIgnoringAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    @Override
+    int match(final Frame frame, int position) {
+        final AnalysisBuilder builder = frame.builder;
+        final int mark = builder.mark();
+        position = skip(skip, frame, position);
+        for (final Node element : elements) {
+            position = element.match(frame, position);
+            if (position == FAILED) {
+                builder.reset(mark);
+                return FAILED;
+            }
+            builder.push();
+            position = skip(skip, frame, position);
+        }
+        return frame.matched(position, analyzer, mark);
+    }
+
+    static int skip(final Node skip, final Frame frame, final int position) {
+        return skip == null ? position : skip.match(frame, position);
+    }
+}
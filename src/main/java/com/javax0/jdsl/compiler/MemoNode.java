@@ -0,0 +1,86 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.MemoTable;
+import com.javax0.jdsl.analyzers.MemoizingAnalyzer;
+import com.javax0.jdsl.analyzers.SimpleAnalysisResult;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.State;
+import com.javax0.jdsl.executors.Executor;
+
+/**
+ * Compiled {@link MemoizingAnalyzer}. It uses the memo table of the current
+ * analysis the same way as the memoizing analyzer does.
+ */
+final class MemoNode extends Node {
+    private final int id;
+    Node underlying;
+
+    MemoNode(final int id) {
+        this.id = id;
+    }
+
+    @Override
+    int match(final Frame frame, final int position) {
+        final MemoTable memoTable = MemoTable.current();
+        final int remaining = frame.limit - position;
+        if (memoTable == null) {
+            return underlying.match(frame, position);
+        }
+        final AnalysisResult memoized = memoTable.get(id, remaining);
+        if (memoized != null) {
+            if (!memoized.wasSuccessful()) {
+                return FAILED;
+            }
+            final int memoizedRemaining = memoized instanceof Match ? ((Match) memoized).remaining
+                    : memoized.remainingSourceCode().length();
+            return frame.matched(frame.limit - memoizedRemaining, memoized.getExecutor(), memoized.getState());
+        }
+        final int end = underlying.match(frame, position);
+        if (end == FAILED) {
+            memoTable.put(id, remaining, SimpleAnalysisResult.failed(MemoizingAnalyzer.class));
+        } else {
+            memoTable.put(id, remaining, new Match(frame, end));
+        }
+        return end;
+    }
+
+    /**
+     * A successful match stored in the memo table. It holds the number of
+     * the remaining characters and creates the remaining source code only if
+     * it is asked for.
+     */
+    private static final class Match implements AnalysisResult {
+        private final Frame frame;
+        private final int remaining;
+        private final Executor executor;
+        private final State state;
+
+        private Match(final Frame frame, final int end) {
+            this.frame = frame;
+            this.remaining = frame.limit - end;
+            this.executor = frame.builder.getExecutor();
+            this.state = frame.builder.getState();
+        }
+
+        @Override
+        public boolean wasSuccessful() {
+            return true;
+        }
+
+        @Override
+        public SourceCode remainingSourceCode() {
+            return frame.rest(frame.limit - remaining);
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        @Override
+        public State getState() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.javax0.jdsl.compiler;
+
+/**
+ * A node of a compiled grammar. Nodes work on the position in the characters
+ * of the input instead of creating new source code objects.
+ */
+abstract class Node {
+    static final int FAILED = -1;
+
+    /**
+     * Match the input starting at the position.
+     *
+     * @return the position after the matched characters, or {@link #FAILED}.
+     * When the match is successful the executor and the state of the match
+     * are in the frame.
+     */
+    abstract int match(Frame frame, int position);
+}
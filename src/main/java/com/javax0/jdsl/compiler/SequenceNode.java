@@ -0,0 +1,43 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.AnalysisBuilder;
+import com.javax0.jdsl.analyzers.SequenceAnalyzer;
+
+/**
+ * Compiled {@link SequenceAnalyzer}.
+ */
+final class SequenceNode extends Node {
+    private final SequenceAnalyzer analyzer;
+    private final int minRepetition;
+    private final int maxRepetition;
+    Node skip;
+    Node element;
+
+    SequenceNode(final SequenceAnalyzer analyzer) {
+        this.analyzer = analyzer;
+        this.minRepetition = analyzer.getMinRepetition();
+        this.maxRepetition = analyzer.getMaxRepetition();
+    }
+
+    @Override
+    int match(final Frame frame, int position) {
+        final AnalysisBuilder builder = frame.builder;
+        final int mark = builder.mark();
+        position = ListNode.skip(skip, frame, position);
+        int i = 0;
+        while (maxRepetition == SequenceAnalyzer.INFINITE || i < maxRepetition) {
+            final int next = element.match(frame, position);
+            if (next == FAILED) {
+                if (i < minRepetition) {
+                    builder.reset(mark);
+                    return FAILED;
+                }
+                break;
+            }
+            builder.push();
+            position = ListNode.skip(skip, frame, next);
+            i++;
+        }
+        return frame.matched(position, analyzer, mark);
+    }
+}
@@ -0,0 +1,45 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
+import com.javax0.jdsl.executors.Executor;
+
+/**
+ * Compiled {@link TerminalSymbolAnalyzer}.
+ */
+final class TerminalNode extends Node {
+    private final char[] lexeme;
+    private final TerminalSymbolAnalyzer.CharCompare charCompare;
+    private final boolean caseSensitive;
+    private final Executor executor;
+
+    TerminalNode(final String lexeme, final TerminalSymbolAnalyzer.CharCompare charCompare,
+                 final Executor executor) {
+        this.lexeme = lexeme.toCharArray();
+        this.charCompare = charCompare;
+        this.caseSensitive = charCompare == TerminalSymbolAnalyzer.CharCompare.caseSensitive;
+        this.executor = executor;
+    }
+
+    @Override
+    int match(final Frame frame, final int position) {
+        final int end = position + lexeme.length;
+        if (end > frame.limit) {
+            return FAILED;
+        }
+        final char[] chars = frame.chars;
+        if (caseSensitive) {
+            for (int i = 0; i < lexeme.length; i++) {
+                if (lexeme[i] != chars[position + i]) {
+                    return FAILED;
+                }
+            }
+        } else {
+            for (int i = 0; i < lexeme.length; i++) {
+                if (!charCompare.isEqual(lexeme[i], chars[position + i])) {
+                    return FAILED;
+                }
+            }
+        }
+        return frame.matched(end, executor, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.javax0.jdsl.compiler;
+
+/**
+ * Compiled {@link com.javax0.jdsl.analyzers.WhiteSpaceSkippingAnalyzer}.
+ */
+final class WhiteSpaceNode extends Node {
+
+    @Override
+    int match(final Frame frame, int position) {
+        final char[] chars = frame.chars;
+        while (position < frame.limit && Character.isWhitespace(chars[position])) {
+            position++;
+        }
+        return frame.matched(position, null, null);
+    }
+}
@@ -8,17 +8,80 @@ import java.util.List;
  * <p>
  * It is recommended that list executors extend this class instead of
  * implementing the interface directly.
+ * <p>
+ * The executors in the list that extend this class know the list executor
+ * they are in, and they can replace themselves in the list calling
+ * {@link #replaceWith(Executor)}. This way an executor can rewrite the tree
+ * during the execution, for example to specialize itself for the types of
+ * the values it gets (see {@link BinaryOperationExecutor}).
  */
 public abstract class AbstractListExecutor implements ListExecutor {
 
     protected List<Executor> executorList;
 
+    private AbstractListExecutor parent;
+    private int indexInParent;
+
+    /**
+     * Set the executors. The executors are stored in an {@link ExecutorList},
+     * the list passed as argument is copied unless it is already an
+     * {@code ExecutorList}.
+     */
     @Override
     public ListExecutor withList(List<Executor> executorList) {
-        this.executorList = executorList;
+        this.executorList = executorList == null ? null : ExecutorList.of(executorList);
+        if (executorList != null) {
+            for (int i = 0; i < this.executorList.size(); i++) {
+                adopt(this.executorList.get(i), i);
+            }
+        }
         return this;
     }
 
+    private void adopt(final Executor executor, final int index) {
+        if (executor instanceof AbstractListExecutor) {
+            final AbstractListExecutor child = (AbstractListExecutor) executor;
+            child.parent = this;
+            child.indexInParent = index;
+        }
+    }
+
+    /**
+     * Replace this executor in the list of the list executor it is in. The
+     * parent executor executes the replacement from the next execution on.
+     * If this executor is not in the list of an {@link AbstractListExecutor}
+     * (for example it is the root of the executor tree) then nothing is
+     * replaced.
+     * <p>
+     * The replacement is not synchronized. When the same tree is executed by
+     * more threads then the threads may replace the executor more than once,
+     * each replacement has to be correct on its own.
+     *
+     * @param replacement the new executor
+     * @return {@code true} if this executor was replaced
+     */
+    protected boolean replaceWith(final Executor replacement) {
+        if (!isReplaceable()) {
+            return false;
+        }
+        parent.setExecutor(indexInParent, replacement);
+        return true;
+    }
+
+    /**
+     * @return {@code true} if this executor is in the list of the list
+     * executor it is in, thus {@link #replaceWith(Executor)} would replace it.
+     * Executors call it to avoid creating a replacement that can not be used.
+     */
+    protected boolean isReplaceable() {
+        return parent != null && parent.executorList.get(indexInParent) == this;
+    }
+
+    private void setExecutor(final int i, final Executor executor) {
+        executorList.set(i, executor);
+        adopt(executor, i);
+    }
+
     /**
      * Get the i-th executor. Throws exception if index 'i' is out of bounds.
      */
@@ -32,4 +95,29 @@ public abstract class AbstractListExecutor implements ListExecutor {
     public int numberOfExecutors() {
         return executorList.size();
     }
+
+    /**
+     * Execute the i-th executor and get the result as a {@code long} without
+     * boxing when the executor is a {@link LongExecutor}.
+     */
+    public long executeLong(int i, Context context) {
+        return LongExecutor.longValue(executorList.get(i), context);
+    }
+
+    /**
+     * Execute the i-th executor and get the result as a {@code double} without
+     * boxing when the executor is a {@link DoubleExecutor} or a
+     * {@link LongExecutor}.
+     */
+    public double executeDouble(int i, Context context) {
+        return DoubleExecutor.doubleValue(executorList.get(i), context);
+    }
+
+    /**
+     * Execute the i-th executor and get the result as a {@code boolean} without
+     * boxing when the executor is a {@link BooleanExecutor}.
+     */
+    public boolean executeBoolean(int i, Context context) {
+        return BooleanExecutor.booleanValue(executorList.get(i), context);
+    }
 }
@@ -0,0 +1,244 @@
+package com.javax0.jdsl.executors;
+
+import java.util.List;
+
+/**
+ * A list executor that applies a binary operation to the results of the first
+ * and the last executor of its list, and specializes itself to the types of
+ * the values it gets. An executor between the two operands, usually the
+ * executor of the operator symbol, is not executed.
+ * <p>
+ * The first execution looks at the types of the operands and replaces the
+ * executor in the list of its parent (see
+ * {@link AbstractListExecutor#replaceWith(Executor)}) with an executor
+ * specialized for
+ * <ul>
+ * <li>two {@code Long} operands, which is a {@link LongExecutor} and gets
+ * the operands without boxing from {@link LongExecutor} children,</li>
+ * <li>two {@code Double} operands, which is a {@link DoubleExecutor}, or</li>
+ * <li>any operands, which checks the types on every execution.</li>
+ * </ul>
+ * A specialized executor getting operands of other types replaces itself with
+ * the generic executor and never specializes again. This way the executors of
+ * a script that always calculates with the same types do not check the types
+ * of the operands.
+ * <p>
+ * An executor without an {@link AbstractListExecutor} parent can not be
+ * replaced, it checks the types of the operands on every execution. The same
+ * is true for an executor that was already replaced in the list of its parent
+ * but is still executed, for example by a tree compiled by
+ * {@link ExecutorCompiler}: the compiled tree calls the executors it was
+ * compiled from and does not see the replacements. Such executors do not
+ * create a new specialized executor on each execution. A specialized executor
+ * in a compiled tree that gets operands of other types calculates the result
+ * through the generic operation on every execution, thus trees that are
+ * compiled should be compiled before they are executed or after they were
+ * executed with all the types they will get.
+ * <p>
+ * The tree can be executed by more threads at the same time. The specialized
+ * executors get their operands in the constructor and keep them in
+ * {@code final} fields, thus they are safely published even though the
+ * replacement is not synchronized.
+ * <p>
+ * The generic execution applies {@link Operation#applyLong(long, long)} for
+ * two {@code Long} operands, {@link Operation#applyDouble(double, double)}
+ * when both operands are numbers and
+ * {@link Operation#applyGeneric(Object, Object)} otherwise.
+ */
+public class BinaryOperationExecutor extends AbstractListExecutor {
+
+    /**
+     * The operation applied to the operands in the different specializations.
+     * The implementations have to return the same results for the same values
+     * independent of the types used to pass them, for example
+     * {@code applyLong(a, b)} and {@code applyGeneric((Long) a, (Long) b)}.
+     */
+    public interface Operation {
+        long applyLong(long a, long b);
+
+        double applyDouble(double a, double b);
+
+        /**
+         * Apply the operation to operands that are not both numbers.
+         *
+         * @param a the left operand
+         * @param b the right operand
+         * @return the result
+         */
+        default Object applyGeneric(final Object a, final Object b) {
+            throw new IllegalArgumentException("The operation can not be applied to " + a + " and " + b);
+        }
+    }
+
+    private final Operation operation;
+
+    public BinaryOperationExecutor(final Operation operation) {
+        this.operation = operation;
+    }
+
+    @Override
+    public Object execute(final Context context) {
+        final Object a = left(executorList).execute(context);
+        final Object b = right(executorList).execute(context);
+        if (!isReplaceable()) {
+            return applyGeneric(operation, a, b);
+        }
+        final Specialized specialized;
+        if (a instanceof Long && b instanceof Long) {
+            specialized = new LongOperands(operation, executorList);
+        } else if (a instanceof Double && b instanceof Double) {
+            specialized = new DoubleOperands(operation, executorList);
+        } else {
+            specialized = new GenericOperands(operation, executorList);
+        }
+        replaceWith(specialized);
+        return applyGeneric(operation, a, b);
+    }
+
+    private static Executor left(final List<Executor> operands) {
+        return operands.get(0);
+    }
+
+    private static Executor right(final List<Executor> operands) {
+        return operands.get(operands.size() - 1);
+    }
+
+    private static Object applyGeneric(final Operation operation, final Object a, final Object b) {
+        if (a instanceof Long && b instanceof Long) {
+            return operation.applyLong((Long) a, (Long) b);
+        }
+        if (a instanceof Number && b instanceof Number) {
+            return operation.applyDouble(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        return operation.applyGeneric(a, b);
+    }
+
+    /**
+     * An executor specialized for the types of the operands. The replacement
+     * is put into the list of the parent without synchronization, the
+     * operation and the operands are {@code final} fields, thus another thread
+     * executing the parent sees them set even if it sees the replacement
+     * before this thread finished the replacement.
+     */
+    private abstract static class Specialized extends AbstractListExecutor {
+        final Operation operation;
+        final List<Executor> operands;
+
+        private Specialized(final Operation operation, final List<Executor> operands) {
+            this.operation = operation;
+            withList(operands);
+            this.operands = executorList;
+        }
+
+        /**
+         * Replace the specialized executor with the generic one and calculate
+         * the result of the operands that did not match the specialization.
+         */
+        Object deoptimize(final Object a, final Object b) {
+            if (isReplaceable()) {
+                replaceWith(new GenericOperands(operation, operands));
+            }
+            return applyGeneric(operation, a, b);
+        }
+    }
+
+    private static final class LongOperands extends Specialized implements LongExecutor {
+
+        private LongOperands(final Operation operation, final List<Executor> operands) {
+            super(operation, operands);
+        }
+
+        private static long expectLong(final Executor executor, final Context context) {
+            if (executor instanceof LongExecutor) {
+                return ((LongExecutor) executor).executeLong(context);
+            }
+            final Object value = executor.execute(context);
+            if (value instanceof Long) {
+                return (Long) value;
+            }
+            throw new UnexpectedResultException(value);
+        }
+
+        @Override
+        public long executeLong(final Context context) {
+            final long a;
+            try {
+                a = expectLong(left(operands), context);
+            } catch (UnexpectedResultException e) {
+                throw new UnexpectedResultException(deoptimize(e.getResult(), right(operands).execute(context)));
+            }
+            final long b;
+            try {
+                b = expectLong(right(operands), context);
+            } catch (UnexpectedResultException e) {
+                throw new UnexpectedResultException(deoptimize(a, e.getResult()));
+            }
+            return operation.applyLong(a, b);
+        }
+
+        @Override
+        public Object execute(final Context context) {
+            try {
+                return executeLong(context);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    private static final class DoubleOperands extends Specialized implements DoubleExecutor {
+
+        private DoubleOperands(final Operation operation, final List<Executor> operands) {
+            super(operation, operands);
+        }
+
+        private static double expectDouble(final Executor executor, final Context context) {
+            if (executor instanceof DoubleExecutor) {
+                return ((DoubleExecutor) executor).executeDouble(context);
+            }
+            final Object value = executor.execute(context);
+            if (value instanceof Double) {
+                return (Double) value;
+            }
+            throw new UnexpectedResultException(value);
+        }
+
+        @Override
+        public double executeDouble(final Context context) {
+            final double a;
+            try {
+                a = expectDouble(left(operands), context);
+            } catch (UnexpectedResultException e) {
+                throw new UnexpectedResultException(deoptimize(e.getResult(), right(operands).execute(context)));
+            }
+            final double b;
+            try {
+                b = expectDouble(right(operands), context);
+            } catch (UnexpectedResultException e) {
+                throw new UnexpectedResultException(deoptimize(a, e.getResult()));
+            }
+            return operation.applyDouble(a, b);
+        }
+
+        @Override
+        public Object execute(final Context context) {
+            try {
+                return executeDouble(context);
+            } catch (UnexpectedResultException e) {
+                return e.getResult();
+            }
+        }
+    }
+
+    private static final class GenericOperands extends Specialized {
+
+        private GenericOperands(final Operation operation, final List<Executor> operands) {
+            super(operation, operands);
+        }
+
+        @Override
+        public Object execute(final Context context) {
+            return applyGeneric(operation, left(operands).execute(context), right(operands).execute(context));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * An executor that calculates a {@code boolean} value without boxing it. See
+ * {@link LongExecutor}.
+ */
+public interface BooleanExecutor extends Executor {
+    boolean executeBoolean(Context context);
+
+    @Override
+    default Object execute(final Context context) {
+        return executeBoolean(context);
+    }
+
+    /**
+     * Execute the executor and get the result as a {@code boolean}. If the
+     * executor is a {@link BooleanExecutor} then the value is not boxed,
+     * otherwise the result of the executor has to be a {@link Boolean}. The
+     * result of an {@link UnexpectedResultException} thrown by the executor
+     * is converted the same way.
+     *
+     * @param executor the executor to execute
+     * @param context  the context of the execution
+     * @return the result of the executor
+     */
+    static boolean booleanValue(final Executor executor, final Context context) {
+        if (executor instanceof BooleanExecutor) {
+            try {
+                return ((BooleanExecutor) executor).executeBoolean(context);
+            } catch (UnexpectedResultException e) {
+                return (Boolean) e.getResult();
+            }
+        }
+        return (Boolean) executor.execute(context);
+    }
+}
@@ -0,0 +1,20 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * A terminal symbol executor holding a {@code boolean} value. It returns the value
+ * without boxing when it is executed as a {@link BooleanExecutor}, and the boxed
+ * value created during the analysis when {@link #execute(Context)} is called.
+ */
+public final class BooleanTerminalSymbolExecutor extends TerminalSymbolExecutor<Boolean> implements BooleanExecutor {
+    private final boolean value;
+
+    public BooleanTerminalSymbolExecutor(final boolean value) {
+        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public boolean executeBoolean(final Context context) {
+        return value;
+    }
+}
@@ -0,0 +1,37 @@
+package com.javax0.jdsl.executors;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * An executor that can describe its execution as a method handle, so that
+ * {@link ExecutorCompiler} can compile it together with the underlying
+ * executors into one method handle chain.
+ * <p>
+ * Executors that do not implement this interface are still compiled, but the
+ * compiled code calls their {@link #execute(Context)} method, and thus the
+ * executors below them are executed the interpreted way.
+ * <p>
+ * A list executor that adds two numbers can be implemented like
+ *
+ * <pre>
+ * public MethodHandle toMethodHandle(final ExecutorCompiler compiler) {
+ *     return compiler.apply(ADD, executorList);
+ * }
+ * </pre>
+ *
+ * where {@code ADD} is a method handle of a static method
+ * {@code long add(long a, long b)}.
+ */
+public interface CompilableExecutor extends Executor {
+    /**
+     * Create the method handle that executes this executor.
+     *
+     * @param compiler the compiler that can be used to compile the underlying
+     *                 executors, usually calling
+     *                 {@link ExecutorCompiler#apply(MethodHandle, java.util.List)}
+     * @return a method handle of the type
+     * {@link ExecutorCompiler#EXECUTE_TYPE} or a type that can be converted to
+     * it by {@link MethodHandle#asType(java.lang.invoke.MethodType)}
+     */
+    MethodHandle toMethodHandle(ExecutorCompiler compiler);
+}
@@ -0,0 +1,41 @@
+package com.javax0.jdsl.executors;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * An executor created by {@link ExecutorCompiler#compile(Executor)}. It
+ * executes the method handle that was compiled from the executor tree.
+ */
+public final class CompiledExecutor implements Executor {
+    private final MethodHandle methodHandle;
+    private final Executor source;
+
+    CompiledExecutor(final MethodHandle methodHandle, final Executor source) {
+        this.methodHandle = methodHandle;
+        this.source = source;
+    }
+
+    /**
+     * @return the method handle of the type {@link ExecutorCompiler#EXECUTE_TYPE}
+     * that executes the compiled executor tree
+     */
+    public MethodHandle getMethodHandle() {
+        return methodHandle;
+    }
+
+    @Override
+    public Object execute(final Context context) {
+        try {
+            return (Object) methodHandle.invokeExact(context);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(source);
+    }
+}
@@ -0,0 +1,77 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * Folds the constant subtrees of an executor tree after the analysis. A
+ * {@link Pure} list executor whose underlying executors are all constants
+ * ({@link TerminalSymbolExecutor}s) is executed once and replaced by a
+ * {@link TerminalSymbolExecutor} holding the result. The folding goes bottom
+ * up, thus {@code (2+1)*3} becomes the constant {@code 9} when the executors
+ * of the sum and the product are pure.
+ * <p>
+ * A {@link SimpleListExecutor} with a single executor in its list returns the
+ * result of that executor, thus it is replaced by the executor.
+ * <p>
+ * The folder can see the underlying executors of the executors extending
+ * {@link AbstractListExecutor}. The lists of these executors are replaced by
+ * lists holding the folded executors, the tree is modified in place. When a
+ * pure executor throws an exception or returns {@code null} during the folding
+ * it is left in the tree, so that the error happens during the execution as
+ * it would without folding.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * final Executor executor = ConstantFolder.fold(result.getExecutor());
+ * </pre>
+ */
+public final class ConstantFolder {
+
+    private ConstantFolder() {
+    }
+
+    /**
+     * Fold the constant subtrees of the executor tree.
+     *
+     * @param executor the root of the executor tree, may be {@code null}
+     * @return the executor to use instead of the root, which is either the
+     * root itself or a {@link TerminalSymbolExecutor} if the whole tree
+     * was constant
+     */
+    public static Executor fold(final Executor executor) {
+        if (!(executor instanceof AbstractListExecutor)) {
+            return executor;
+        }
+        final AbstractListExecutor listExecutor = (AbstractListExecutor) executor;
+        if (listExecutor.executorList == null) {
+            return executor;
+        }
+        final Executor[] folded = new Executor[listExecutor.numberOfExecutors()];
+        boolean constant = true;
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(listExecutor.executorList.get(i));
+            constant = constant && isConstant(folded[i]);
+        }
+        listExecutor.withList(ExecutorList.wrap(folded));
+        if (executor.getClass() == SimpleListExecutor.class && folded.length == 1 && folded[0] != null) {
+            return folded[0];
+        }
+        if (constant && executor instanceof Pure) {
+            return evaluate(executor);
+        }
+        return executor;
+    }
+
+    private static boolean isConstant(final Executor executor) {
+        return executor == null || TerminalSymbolExecutor.isConstant(executor);
+    }
+
+    private static Executor evaluate(final Executor executor) {
+        final Object value;
+        try {
+            value = executor.execute(null);
+        } catch (RuntimeException e) {
+            return executor;
+        }
+        return value == null ? executor : TerminalSymbolExecutor.of(value);
+    }
+}
@@ -0,0 +1,39 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * An executor that calculates a {@code double} value without boxing it. See
+ * {@link LongExecutor}.
+ */
+public interface DoubleExecutor extends Executor {
+    double executeDouble(Context context);
+
+    @Override
+    default Object execute(final Context context) {
+        return executeDouble(context);
+    }
+
+    /**
+     * Execute the executor and get the result as a {@code double}. If the
+     * executor is a {@link DoubleExecutor} or a {@link LongExecutor} then the
+     * value is not boxed, otherwise the result of the executor has to be a
+     * {@link Number}. The result of an {@link UnexpectedResultException}
+     * thrown by the executor is converted the same way.
+     *
+     * @param executor the executor to execute
+     * @param context  the context of the execution
+     * @return the result of the executor
+     */
+    static double doubleValue(final Executor executor, final Context context) {
+        try {
+            if (executor instanceof DoubleExecutor) {
+                return ((DoubleExecutor) executor).executeDouble(context);
+            }
+            if (executor instanceof LongExecutor) {
+                return ((LongExecutor) executor).executeLong(context);
+            }
+        } catch (UnexpectedResultException e) {
+            return ((Number) e.getResult()).doubleValue();
+        }
+        return ((Number) executor.execute(context)).doubleValue();
+    }
+}
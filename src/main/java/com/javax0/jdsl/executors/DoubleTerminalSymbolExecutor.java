@@ -0,0 +1,20 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * A terminal symbol executor holding a {@code double} value. It returns the value
+ * without boxing when it is executed as a {@link DoubleExecutor}, and the boxed
+ * value created during the analysis when {@link #execute(Context)} is called.
+ */
+public final class DoubleTerminalSymbolExecutor extends TerminalSymbolExecutor<Double> implements DoubleExecutor {
+    private final double value;
+
+    public DoubleTerminalSymbolExecutor(final double value) {
+        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public double executeDouble(final Context context) {
+        return value;
+    }
+}
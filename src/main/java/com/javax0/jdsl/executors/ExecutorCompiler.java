@@ -0,0 +1,181 @@
+package com.javax0.jdsl.executors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles a finished executor tree into a chain of method handles, so that a
+ * script analyzed once and executed many times does not walk the executor
+ * objects and the lists of the list executors on each execution.
+ * <p>
+ * The value of a {@link TerminalSymbolExecutor} becomes a constant in the
+ * chain, a {@link SimpleListExecutor} executes the compiled underlying
+ * executors directly. Executors implementing {@link CompilableExecutor} provide
+ * their own method handle, usually combining an operation with the compiled
+ * underlying executors calling {@link #apply(MethodHandle, List)}. Any other
+ * executor is called through its {@link Executor#execute(Context)} method.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * final Executor executor = ExecutorCompiler.compile(result.getExecutor());
+ * executor.execute(context);
+ * </pre>
+ * <p>
+ * The executor tree must not be modified after it was compiled. Executors that
+ * replace themselves in their parent during the execution (see
+ * {@link AbstractListExecutor#replaceWith(Executor)}) are still called by the
+ * compiled chain after the replacement, see {@link BinaryOperationExecutor}.
+ */
+public final class ExecutorCompiler {
+    /**
+     * The type of the method handles that execute an executor: they get the
+     * context and return the result of the execution.
+     */
+    public static final MethodType EXECUTE_TYPE = MethodType.methodType(Object.class, Context.class);
+
+    /**
+     * Simple list executors with more executors than this execute the
+     * compiled executors in a loop instead of combining them into one method
+     * handle. Method handles can not have more than 255 arguments and large
+     * lists would create huge chains.
+     */
+    static final int MAX_COMBINED_LIST_SIZE = 16;
+
+    private static final MethodHandle EXECUTE;
+    private static final MethodHandle LIST;
+    private static final MethodHandle EXECUTE_ALL;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            EXECUTE = lookup.findVirtual(Executor.class, "execute", EXECUTE_TYPE);
+            LIST = lookup.findStatic(ExecutorCompiler.class, "list",
+                    MethodType.methodType(Object.class, Object[].class));
+            EXECUTE_ALL = lookup.findStatic(ExecutorCompiler.class, "executeAll",
+                    MethodType.methodType(Object.class, MethodHandle[].class, Context.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ExecutorCompiler() {
+    }
+
+    /**
+     * Compile the executor tree.
+     *
+     * @param executor the root of the executor tree, usually the executor of
+     *                 an analysis result
+     * @return the compiled executor, or {@code null} if the executor was
+     * {@code null}
+     */
+    public static Executor compile(final Executor executor) {
+        if (executor == null || executor instanceof CompiledExecutor) {
+            return executor;
+        }
+        return new CompiledExecutor(new ExecutorCompiler().methodHandle(executor), executor);
+    }
+
+    /**
+     * Get the method handle that executes the executor.
+     *
+     * @param executor the executor to compile, may be {@code null}, the
+     *                 method handle of a {@code null} executor returns
+     *                 {@code null}
+     * @return a method handle of the type {@link #EXECUTE_TYPE}
+     */
+    public MethodHandle methodHandle(final Executor executor) {
+        if (executor == null) {
+            return constant(null);
+        }
+        if (executor instanceof CompiledExecutor) {
+            return ((CompiledExecutor) executor).getMethodHandle();
+        }
+        if (executor instanceof CompilableExecutor) {
+            final MethodHandle methodHandle = ((CompilableExecutor) executor).toMethodHandle(this);
+            try {
+                return methodHandle.asType(EXECUTE_TYPE);
+            } catch (WrongMethodTypeException e) {
+                throw new IllegalArgumentException("The executor " + executor.getClass().getName()
+                        + " returned a method handle of the type " + methodHandle.type(), e);
+            }
+        }
+        if (TerminalSymbolExecutor.isConstant(executor)) {
+            return constant(executor.execute(null));
+        }
+        if (executor.getClass() == SimpleListExecutor.class) {
+            return simpleList(((SimpleListExecutor) executor).executorList);
+        }
+        return EXECUTE.bindTo(executor);
+    }
+
+    /**
+     * Create a method handle that executes the executors one after the other
+     * and then invokes the operation passing the results of the executors as
+     * arguments.
+     * <p>
+     * The results are converted to the types of the parameters of the
+     * operation as {@link MethodHandle#asType(MethodType)} does, for example
+     * a {@code long} parameter gets the result unboxed. The result of the
+     * operation is boxed if it is primitive.
+     *
+     * @param operation the method handle to invoke with the results of the
+     *                  executors, it has to have one parameter for each
+     *                  executor
+     * @param executors the executors calculating the arguments
+     * @return a method handle of the type {@link #EXECUTE_TYPE}
+     */
+    public MethodHandle apply(final MethodHandle operation, final List<Executor> executors) {
+        final MethodType type = operation.type();
+        if (type.parameterCount() != executors.size()) {
+            throw new IllegalArgumentException("The operation " + type + " can not be applied to "
+                    + executors.size() + " executor(s)");
+        }
+        final MethodHandle[] filters = new MethodHandle[executors.size()];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = methodHandle(executors.get(i))
+                    .asType(MethodType.methodType(type.parameterType(i), Context.class));
+        }
+        final MethodHandle target = type.returnType() == void.class
+                ? MethodHandles.filterReturnValue(operation, MethodHandles.constant(Object.class, null))
+                : operation.asType(type.changeReturnType(Object.class));
+        return MethodHandles.permuteArguments(MethodHandles.filterArguments(target, 0, filters),
+                EXECUTE_TYPE, new int[filters.length]);
+    }
+
+    private MethodHandle simpleList(final List<Executor> executors) {
+        if (executors.size() == 1) {
+            return methodHandle(executors.get(0));
+        }
+        if (executors.size() > MAX_COMBINED_LIST_SIZE) {
+            final MethodHandle[] methodHandles = new MethodHandle[executors.size()];
+            for (int i = 0; i < methodHandles.length; i++) {
+                methodHandles[i] = methodHandle(executors.get(i));
+            }
+            return EXECUTE_ALL.bindTo(methodHandles);
+        }
+        return apply(LIST.asCollector(Object[].class, executors.size()), executors);
+    }
+
+    private static MethodHandle constant(final Object value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0, Context.class);
+    }
+
+    private static Object list(final Object[] results) {
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    private static Object executeAll(final MethodHandle[] methodHandles, final Context context) throws Throwable {
+        final List<Object> results = new ArrayList<>(methodHandles.length);
+        for (final MethodHandle methodHandle : methodHandles) {
+            results.add((Object) methodHandle.invokeExact(context));
+        }
+        return results;
+    }
+}
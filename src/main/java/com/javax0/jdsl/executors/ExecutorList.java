@@ -0,0 +1,62 @@
+package com.javax0.jdsl.executors;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A fixed size list of executors backed by an array trimmed to the size of
+ * the list. {@link AbstractListExecutor} stores its executors in such a list,
+ * thus getting an executor by its index takes constant time and long lists
+ * do not have per element overhead.
+ * <p>
+ * Elements can not be added or removed. They can be replaced calling
+ * {@link #set(int, Executor)}, which is what
+ * {@link AbstractListExecutor#replaceWith(Executor)} does when an executor
+ * rewrites the tree.
+ */
+public final class ExecutorList extends AbstractList<Executor> implements RandomAccess {
+    private final Executor[] executors;
+
+    private ExecutorList(final Executor[] executors) {
+        this.executors = executors;
+    }
+
+    /**
+     * @param executors the executors, the list is not modified
+     * @return the same list if it is an {@code ExecutorList}, otherwise a new
+     * list holding the executors
+     */
+    public static ExecutorList of(final List<Executor> executors) {
+        if (executors instanceof ExecutorList) {
+            return (ExecutorList) executors;
+        }
+        return new ExecutorList(executors.toArray(new Executor[0]));
+    }
+
+    /**
+     * @param executors the array that backs the new list, it must not be
+     *                  modified by the caller afterwards
+     * @return the new list
+     */
+    public static ExecutorList wrap(final Executor... executors) {
+        return new ExecutorList(executors);
+    }
+
+    @Override
+    public Executor get(final int index) {
+        return executors[index];
+    }
+
+    @Override
+    public Executor set(final int index, final Executor executor) {
+        final Executor previous = executors[index];
+        executors[index] = executor;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return executors.length;
+    }
+}
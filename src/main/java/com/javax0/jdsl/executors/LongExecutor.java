@@ -0,0 +1,39 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * An executor that calculates a {@code long} value. List executors call
+ * {@link #executeLong(Context)} on the underlying executors implementing this
+ * interface (see {@link AbstractListExecutor#executeLong(int, Context)}), and
+ * this way the value is not boxed. The method {@link #execute(Context)}
+ * returns the boxed value for the executors that do not know this interface.
+ */
+public interface LongExecutor extends Executor {
+    long executeLong(Context context);
+
+    @Override
+    default Object execute(final Context context) {
+        return executeLong(context);
+    }
+
+    /**
+     * Execute the executor and get the result as a {@code long}. If the
+     * executor is a {@link LongExecutor} then the value is not boxed,
+     * otherwise the result of the executor has to be a {@link Number}. The
+     * result of an {@link UnexpectedResultException} thrown by the executor
+     * is converted the same way.
+     *
+     * @param executor the executor to execute
+     * @param context  the context of the execution
+     * @return the result of the executor
+     */
+    static long longValue(final Executor executor, final Context context) {
+        if (executor instanceof LongExecutor) {
+            try {
+                return ((LongExecutor) executor).executeLong(context);
+            } catch (UnexpectedResultException e) {
+                return ((Number) e.getResult()).longValue();
+            }
+        }
+        return ((Number) executor.execute(context)).longValue();
+    }
+}
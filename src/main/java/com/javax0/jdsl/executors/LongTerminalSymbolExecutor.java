@@ -0,0 +1,20 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * A terminal symbol executor holding a {@code long} value. It returns the value
+ * without boxing when it is executed as a {@link LongExecutor}, and the boxed
+ * value created during the analysis when {@link #execute(Context)} is called.
+ */
+public final class LongTerminalSymbolExecutor extends TerminalSymbolExecutor<Long> implements LongExecutor {
+    private final long value;
+
+    public LongTerminalSymbolExecutor(final long value) {
+        super(value);
+        this.value = value;
+    }
+
+    @Override
+    public long executeLong(final Context context) {
+        return value;
+    }
+}
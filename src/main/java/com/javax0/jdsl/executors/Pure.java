@@ -0,0 +1,14 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * Marker interface of the list executors that calculate their result only
+ * from the results of the executors in their list. A pure executor does not
+ * use the context, has no side effect and returns equal results every time
+ * the underlying executors return equal results.
+ * <p>
+ * {@link ConstantFolder} executes the pure executors that have only constant
+ * underlying executors once, after the analysis, and replaces them with a
+ * {@link TerminalSymbolExecutor} holding the result.
+ */
+public interface Pure extends ListExecutor {
+}
@@ -1,6 +1,6 @@
 package com.javax0.jdsl.executors;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -13,19 +13,19 @@ public class SimpleListExecutor extends AbstractListExecutor {
 
     @Override
     public Object execute(Context context) {
-        final List<Object> resultList = new LinkedList<>();
-        for (final Executor executor : executorList) {
-            if (executor == null) {
-                resultList.add(null);
-            } else {
-                resultList.add(executor.execute(context));
-            }
+        final int size = executorList.size();
+        if (size == 1) {
+            return execute(executorList.get(0), context);
         }
-        if (resultList.size() == 1) {
-            return resultList.get(0);
-        } else {
-            return resultList;
+        final List<Object> resultList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            resultList.add(execute(executorList.get(i), context));
         }
+        return resultList;
+    }
+
+    private static Object execute(final Executor executor, final Context context) {
+        return executor == null ? null : executor.execute(context);
     }
 
     @Override
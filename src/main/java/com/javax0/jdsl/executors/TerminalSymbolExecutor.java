@@ -8,6 +8,12 @@ package com.javax0.jdsl.executors;
  * Terminal symbol analyzers create instances of this class with an appropriate
  * type for {@code <T>} and set the value of type {@code T} to return when the
  * symbol is executed during run time.
+ * <p>
+ * The values of type {@code Long}, {@code Double} and {@code Boolean} are held
+ * by the subclasses {@link LongTerminalSymbolExecutor},
+ * {@link DoubleTerminalSymbolExecutor} and
+ * {@link BooleanTerminalSymbolExecutor} that can return the value without
+ * boxing. Use {@link #of(Object)} to get the one matching the value.
  * 
  *
  */
@@ -18,6 +24,45 @@ public class TerminalSymbolExecutor<T> implements Executor {
 		this.object = object;
 	}
 
+	/**
+	 * Create a terminal symbol executor for the value. The executor of a
+	 * {@code Long}, {@code Double} or {@code Boolean} value also implements the
+	 * primitive specialized executor interface of the type.
+	 *
+	 * @param object the value the executor returns
+	 * @return the new executor
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> TerminalSymbolExecutor<T> of(final T object) {
+		if (object instanceof Long) {
+			return (TerminalSymbolExecutor<T>) new LongTerminalSymbolExecutor(
+					(Long) object);
+		}
+		if (object instanceof Double) {
+			return (TerminalSymbolExecutor<T>) new DoubleTerminalSymbolExecutor(
+					(Double) object);
+		}
+		if (object instanceof Boolean) {
+			return (TerminalSymbolExecutor<T>) new BooleanTerminalSymbolExecutor(
+					(Boolean) object);
+		}
+		return new TerminalSymbolExecutor<>(object);
+	}
+
+	/**
+	 * @return {@code true} if the executor is a terminal symbol executor
+	 *         created by this library, which returns the same value every
+	 *         time. Subclasses created outside of the library may override
+	 *         {@link #execute(Context)}.
+	 */
+	static boolean isConstant(final Executor executor) {
+		return executor != null
+				&& (executor.getClass() == TerminalSymbolExecutor.class
+						|| executor instanceof LongTerminalSymbolExecutor
+						|| executor instanceof DoubleTerminalSymbolExecutor
+						|| executor instanceof BooleanTerminalSymbolExecutor);
+	}
+
 	@Override
 	public T execute(Context context) {
 		return object;
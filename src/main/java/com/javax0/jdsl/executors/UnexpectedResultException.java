@@ -0,0 +1,30 @@
+package com.javax0.jdsl.executors;
+
+/**
+ * Thrown by a specialized executor from a primitive executing method, like
+ * {@link LongExecutor#executeLong(Context)}, when the result of the execution
+ * can not be represented as the primitive type. This happens when an
+ * executor specialized for some types gets values of other types, replaces
+ * itself with a more generic executor and calculates a result of another
+ * type. The exception carries the result, so that the caller does not need to
+ * execute the executor again.
+ * <p>
+ * The exception does not fill in the stack trace.
+ */
+public final class UnexpectedResultException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object result;
+
+    public UnexpectedResultException(final Object result) {
+        super(null, null, false, false);
+        this.result = result;
+    }
+
+    /**
+     * @return the result of the execution
+     */
+    public Object getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,201 @@
+package com.javax0.jdsl.log;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.SourceCode;
+
+/**
+ * Reporter that records the call stacks of the analyzers and writes them in the
+ * collapsed stack format that flame graph tools (e.g. {@code flamegraph.pl} or
+ * speedscope) read. Each line of the output is a stack, the frames separated
+ * by {@code ;}, followed by a space and the weight of the stack. The frames are
+ * named by the name of the analyzers created by
+ * {@link com.javax0.jdsl.GrammarDefinition#later(String)}, other analyzers by
+ * their class and {@code toString()}.
+ * <p>
+ * The weight is either the number of the analyzer invocations or the time
+ * spent in the analyzer excluding the underlying analyzers, see
+ * {@link Weight}. When the sampling period is larger than one then only every
+ * Nth invocation is recorded on each thread. Counting sampled invocations does
+ * not read the clock, it only keeps track of the stack, therefore it is cheap
+ * enough to stay switched on while analyzing large inputs.
+ * <p>
+ * The reporter has to be set calling
+ * {@link ReporterFactory#setReporter(Reporter)} before the grammar is built.
+ */
+public class FlameGraphReporter extends InstrumentingReporter {
+
+	/**
+	 * What the numbers in the collapsed stacks measure.
+	 */
+	public enum Weight {
+		/**
+		 * The number of the recorded invocations of the stack.
+		 */
+		INVOCATIONS,
+		/**
+		 * The nanoseconds spent in the last frame of the stack, not counting
+		 * the time of the underlying analyzers. In this mode every invocation
+		 * reads the clock, even those that are not recorded.
+		 */
+		NANOSECONDS
+	}
+
+	private final int samplingPeriod;
+	private final Weight weight;
+	private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+	private final ThreadLocal<ThreadState> threadState = ThreadLocal
+			.withInitial(ThreadState::new);
+
+	private static class ThreadState {
+		private final Map<Analyzer, String> names = new IdentityHashMap<>();
+		private Analyzer[] frames = new Analyzer[64];
+		private int depth = 0;
+		private int events = 0;
+		private long childNanos = 0;
+
+		private void push(final Analyzer analyzer) {
+			if (depth == frames.length) {
+				final Analyzer[] newFrames = new Analyzer[frames.length * 2];
+				System.arraycopy(frames, 0, newFrames, 0, depth);
+				frames = newFrames;
+			}
+			frames[depth++] = analyzer;
+		}
+
+		private void pop() {
+			frames[--depth] = null;
+		}
+
+		private String name(final Analyzer analyzer) {
+			String name = names.get(analyzer);
+			if (name == null) {
+				name = nameOf(analyzer).replace(';', ':');
+				names.put(analyzer, name);
+			}
+			return name;
+		}
+	}
+
+	/**
+	 * Create a reporter that records every invocation and counts them.
+	 */
+	public FlameGraphReporter() {
+		this(1, Weight.INVOCATIONS);
+	}
+
+	/**
+	 * @param samplingPeriod
+	 *            record only every {@code samplingPeriod}-th invocation on each
+	 *            thread, {@code 1} records all invocations
+	 * @param weight
+	 *            what the numbers of the stacks measure
+	 */
+	public FlameGraphReporter(final int samplingPeriod, final Weight weight) {
+		if (samplingPeriod < 1) {
+			throw new IllegalArgumentException(
+					"samplingPeriod has to be positive");
+		}
+		this.samplingPeriod = samplingPeriod;
+		this.weight = weight;
+	}
+
+	@Override
+	public AnalysisResult analyze(final Analyzer analyzer,
+			final SourceCode input) {
+		final ThreadState state = threadState.get();
+		state.push(analyzer);
+		final boolean sampled = ++state.events >= samplingPeriod;
+		if (sampled) {
+			state.events = 0;
+		}
+		if (weight == Weight.INVOCATIONS) {
+			if (sampled) {
+				record(state, 1);
+			}
+			try {
+				return analyzer.analyze(input);
+			} finally {
+				state.pop();
+			}
+		}
+		final long outerChildNanos = state.childNanos;
+		state.childNanos = 0;
+		final long start = System.nanoTime();
+		try {
+			return analyzer.analyze(input);
+		} finally {
+			final long elapsed = System.nanoTime() - start;
+			if (sampled) {
+				record(state, elapsed - state.childNanos);
+			}
+			state.childNanos = outerChildNanos + elapsed;
+			state.pop();
+		}
+	}
+
+	private void record(final ThreadState state, final long value) {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < state.depth; i++) {
+			if (i > 0) {
+				sb.append(';');
+			}
+			sb.append(state.name(state.frames[i]));
+		}
+		stacks.computeIfAbsent(sb.toString(), k -> new LongAdder()).add(value);
+	}
+
+	/**
+	 * Write the recorded stacks in collapsed stack format, one stack per line,
+	 * sorted by the stack.
+	 *
+	 * @param writer
+	 *            where the stacks are written
+	 * @throws IOException
+	 *             when the writer throws it
+	 */
+	public void writeCollapsed(final Writer writer) throws IOException {
+		for (final Map.Entry<String, Long> entry : snapshot().entrySet()) {
+			writer.write(entry.getKey());
+			writer.write(' ');
+			writer.write(Long.toString(entry.getValue()));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * @return the recorded stacks in collapsed stack format
+	 */
+	public String toCollapsed() {
+		final StringBuilder sb = new StringBuilder();
+		for (final Map.Entry<String, Long> entry : snapshot().entrySet()) {
+			sb.append(entry.getKey()).append(' ').append(entry.getValue())
+					.append('\n');
+		}
+		return sb.toString();
+	}
+
+	private Map<String, Long> snapshot() {
+		final Map<String, Long> sorted = new TreeMap<>();
+		for (final Map.Entry<String, LongAdder> entry : stacks.entrySet()) {
+			sorted.put(entry.getKey(), entry.getValue().sum());
+		}
+		return sorted;
+	}
+
+	/**
+	 * Forget the stacks recorded so far.
+	 */
+	public void reset() {
+		stacks.clear();
+	}
+}
@@ -0,0 +1,88 @@
+package com.javax0.jdsl.log;
+
+import java.util.List;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.PassThroughAnalyzer;
+import com.javax0.jdsl.analyzers.SourceCode;
+
+/**
+ * Base class of the reporters that measure the analysis through the hook
+ * {@link Reporter#analyze(Analyzer, SourceCode)} instead of writing log
+ * messages. The logging methods do nothing.
+ * <p>
+ * The reporter has to be set calling
+ * {@link ReporterFactory#setReporter(Reporter)} before the grammar is built,
+ * because the analyzers get the reporter when they are created.
+ */
+public abstract class InstrumentingReporter implements Reporter {
+	private static final int MAX_NAME_LENGTH = 60;
+	private static final String ELLIPSIS = "...";
+
+	@Override
+	public abstract AnalysisResult analyze(final Analyzer analyzer,
+			final SourceCode input);
+
+	/**
+	 * Get the name of the analyzer used in the reports. Analyzers created by
+	 * {@link com.javax0.jdsl.GrammarDefinition#later(String)} are named by the
+	 * name given there. Other analyzers are named by their class and the
+	 * {@code toString()} of the analyzer limited to a few characters.
+	 *
+	 * @param analyzer
+	 *            the analyzer to name
+	 * @return the name of the analyzer
+	 */
+	protected static String nameOf(final Analyzer analyzer) {
+		if (analyzer instanceof PassThroughAnalyzer) {
+			return analyzer.toString();
+		}
+		String description = String.valueOf(analyzer).replaceAll("\\s+", " ");
+		if (description.length() > MAX_NAME_LENGTH) {
+			description = description.substring(0, MAX_NAME_LENGTH) + ELLIPSIS;
+		}
+		return analyzer.getClass().getSimpleName() + " " + description;
+	}
+
+	@Override
+	public void logStart(final Class<? extends Analyzer> klass,
+			final SourceCode input) {
+	}
+
+	@Override
+	public String toString(final List<Analyzer> analyzerList,
+			final String sepChar) {
+		final StringBuilder sb = new StringBuilder();
+		for (final Analyzer analyzer : analyzerList) {
+			if (sb.length() > 0) {
+				sb.append(sepChar);
+			}
+			sb.append(analyzer);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void logStart(final Class<? extends Analyzer> klass,
+			final SourceCode input, final List<Analyzer> analyzerList) {
+	}
+
+	@Override
+	public void logStart(final Class<? extends Analyzer> klass,
+			final SourceCode input, final String message,
+			final Object... params) {
+	}
+
+	@Override
+	public void logSuccess(final Class<? extends Analyzer> klass) {
+	}
+
+	@Override
+	public void logFail(final Class<?> klass, final String message) {
+	}
+
+	@Override
+	public void logFail(final Class<? extends Analyzer> klass) {
+	}
+}
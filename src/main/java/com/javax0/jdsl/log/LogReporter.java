@@ -41,9 +41,16 @@ public class LogReporter implements Reporter {
 		LogReporter.maxDebugChars = maxDebugChars;
 	}
 
+	private static final ClassValue<Logger> LOGGERS = new ClassValue<Logger>() {
+		@Override
+		protected Logger computeValue(final Class<?> klass) {
+			String loggerName = String.format("%23s", klass.getSimpleName());
+			return LoggerFactory.getLogger(loggerName);
+		}
+	};
+
 	private Logger getLogger(Class<?> klass) {
-		String loggerName = String.format("%23s", klass.getSimpleName());
-		return LoggerFactory.getLogger(loggerName);
+		return LOGGERS.get(klass);
 	}
 
 	private static String debugStringify(final SourceCode input) {
@@ -58,11 +65,15 @@ public class LogReporter implements Reporter {
 
 	private static String limitedStartOfSource(final SourceCode input) {
 		final String debug;
-		final String source = input.toString();
-		if (source.length() > maxDebugChars + ELLIPSIS.length()) {
-			debug = source.substring(0, maxDebugChars) + ELLIPSIS;
+		if (input.hasAtLeast(maxDebugChars + ELLIPSIS.length() + 1)) {
+			final StringBuilder sb = new StringBuilder(maxDebugChars
+					+ ELLIPSIS.length());
+			for (int i = 0; i < maxDebugChars; i++) {
+				sb.append(input.charAt(i));
+			}
+			debug = sb.append(ELLIPSIS).toString();
 		} else {
-			debug = source;
+			debug = input.toString();
 		}
 		return debug;
 	}
@@ -100,7 +111,9 @@ public class LogReporter implements Reporter {
 	public void logStart(final Class<? extends Analyzer> analyzerKlass,
 			final SourceCode input) {
 		final Logger log = getLogger(analyzerKlass);
-		log.debug(dotTabbing() + "Starting " + debugStringify(input));
+		if (log.isDebugEnabled()) {
+			log.debug(dotTabbing() + "Starting " + debugStringify(input));
+		}
 		incTab();
 	}
 
@@ -121,14 +134,16 @@ public class LogReporter implements Reporter {
 	public void logStart(final Class<? extends Analyzer> klass,
 			final SourceCode input, final List<Analyzer> analyzerList) {
 		final Logger log = getLogger(klass);
-		final String sep;
-		if (klass.isAssignableFrom(AlternativesAnalyzer.class)) {
-			sep = "|";
-		} else {
-			sep = ",";
+		if (log.isDebugEnabled()) {
+			final String sep;
+			if (klass.isAssignableFrom(AlternativesAnalyzer.class)) {
+				sep = "|";
+			} else {
+				sep = ",";
+			}
+			log.debug(dotTabbing() + "Starting [" + toString(analyzerList, sep)
+					+ "] " + debugStringify(input));
 		}
-		log.debug(dotTabbing() + "Starting [" + toString(analyzerList, sep)
-				+ "] " + debugStringify(input));
 		incTab();
 	}
 
@@ -136,10 +151,12 @@ public class LogReporter implements Reporter {
 	public void logStart(final Class<? extends Analyzer> klass,
 			final SourceCode input, final String message,
 			final Object... params) {
-		final String formattedMessage = String.format(message, params);
 		final Logger log = getLogger(klass);
-		log.debug(dotTabbing() + "Starting " + formattedMessage + " "
-				+ debugStringify(input));
+		if (log.isDebugEnabled()) {
+			final String formattedMessage = String.format(message, params);
+			log.debug(dotTabbing() + "Starting " + formattedMessage + " "
+					+ debugStringify(input));
+		}
 		incTab();
 	}
 
@@ -147,20 +164,26 @@ public class LogReporter implements Reporter {
 	public void logSuccess(final Class<? extends Analyzer> klass) {
 		final Logger log = getLogger(klass);
 		decTab();
-		log.debug(dotTabbing() + "success");
+		if (log.isDebugEnabled()) {
+			log.debug(dotTabbing() + "success");
+		}
 	}
 
 	@Override
 	public void logFail(final Class<?> klass, final String message) {
 		final Logger log = getLogger(klass);
 		decTab();
-		log.debug(dotTabbing() + "fail " + message);
+		if (log.isDebugEnabled()) {
+			log.debug(dotTabbing() + "fail " + message);
+		}
 	}
 
 	@Override
 	public void logFail(final Class<? extends Analyzer> klass) {
 		final Logger log = getLogger(klass);
 		decTab();
-		log.debug(dotTabbing() + "fail");
+		if (log.isDebugEnabled()) {
+			log.debug(dotTabbing() + "fail");
+		}
 	}
 }
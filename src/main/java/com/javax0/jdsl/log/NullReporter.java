@@ -7,6 +7,11 @@ import com.javax0.jdsl.analyzers.SourceCode;
 
 public class NullReporter implements Reporter {
 
+	@Override
+	public boolean isEnabled() {
+		return false;
+	}
+
 	public void logStart(final Class<? extends Analyzer> klass,
 			final SourceCode input) {
 	}
@@ -0,0 +1,335 @@
+package com.javax0.jdsl.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.ReaderSourceCode;
+import com.javax0.jdsl.analyzers.SourceCode;
+
+/**
+ * Reporter that collects statistics for each analyzer instance of the grammar:
+ * the number of invocations, successes and failures, the number of characters
+ * consumed by the successful analyses, the time spent in the analyzer with and
+ * without the time of the underlying analyzers (inclusive and exclusive time)
+ * and the number of retries, that is how many times the analyzer was invoked
+ * on a position of the input it had already analyzed during the same analysis.
+ * <p>
+ * Rules with many retries are candidates to memoize (see
+ * {@link com.javax0.jdsl.GrammarDefinition#packrat()}), alternatives with
+ * many failures may be worth reordering.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * final ProfilingReporter profiler = new ProfilingReporter();
+ * ReporterFactory.setReporter(profiler);
+ * // create and use the grammar
+ * System.out.println(profiler.hotRules(20));
+ * </pre>
+ * <p>
+ * The inclusive time of recursive rules contains the time of the recursive
+ * invocations more than once. The reporter can be used by several threads at
+ * the same time.
+ * <p>
+ * The analyzed positions are remembered in a table of fixed size, a position
+ * overwrites the one stored in the same slot, thus the number of the retries is
+ * approximate: some retries are not counted on large inputs. The positions are
+ * identified by the remaining length of the input. The length of a
+ * {@link ReaderSourceCode} is not known without reading the whole stream,
+ * therefore the retries and the consumed characters are not counted for these
+ * inputs.
+ */
+public class ProfilingReporter extends InstrumentingReporter {
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private static final int VISITED_SIZE = 1 << 14;
+
+	private final Map<Analyzer, RuleStatistics> statistics = new IdentityHashMap<>();
+	private final AtomicInteger idCounter = new AtomicInteger();
+	private volatile int generation = 0;
+	private final ThreadLocal<ThreadState> threadState = ThreadLocal
+			.withInitial(ThreadState::new);
+
+	/**
+	 * The statistics of one analyzer.
+	 */
+	public static class RuleStatistics {
+		private final int id;
+		private final String name;
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder successes = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder consumedCharacters = new LongAdder();
+		private final LongAdder inclusiveNanos = new LongAdder();
+		private final LongAdder exclusiveNanos = new LongAdder();
+		private final LongAdder retries = new LongAdder();
+
+		private RuleStatistics(final int id, final String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getInvocations() {
+			return invocations.sum();
+		}
+
+		public long getSuccesses() {
+			return successes.sum();
+		}
+
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		public long getConsumedCharacters() {
+			return consumedCharacters.sum();
+		}
+
+		public long getInclusiveNanos() {
+			return inclusiveNanos.sum();
+		}
+
+		public long getExclusiveNanos() {
+			return exclusiveNanos.sum();
+		}
+
+		public long getRetries() {
+			return retries.sum();
+		}
+	}
+
+	/**
+	 * The state of the analysis running on one thread.
+	 */
+	private static class ThreadState {
+		private final Map<Analyzer, RuleStatistics> statistics = new IdentityHashMap<>();
+		private int generation = 0;
+		private long[] visitedKeys = null;
+		private int[] visitedAnalyses;
+		private int analysis = 1;
+		private int depth = 0;
+		private long childNanos = 0;
+
+		/**
+		 * Remember the analyzed position.
+		 *
+		 * @return {@code true} if the position was already analyzed during the
+		 *         current analysis (and it was not overwritten since then)
+		 */
+		private boolean visit(final long key) {
+			if (visitedKeys == null) {
+				visitedKeys = new long[VISITED_SIZE];
+				visitedAnalyses = new int[VISITED_SIZE];
+			}
+			final int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32)
+					& (VISITED_SIZE - 1);
+			if (visitedKeys[slot] == key && visitedAnalyses[slot] == analysis) {
+				return true;
+			}
+			visitedKeys[slot] = key;
+			visitedAnalyses[slot] = analysis;
+			return false;
+		}
+	}
+
+	/**
+	 * @return the remaining length of the input identifying the position, or
+	 *         -1 if the position can not be identified
+	 */
+	private static int positionOf(final SourceCode input) {
+		if (input == null || input instanceof ReaderSourceCode) {
+			return -1;
+		}
+		final int length = input.length();
+		// longer inputs, e.g. huge mapped files, report this length for all
+		// the positions
+		return length == Integer.MAX_VALUE ? -1 : length;
+	}
+
+	private RuleStatistics statisticsOf(final ThreadState state,
+			final Analyzer analyzer) {
+		if (state.generation != generation) {
+			state.statistics.clear();
+			state.generation = generation;
+		}
+		RuleStatistics ruleStatistics = state.statistics.get(analyzer);
+		if (ruleStatistics == null) {
+			synchronized (statistics) {
+				ruleStatistics = statistics.get(analyzer);
+				if (ruleStatistics == null) {
+					ruleStatistics = new RuleStatistics(
+							idCounter.getAndIncrement(), nameOf(analyzer));
+					statistics.put(analyzer, ruleStatistics);
+				}
+			}
+			state.statistics.put(analyzer, ruleStatistics);
+		}
+		return ruleStatistics;
+	}
+
+	@Override
+	public AnalysisResult analyze(final Analyzer analyzer,
+			final SourceCode input) {
+		final ThreadState state = threadState.get();
+		final RuleStatistics ruleStatistics = statisticsOf(state, analyzer);
+		final int position = positionOf(input);
+		if (position >= 0
+				&& state.visit(((long) ruleStatistics.id << 32) | position)) {
+			ruleStatistics.retries.increment();
+		}
+		final long outerChildNanos = state.childNanos;
+		state.childNanos = 0;
+		state.depth++;
+		AnalysisResult result = null;
+		final long start = System.nanoTime();
+		try {
+			result = analyzer.analyze(input);
+			return result;
+		} finally {
+			final long elapsed = System.nanoTime() - start;
+			ruleStatistics.invocations.increment();
+			ruleStatistics.inclusiveNanos.add(elapsed);
+			ruleStatistics.exclusiveNanos.add(elapsed - state.childNanos);
+			if (result != null && result.wasSuccessful()) {
+				ruleStatistics.successes.increment();
+				if (position >= 0 && result.remainingSourceCode() != null) {
+					ruleStatistics.consumedCharacters.add(position
+							- result.remainingSourceCode().length());
+				}
+			} else {
+				ruleStatistics.failures.increment();
+			}
+			state.childNanos = outerChildNanos + elapsed;
+			state.depth--;
+			if (state.depth == 0) {
+				state.analysis++;
+				state.childNanos = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return the statistics of the analyzers sorted by the exclusive time,
+	 *         the largest first
+	 */
+	public List<RuleStatistics> getStatistics() {
+		final List<RuleStatistics> list;
+		synchronized (statistics) {
+			list = new ArrayList<>(statistics.values());
+		}
+		list.sort((a, b) -> Long.compare(b.getExclusiveNanos(),
+				a.getExclusiveNanos()));
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * Forget all the statistics collected so far.
+	 */
+	public void reset() {
+		synchronized (statistics) {
+			statistics.clear();
+			generation++;
+		}
+	}
+
+	/**
+	 * Create a table of the analyzers that used the most time, excluding the
+	 * time of the underlying analyzers.
+	 *
+	 * @param limit
+	 *            the maximal number of the rows in the table
+	 * @return the table as a multi line string
+	 */
+	public String hotRules(final int limit) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%12s %12s %10s %10s %10s %10s %12s  %s%n",
+				"excl ms", "incl ms", "calls", "success", "fail", "retries",
+				"chars", "rule"));
+		int rows = 0;
+		for (final RuleStatistics s : getStatistics()) {
+			if (rows++ >= limit) {
+				break;
+			}
+			sb.append(String.format(
+					"%12.3f %12.3f %10d %10d %10d %10d %12d  %s%n",
+					s.getExclusiveNanos() / NANOS_PER_MILLI,
+					s.getInclusiveNanos() / NANOS_PER_MILLI,
+					s.getInvocations(), s.getSuccesses(), s.getFailures(),
+					s.getRetries(), s.getConsumedCharacters(), s.getName()));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return the statistics as a JSON array, one object for each analyzer
+	 */
+	public String toJson() {
+		final StringBuilder sb = new StringBuilder("[");
+		String sep = "\n";
+		for (final RuleStatistics s : getStatistics()) {
+			sb.append(sep).append("{\"rule\":\"").append(jsonEscape(s.getName()))
+					.append("\",\"invocations\":").append(s.getInvocations())
+					.append(",\"successes\":").append(s.getSuccesses())
+					.append(",\"failures\":").append(s.getFailures())
+					.append(",\"consumedCharacters\":")
+					.append(s.getConsumedCharacters())
+					.append(",\"inclusiveNanos\":").append(s.getInclusiveNanos())
+					.append(",\"exclusiveNanos\":").append(s.getExclusiveNanos())
+					.append(",\"retries\":").append(s.getRetries()).append("}");
+			sep = ",\n";
+		}
+		return sb.append("\n]").toString();
+	}
+
+	/**
+	 * @return the statistics as CSV with a header line, one line for each
+	 *         analyzer
+	 */
+	public String toCsv() {
+		final StringBuilder sb = new StringBuilder(
+				"rule,invocations,successes,failures,consumedCharacters,inclusiveNanos,exclusiveNanos,retries\n");
+		for (final RuleStatistics s : getStatistics()) {
+			sb.append('"').append(s.getName().replace("\"", "\"\""))
+					.append("\",").append(s.getInvocations()).append(',')
+					.append(s.getSuccesses()).append(',')
+					.append(s.getFailures()).append(',')
+					.append(s.getConsumedCharacters()).append(',')
+					.append(s.getInclusiveNanos()).append(',')
+					.append(s.getExclusiveNanos()).append(',')
+					.append(s.getRetries()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static String jsonEscape(final String s) {
+		final StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			final char ch = s.charAt(i);
+			switch (ch) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			default:
+				if (ch < 0x20) {
+					sb.append(String.format("\\u%04x", (int) ch));
+				} else {
+					sb.append(ch);
+				}
+			}
+		}
+		return sb.toString();
+	}
+}
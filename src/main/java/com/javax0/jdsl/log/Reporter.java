@@ -2,10 +2,60 @@ package com.javax0.jdsl.log;
 
 import java.util.List;
 
+import com.javax0.jdsl.analyzers.AnalysisResult;
 import com.javax0.jdsl.analyzers.Analyzer;
 import com.javax0.jdsl.analyzers.SourceCode;
 
 public interface Reporter {
+	/**
+	 * Tell if the reporter does anything. The analyzers check this before
+	 * calling the logging methods, thus a disabled reporter costs neither the
+	 * allocation of the arguments nor the calls.
+	 * 
+	 * @return {@code true} by default
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Instrumentation hook. The analyzers that have underlying analyzers
+	 * invoke them through this method when the reporter is enabled (see
+	 * {@link #invoke(Reporter, Analyzer, SourceCode)}). A reporter can override
+	 * it to measure the analysis of each analyzer instance. The default
+	 * implementation only calls {@code analyzer.analyze(input)}.
+	 * 
+	 * @param analyzer
+	 *            the analyzer to invoke
+	 * @param input
+	 *            the input to analyze
+	 * @return the result of the analyzer
+	 */
+	default AnalysisResult analyze(final Analyzer analyzer,
+			final SourceCode input) {
+		return analyzer.analyze(input);
+	}
+
+	/**
+	 * Invoke the analyzer through the reporter if reporting is enabled, and
+	 * directly otherwise.
+	 * 
+	 * @param reporter
+	 *            the reporter of the calling analyzer
+	 * @param analyzer
+	 *            the analyzer to invoke
+	 * @param input
+	 *            the input to analyze
+	 * @return the result of the analyzer
+	 */
+	static AnalysisResult invoke(final Reporter reporter,
+			final Analyzer analyzer, final SourceCode input) {
+		if (ReporterFactory.REPORTING_ENABLED && reporter.isEnabled()) {
+			return reporter.analyze(analyzer, input);
+		}
+		return analyzer.analyze(input);
+	}
+
 	/**
 	 * Write a log message about the starting some analyzer.
 	 */
@@ -1,17 +1,41 @@
 package com.javax0.jdsl.log;
 
+/**
+ * Provides the {@link Reporter} the analyzers use.
+ * <p>
+ * Reporting can be switched off for the whole JVM starting it with
+ * {@code -Djdsl.reporting=false}. In that case {@link #getReporter()} always
+ * returns a {@link NullReporter} and, because {@link #REPORTING_ENABLED} is a
+ * constant, the JIT compiler removes the reporting code from the analyzers.
+ * <p>
+ * When reporting is not switched off the analyzers still call the reporter only
+ * if {@link Reporter#isEnabled()} returns {@code true}, which is not the case
+ * for the {@link NullReporter}.
+ */
 public class ReporterFactory {
-	private static Reporter reporter;
+	public static final boolean REPORTING_ENABLED = Boolean
+			.parseBoolean(System.getProperty("jdsl.reporting", "true"));
+	private static final Reporter NULL_REPORTER = new NullReporter();
+	private static volatile Reporter reporter;
 
 	public static void setReporter(final Reporter reporter) {
 		ReporterFactory.reporter = reporter;
 	}
 
 	public static Reporter getReporter() {
-		if (reporter == null) {
-			reporter = new NullReporter();
+		final Reporter current = reporter;
+		if (!REPORTING_ENABLED || current == null) {
+			return NULL_REPORTER;
 		}
-		return reporter;
+		return current;
+	}
+
+	/**
+	 * @return {@code true} if reporting is not switched off and the current
+	 *         reporter is enabled
+	 */
+	public static boolean isReporting() {
+		return REPORTING_ENABLED && getReporter().isEnabled();
 	}
 
 }
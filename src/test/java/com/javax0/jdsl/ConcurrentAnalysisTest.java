@@ -0,0 +1,136 @@
+package com.javax0.jdsl;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import com.javax0.jdsl.executors.Context;
+import com.javax0.jdsl.executors.Executor;
+import com.javax0.jdsl.executors.ListExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+
+public class ConcurrentAnalysisTest {
+    private static final int THREADS = 8;
+    private static final int ANALYSES_PER_THREAD = 300;
+
+    /**
+     * A sum of numbers and nested parenthesized sums. The rules are used
+     * recursively, the same list analyzer analyzes the outer and the inner
+     * parentheses.
+     */
+    private static class SumGrammar extends GrammarDefinition {
+        private final AtomicInteger defineCounter = new AtomicInteger();
+
+        @Override
+        protected Analyzer define() {
+            defineCounter.incrementAndGet();
+            skipSpaces();
+            final Define term = later();
+            final Analyzer sum = list(SumExecutor::new, term, manyOptional(list(kw("+"), term)));
+            term.define(or(number(), list(kw("("), sum, kw(")"))));
+            return sum;
+        }
+    }
+
+    private static class SumExecutor implements ListExecutor {
+        private List<Executor> executorList;
+
+        @Override
+        public ListExecutor withList(final List<Executor> executorList) {
+            this.executorList = executorList;
+            return this;
+        }
+
+        @Override
+        public Object execute(final Context context) {
+            long sum = 0;
+            for (final Executor executor : executorList) {
+                sum += sum(executor.execute(context));
+            }
+            return sum;
+        }
+
+        private static long sum(final Object value) {
+            long sum = 0;
+            if (value instanceof Long) {
+                sum += (Long) value;
+            } else if (value instanceof List) {
+                for (final Object element : (List<?>) value) {
+                    sum += sum(element);
+                }
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Create a source that sums up the numbers from 1 to n nesting every second
+     * number one level deeper, e.g. {@code 1+(2+(3+(4)))} for n = 4.
+     */
+    private static String nestedSum(final int n) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= n; i++) {
+            if (i > 1) {
+                sb.append(i % 2 == 0 ? "+(" : " + ");
+            }
+            sb.append(i);
+        }
+        for (int i = 2; i <= n; i += 2) {
+            sb.append(")");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void recursiveRulesAnalyzeNestedInput() {
+        final AnalysisResult result = new SumGrammar().analyze(new StringSourceCode("1+(2+(3+(4)))"));
+        Assert.assertTrue(result.wasSuccessful());
+        Assert.assertEquals(10L, result.getExecutor().execute(null));
+    }
+
+    @Test
+    public void oneGrammarAnalyzesFromManyThreadsAtTheSameTime() throws Exception {
+        final SumGrammar grammar = new SumGrammar();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int seed = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int errors = 0;
+                    for (int i = 0; i < ANALYSES_PER_THREAD; i++) {
+                        final int n = 1 + (seed * 7 + i) % 40;
+                        final AnalysisResult result = grammar.analyze(new StringSourceCode(nestedSum(n)));
+                        if (!result.wasSuccessful()
+                                || !Long.valueOf(n * (n + 1L) / 2).equals(result.getExecutor().execute(null))) {
+                            errors++;
+                        }
+                    }
+                    return errors;
+                }));
+            }
+            start.countDown();
+            for (final Future<Integer> future : futures) {
+                Assert.assertEquals(0, (int) future.get());
+            }
+            Assert.assertEquals(1, grammar.defineCounter.get());
+        } finally {
+            pool.shutdown();
+            Assert.assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+    }
+}
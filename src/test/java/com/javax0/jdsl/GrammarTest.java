@@ -96,6 +96,17 @@ public class GrammarTest {
         myGrammar.analyze(new StringSourceCode("anything"));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void buildReportsUndefinedAnalyzersBeforeAnalysis() {
+        new GrammarDefinition() {
+            @Override
+            protected Analyzer define() {
+                @SuppressWarnings("unused") final Define notUsed = later();
+                return many(kw("k"));
+            }
+        }.build();
+    }
+
     private static class IfExecutorFactory implements Factory<ListExecutor> {
 
         @Override
@@ -0,0 +1,83 @@
+package com.javax0.jdsl;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+
+public class PackratTest {
+
+    private static class BacktrackingGrammar extends GrammarDefinition {
+        private final boolean packrat;
+        private final AtomicInteger numberAnalysisCounter = new AtomicInteger();
+
+        private BacktrackingGrammar(final boolean packrat) {
+            this.packrat = packrat;
+        }
+
+        @Override
+        protected Analyzer define() {
+            if (packrat) {
+                packrat();
+            }
+            skipSpaces();
+            final Analyzer countingNumber = input -> {
+                numberAnalysisCounter.incrementAndGet();
+                return number().analyze(input);
+            };
+            final Define expression = later();
+            final Analyzer tag = or(list(countingNumber), list(kw("("), expression, kw(")")));
+            final Analyzer product = or(list(tag, kw("*"), tag), list(tag, kw("/"), tag), tag);
+            expression.define(or(list(product, kw("+"), product), list(product, kw("-"), product), product));
+            return expression;
+        }
+    }
+
+    private static final String NESTED = "((((((1))))))";
+
+    @Test
+    public void packratGrammarGivesTheSameResultAsTheNonPackratGrammar() {
+        for (final String source : new String[]{"1", "1*2", "1+2*3", "(1+2)/3", NESTED, "1+", "(1"}) {
+            final AnalysisResult expected = new BacktrackingGrammar(false).analyze(new StringSourceCode(source));
+            final AnalysisResult actual = new BacktrackingGrammar(true).analyze(new StringSourceCode(source));
+            Assert.assertEquals(source, expected.wasSuccessful(), actual.wasSuccessful());
+            if (expected.wasSuccessful()) {
+                Assert.assertEquals(source, expected.getExecutor().execute(null), actual.getExecutor().execute(null));
+            }
+        }
+    }
+
+    @Test
+    public void packratGrammarAnalyzesEachPositionOnlyOnce() {
+        final BacktrackingGrammar plain = new BacktrackingGrammar(false);
+        final BacktrackingGrammar packrat = new BacktrackingGrammar(true);
+        Assert.assertTrue(plain.analyze(new StringSourceCode(NESTED)).wasSuccessful());
+        Assert.assertTrue(packrat.analyze(new StringSourceCode(NESTED)).wasSuccessful());
+        Assert.assertTrue(plain.numberAnalysisCounter.get() > 1000);
+        // a tag starts at each of the six '(' and at the '1'
+        Assert.assertEquals(7, packrat.numberAnalysisCounter.get());
+        Assert.assertTrue(packrat.getMemoStatistics().getHits() > 0);
+        Assert.assertEquals(1, packrat.getMemoStatistics().getAnalyses());
+    }
+
+    @Test
+    public void memoTableCanBeSmallerThanTheNumberOfResults() {
+        final GrammarDefinition grammar = new GrammarDefinition() {
+            @Override
+            protected Analyzer define() {
+                packrat(2);
+                final Define expression = later();
+                expression.define(or(list(kw("("), expression, kw(")")), number()));
+                return expression;
+            }
+        };
+        Assert.assertTrue(grammar.analyze(new StringSourceCode(NESTED)).wasSuccessful());
+        Assert.assertFalse(grammar.analyze(new StringSourceCode(NESTED + ")")).wasSuccessful());
+    }
+}
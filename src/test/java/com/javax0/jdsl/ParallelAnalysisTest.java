@@ -0,0 +1,106 @@
+package com.javax0.jdsl;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.Splitter;
+import com.javax0.jdsl.analyzers.StatementSplitter;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+import static com.javax0.jdsl.analyzers.terminals.StringAnalyzer.string;
+
+public class ParallelAnalysisTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private static class StatementGrammar extends GrammarDefinition {
+        private final Splitter splitter;
+
+        private StatementGrammar(final Splitter splitter) {
+            this.splitter = splitter;
+        }
+
+        @Override
+        protected Analyzer define() {
+            if (splitter != null) {
+                parallel(splitter, POOL);
+            }
+            skipSpaces();
+            final Analyzer value = or(number(), string());
+            return many(list(value, manyOptional(list(kw(","), value)), kw(";")));
+        }
+    }
+
+    /**
+     * Create statements containing strings that have the separator inside.
+     */
+    private static String statements(final int n) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            switch (i % 3) {
+                case 0:
+                    sb.append(i).append(", \"a;b\";\n");
+                    break;
+                case 1:
+                    sb.append("'''multi\n;line''', ").append(i).append(";\n");
+                    break;
+                default:
+                    sb.append(i).append(" ; ");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameAsSequential(final Splitter splitter, final String source) {
+        final AnalysisResult sequential = new StatementGrammar(null).analyze(new StringSourceCode(source));
+        final AnalysisResult parallel = new StatementGrammar(splitter).analyze(new StringSourceCode(source));
+        Assert.assertEquals(sequential.wasSuccessful(), parallel.wasSuccessful());
+        if (sequential.wasSuccessful()) {
+            Assert.assertEquals(sequential.getExecutor().execute(null), parallel.getExecutor().execute(null));
+        }
+    }
+
+    @Test
+    public void splitterDoesNotSplitInsideStrings() {
+        final SourceCode input = new StringSourceCode("1;\"a;b\"; 'c\\';d'; '''e\n;f''';2;");
+        Assert.assertArrayEquals(new int[]{2, 8, 17, 29}, new StatementSplitter(';').split(input));
+    }
+
+    @Test
+    public void parallelAnalysisGivesTheSameResultAsSequential() {
+        final String source = statements(30000);
+        Assert.assertTrue(source.length() > 8 * GrammarDefinition.MIN_PARALLEL_PART_LENGTH);
+        assertSameAsSequential(new StatementSplitter(';'), source);
+    }
+
+    @Test
+    public void wrongSplitPositionsDoNotChangeTheResult() {
+        final String source = statements(30000);
+        assertSameAsSequential(input -> {
+            final int[] positions = new int[input.length() / 1000];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = 1 + 1000 * i;
+            }
+            return positions;
+        }, source);
+    }
+
+    @Test
+    public void syntaxErrorFailsTheParallelAnalysis() {
+        final String source = statements(30000);
+        final int middle = source.length() / 2;
+        assertSameAsSequential(new StatementSplitter(';'),
+                source.substring(0, middle) + " x; " + source.substring(middle));
+        assertSameAsSequential(new StatementSplitter(';'), source + "1");
+    }
+}
@@ -0,0 +1,99 @@
+package com.javax0.jdsl;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import com.javax0.jdsl.executors.Executor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+
+public class StreamingAnalysisTest {
+
+    private static class StatementGrammar extends GrammarDefinition {
+        private final boolean packrat;
+
+        private StatementGrammar(final boolean packrat) {
+            this.packrat = packrat;
+        }
+
+        @Override
+        protected Analyzer define() {
+            if (packrat) {
+                packrat();
+            }
+            skipSpaces();
+            return many(list(number(), kw(";")));
+        }
+    }
+
+    private static List<Object> analyze(final GrammarDefinition grammar, final String source,
+                                        final boolean successExpected) {
+        final List<Object> values = new ArrayList<>();
+        final AnalysisResult result = grammar.analyze(new StringSourceCode(source),
+                executor -> values.add(executor.execute(null)));
+        Assert.assertEquals(successExpected, result.wasSuccessful());
+        return values;
+    }
+
+    @Test
+    public void consumerGetsTheExecutorOfEachStatement() {
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L),
+                analyze(new StatementGrammar(false), "1; 2;\n3;", true));
+    }
+
+    @Test
+    public void packratGrammarStreamsTheStatements() {
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L),
+                analyze(new StatementGrammar(true), "1; 2;\n3;", true));
+    }
+
+    @Test
+    public void consumerGetsTheStatementsBeforeTheSyntaxError() {
+        Assert.assertEquals(Arrays.asList(1L, 2L),
+                analyze(new StatementGrammar(false), "1; 2; x;", false));
+    }
+
+    @Test
+    public void missingElementsFail() {
+        Assert.assertEquals(List.of(), analyze(new StatementGrammar(false), "", false));
+    }
+
+    @Test
+    public void grammarThatIsNotASequenceGivesOneExecutor() {
+        final GrammarDefinition grammar = new GrammarDefinition() {
+            @Override
+            protected Analyzer define() {
+                skipSpaces();
+                return list(number(), kw(";"));
+            }
+        };
+        Assert.assertEquals(List.of(7L), analyze(grammar, "7 ;", true));
+    }
+
+    @Test
+    public void streamAnalyzesLazily() {
+        final List<Object> values = new StatementGrammar(false).stream(new StringSourceCode("1; 2; 3; x"))
+                .limit(2).map(executor -> executor.execute(null)).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList(1L, 2L), values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void streamThrowsOnSyntaxError() {
+        new StatementGrammar(false).stream(new StringSourceCode("1; 2; 3; x"))
+                .map(executor -> executor.execute(null)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void streamGivesAllTheExecutors() {
+        final List<Executor> executors = new StatementGrammar(false).stream(new StringSourceCode("1; 2; 3;"))
+                .collect(Collectors.toList());
+        Assert.assertEquals(3, executors.size());
+    }
+}
@@ -7,9 +7,14 @@ import static com.javax0.jdsl.analyzers.MockAnalyzerGeneratorUtil.verifyAnalyzer
 import static com.javax0.jdsl.analyzers.MockAnalyzerGeneratorUtil.verifyAnalyzersWereInvoked;
 import static com.javax0.jdsl.analyzers.MockAnalyzerGeneratorUtil.verifyAnalyzersWereNotInvoked;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
+
 public class AlternativesAnalyzerTest {
 
 
@@ -96,4 +101,67 @@ public class AlternativesAnalyzerTest {
 			}
 		}
 	}
+
+	private static class RecordingAnalyzer implements Analyzer,
+			FirstSet.Provider {
+		private final Analyzer underlying;
+		private final List<Analyzer> invoked;
+
+		private RecordingAnalyzer(final Analyzer underlying,
+				final List<Analyzer> invoked) {
+			this.underlying = underlying;
+			this.invoked = invoked;
+		}
+
+		@Override
+		public AnalysisResult analyze(final SourceCode input) {
+			invoked.add(this);
+			return underlying.analyze(input);
+		}
+
+		@Override
+		public FirstSet firstSet() {
+			return FirstSet.of(underlying);
+		}
+	}
+
+	@Test
+	public void dispatchTableSkipsAlternativesThatCanNotStartWithTheCharacter() {
+		final List<Analyzer> invoked = new ArrayList<>();
+		final Analyzer a = new RecordingAnalyzer(new TerminalSymbolAnalyzer(
+				"a"), invoked);
+		final Analyzer b = new RecordingAnalyzer(new TerminalSymbolAnalyzer(
+				"b"), invoked);
+		final Analyzer any = new RecordingAnalyzer(newSuccessfulAnalyzer(),
+				invoked);
+		final AlternativesAnalyzer alternativesAnalyzer = new AlternativesAnalyzer();
+		alternativesAnalyzer.add(a, any, b);
+		alternativesAnalyzer.buildDispatchTable();
+
+		Assert.assertTrue(alternativesAnalyzer.analyze(
+				new StringSourceCode("b")).wasSuccessful());
+		Assert.assertEquals(1, invoked.size());
+		Assert.assertSame(any, invoked.get(0));
+
+		invoked.clear();
+		Assert.assertTrue(alternativesAnalyzer.analyze(
+				new StringSourceCode("a")).wasSuccessful());
+		Assert.assertEquals(1, invoked.size());
+		Assert.assertSame(a, invoked.get(0));
+	}
+
+	@Test
+	public void dispatchTableTriesAllAlternativesForNonAsciiCharacters() {
+		final List<Analyzer> invoked = new ArrayList<>();
+		final AlternativesAnalyzer alternativesAnalyzer = new AlternativesAnalyzer();
+		alternativesAnalyzer.add(new RecordingAnalyzer(
+				new TerminalSymbolAnalyzer("a"), invoked),
+				new RecordingAnalyzer(new TerminalSymbolAnalyzer("\u00e1"),
+						invoked));
+		alternativesAnalyzer.buildDispatchTable();
+
+		Assert.assertTrue(alternativesAnalyzer.analyze(
+				new StringSourceCode("\u00e1")).wasSuccessful());
+		Assert.assertEquals(2, invoked.size());
+	}
 }
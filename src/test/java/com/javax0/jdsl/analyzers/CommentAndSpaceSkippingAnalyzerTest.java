@@ -0,0 +1,75 @@
+package com.javax0.jdsl.analyzers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+
+public class CommentAndSpaceSkippingAnalyzerTest {
+
+	private static final CommentAndSpaceSkippingAnalyzer SKIP = new CommentAndSpaceSkippingAnalyzer(
+			new String[] { "//", "#" }, "/*", "*/");
+
+	private static void assertSkips(final int expected, final String code) {
+		assertEquals(expected,
+				SKIP.skip(StringSourceCode.sourceCode(code), 0));
+		assertEquals(expected, SKIP.skip(new StringSourceCode(code), 0));
+		assertEquals(expected,
+				SKIP.skip(new ReaderSourceCode(new StringReader(code)), 0));
+	}
+
+	@Test
+	public void skipsSpacesAndComments() {
+		assertSkips(0, "a // b");
+		assertSkips(3, "   a");
+		assertSkips(8, "// x \n  a");
+		assertSkips(7, " # x\r\n a");
+		assertSkips(10, " /* x */  a");
+		assertSkips(15, "/* x */ // y\n  a");
+	}
+
+	@Test
+	public void skipsTillTheEndOfTheInput() {
+		assertSkips(6, " // xx");
+		assertSkips(8, " /* */  ");
+	}
+
+	@Test
+	public void doesNotSkipUnterminatedBlockComments() {
+		assertSkips(1, " /* x ");
+	}
+
+	@Test
+	public void doesNotSkipCharactersThatOnlyStartLikeAComment() {
+		assertSkips(1, " / x");
+	}
+
+	@Test
+	public void skipsNonAsciiSpaces() {
+		assertSkips(2, "\u2003\u2003a");
+	}
+
+	@Test
+	public void grammarSkipsComments() {
+		for (final boolean compiled : new boolean[] { false, true }) {
+			final GrammarDefinition grammar = new GrammarDefinition() {
+				@Override
+				protected Analyzer define() {
+					skipSpacesAndComments("//", "/*", "*/");
+					return many(list(NumberAnalyzer.number(), kw(";")));
+				}
+			};
+			if (compiled) {
+				grammar.compile();
+			}
+			final AnalysisResult result = grammar.analyze(StringSourceCode
+					.sourceCode("/* first */ 1; // one\n 2 /* two */ ;\n"));
+			assertTrue(result.wasSuccessful());
+		}
+	}
+}
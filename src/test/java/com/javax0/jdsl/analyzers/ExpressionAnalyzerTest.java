@@ -0,0 +1,166 @@
+package com.javax0.jdsl.analyzers;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.terminals.IdentifierAnalyzer;
+import com.javax0.jdsl.executors.AbstractListExecutor;
+import com.javax0.jdsl.executors.Context;
+import com.javax0.jdsl.executors.Executor;
+import com.javax0.jdsl.executors.TerminalSymbolExecutor;
+
+public class ExpressionAnalyzerTest {
+
+	/**
+	 * Executor that shows the structure of the executor tree, like
+	 * {@code (1 + (2 * 3))}.
+	 */
+	private static class ShapeExecutor extends AbstractListExecutor {
+		@Override
+		public Object execute(final Context context) {
+			final List<String> parts = new ArrayList<>();
+			for (final Executor executor : executorList) {
+				parts.add(String.valueOf(executor.execute(context)));
+			}
+			return "(" + String.join(" ", parts) + ")";
+		}
+	}
+
+	private static Executor op(final String operator) {
+		return new TerminalSymbolExecutor<>(operator);
+	}
+
+	private static ExpressionAnalyzer expression() {
+		final ExpressionAnalyzer[] expression = new ExpressionAnalyzer[1];
+		new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				skipSpaces();
+				expression[0] = expression();
+				return expression[0];
+			}
+		}.build();
+		final ExpressionAnalyzer e = expression[0];
+		e.setFactory(ShapeExecutor::new);
+		e.addTerminals(number(), IdentifierAnalyzer.identifier());
+		e.addParentheses("(", ")");
+		e.addListSeparator(",");
+		e.addBinary("==", 1, op("=="));
+		e.addBinary("=", 0, ExpressionAnalyzer.Associativity.RIGHT, op("="));
+		e.addBinary("<", 1, op("<"));
+		e.addBinary("<=", 1, op("<="));
+		e.addBinary("+", 2, op("+"));
+		e.addBinary("-", 2, op("-"));
+		e.addBinary("*", 3, op("*"));
+		e.addBinary("^", 4, ExpressionAnalyzer.Associativity.RIGHT, op("^"));
+		e.addUnaryPrefix("-", 5, op("-"));
+		e.addUnaryPostfix("!", 6, op("!"));
+		e.addPostfixCall("(", ")", op("call"), 7);
+		e.addPostfixCall("[", "]", op("index"), 7);
+		return e;
+	}
+
+	private static String shape(final String source) {
+		final AnalysisResult result = expression().analyze(new StringSourceCode(source));
+		Assert.assertTrue(source, result.wasSuccessful());
+		Assert.assertFalse(source, result.remainingSourceCode().hasAtLeast(1));
+		return String.valueOf(result.getExecutor().execute(null));
+	}
+
+	@Test
+	public void aTagAloneIsTheTag() {
+		Assert.assertEquals("13", shape("13"));
+		Assert.assertEquals("13", shape("((13))"));
+	}
+
+	@Test
+	public void higherPriorityBindsStronger() {
+		Assert.assertEquals("(1 + (2 * 3))", shape("1 + 2 * 3"));
+		Assert.assertEquals("((1 * 2) + 3)", shape("1*2+3"));
+		Assert.assertEquals("((1 + 2) * 3)", shape("(1 + 2) * 3"));
+	}
+
+	@Test
+	public void associativityIsObeyed() {
+		Assert.assertEquals("((1 - 2) - 3)", shape("1 - 2 - 3"));
+		Assert.assertEquals("(2 ^ (3 ^ 4))", shape("2 ^ 3 ^ 4"));
+		Assert.assertEquals("(a = (b = 1))", shape("a = b = 1"));
+	}
+
+	@Test
+	public void longerOperatorsAreFoundFirst() {
+		Assert.assertEquals("(a <= b)", shape("a <= b"));
+		Assert.assertEquals("(a == (b + 1))", shape("a == b + 1"));
+	}
+
+	@Test
+	public void unaryOperatorsBindByPriority() {
+		Assert.assertEquals("((- 2) ^ 3)", shape("-2 ^ 3"));
+		Assert.assertEquals("(- (- (n !)))", shape("- - n!"));
+		Assert.assertEquals("(1 * (- 2))", shape("1 * -2"));
+	}
+
+	@Test
+	public void postfixCallsHaveArgumentLists() {
+		Assert.assertEquals("(f call [1, (2 + 3)])", shape("f(1, 2 + 3)"));
+		Assert.assertEquals("((f call []) index 0)", shape("f()[0]"));
+		Assert.assertEquals("(1 + (a index b))", shape("1 + a[b]"));
+	}
+
+	@Test
+	public void deepOperatorTablesAreAnalyzedWithoutDeepRecursion() {
+		final ExpressionAnalyzer e = expression();
+		for (int priority = 10; priority < 10010; priority++) {
+			e.addBinary("#" + priority + "#", priority, op("#"));
+		}
+		final StringBuilder sb = new StringBuilder("1");
+		for (int i = 0; i < 10000; i++) {
+			sb.append(" + ").append(i);
+		}
+		final AnalysisResult result = e.analyze(new StringSourceCode(sb
+				.toString()));
+		Assert.assertTrue(result.wasSuccessful());
+		Assert.assertFalse(result.remainingSourceCode().hasAtLeast(1));
+	}
+
+	@Test
+	public void expressionEndsBeforeUnknownCharacters() {
+		final AnalysisResult result = expression().analyze(
+				new StringSourceCode("1 + 2 ; 3"));
+		Assert.assertTrue(result.wasSuccessful());
+		Assert.assertEquals(" ; 3", result.remainingSourceCode().toString());
+	}
+
+	@Test
+	public void longerBinaryOperatorWinsOverPostfixOperator() {
+		final ExpressionAnalyzer e = expression();
+		e.addBinary("!=", 1, op("!="));
+		final AnalysisResult result = e.analyze(new StringSourceCode("a != b!"));
+		Assert.assertTrue(result.wasSuccessful());
+		Assert.assertEquals("(a != (b !))", result.getExecutor().execute(null));
+	}
+
+	private static void assertRemains(final String remaining, final String source) {
+		final AnalysisResult result = expression().analyze(new StringSourceCode(source));
+		Assert.assertTrue(source, result.wasSuccessful());
+		Assert.assertEquals(source, remaining, result.remainingSourceCode().toString());
+	}
+
+	@Test
+	public void missingOperandBacktracksToTheLastOperand() {
+		assertRemains(" +", "1 +");
+		assertRemains("-", "a-");
+		assertRemains(" -> b", "a -> b");
+		assertRemains(" - -", "1 * 2 - -");
+		Assert.assertFalse(expression().analyze(new StringSourceCode("- "))
+				.wasSuccessful());
+		Assert.assertFalse(expression().analyze(new StringSourceCode("(1 + 2"))
+				.wasSuccessful());
+	}
+}
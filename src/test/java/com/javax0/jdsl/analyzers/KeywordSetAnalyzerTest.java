@@ -0,0 +1,85 @@
+package com.javax0.jdsl.analyzers;
+
+import static com.javax0.jdsl.analyzers.StringSourceCode.sourceCode;
+import static com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer.analyzer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.javax0.jdsl.analyzers.terminals.KeywordSetAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer.CharCompare;
+import com.javax0.jdsl.executors.Executor;
+import com.javax0.jdsl.executors.TerminalSymbolExecutor;
+
+public class KeywordSetAnalyzerTest {
+
+	private static void assertSameAsAlternatives(final CharCompare cc,
+			final String[] lexemes, final String... inputs) {
+		final Analyzer[] terminals = new Analyzer[lexemes.length];
+		for (int i = 0; i < lexemes.length; i++) {
+			terminals[i] = analyzer(lexemes[i], cc);
+		}
+		final AlternativesAnalyzer alternatives = new AlternativesAnalyzer();
+		alternatives.add(terminals);
+		final KeywordSetAnalyzer keywordSet = KeywordSetAnalyzer
+				.of(terminals);
+		for (final String input : inputs) {
+			final AnalysisResult expected = alternatives
+					.analyze(sourceCode(input));
+			final AnalysisResult actual = keywordSet.analyze(sourceCode(input));
+			assertEquals(input, expected.wasSuccessful(),
+					actual.wasSuccessful());
+			if (expected.wasSuccessful()) {
+				assertEquals(input, expected.remainingSourceCode().toString(),
+						actual.remainingSourceCode().toString());
+			}
+		}
+	}
+
+	@Test
+	public void matchesTheSameWayAsAlternatives() {
+		final String[] inputs = { "", "a", "ab", "abc", "abcd", "b", "ba",
+				"c", "x", "A", "AB", "Abc", "<", "<=", "<<=", "<>" };
+		assertSameAsAlternatives(CharCompare.caseSensitive, new String[] {
+				"abc", "ab", "b", "<<=", "<=", "<" }, inputs);
+		assertSameAsAlternatives(CharCompare.caseSensitive, new String[] {
+				"a", "ab", "abc" }, inputs);
+		assertSameAsAlternatives(CharCompare.caseInsensitive, new String[] {
+				"abc", "B", "<>" }, inputs);
+		assertSameAsAlternatives(CharCompare.caseSensitive, new String[] {
+				"x", "" }, inputs);
+	}
+
+	@Test
+	public void firstDeclaredLexemeWinsEvenIfShorter() {
+		final KeywordSetAnalyzer keywordSet = KeywordSetAnalyzer.of(
+				analyzer("<"), analyzer("<="));
+		final AnalysisResult result = keywordSet.analyze(sourceCode("<=1"));
+		assertTrue(result.wasSuccessful());
+		assertEquals("=1", result.remainingSourceCode().toString());
+	}
+
+	@Test
+	public void returnsTheExecutorOfTheMatchingLexeme() {
+		final Executor plus = new TerminalSymbolExecutor<>("+");
+		final Executor minus = new TerminalSymbolExecutor<>("-");
+		final KeywordSetAnalyzer keywordSet = KeywordSetAnalyzer.of(
+				analyzer("+", CharCompare.caseSensitive, plus),
+				analyzer("-", CharCompare.caseSensitive, minus));
+		assertSame(minus, keywordSet.analyze(sourceCode("-1")).getExecutor());
+		assertSame(plus, keywordSet.analyze(sourceCode("+1")).getExecutor());
+	}
+
+	@Test
+	public void onlyPlainTerminalsWithTheSameComparisonCanBeReplaced() {
+		assertTrue(KeywordSetAnalyzer.canReplace(analyzer("a"), analyzer("b")));
+		assertFalse(KeywordSetAnalyzer.canReplace(analyzer("a")));
+		assertFalse(KeywordSetAnalyzer.canReplace(analyzer("a"),
+				analyzer("b", CharCompare.caseInsensitive)));
+		assertFalse(KeywordSetAnalyzer.canReplace(analyzer("a"),
+				NullAnalyzer.exec(input -> null)));
+	}
+}
@@ -2,9 +2,16 @@ package com.javax0.jdsl.analyzers;
 
 import static com.javax0.jdsl.analyzers.MockAnalyzerGeneratorUtil.successNTimesThenFail;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
 import com.javax0.jdsl.executors.Factory;
 import com.javax0.jdsl.executors.ListExecutor;
 
@@ -35,4 +42,42 @@ public class ListAnalyzerTest {
 			}
 		}
 	}
+
+	@Test
+	public void nestedStatesAreCountedWithoutAList() {
+		final GrammarDefinition grammar = new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				skipSpaces();
+				return many(list(NumberAnalyzer.number(), kw(";")));
+			}
+		};
+		final String code = "1; 2; 3;";
+		for (final SourceCode input : new SourceCode[] {
+				new StringSourceCode(code),
+				new ReaderSourceCode(new StringReader(code)) }) {
+			final ListAnalysisState state = (ListAnalysisState) grammar
+					.analyze(input).getState();
+			Assert.assertFalse(state.getStates() instanceof ArrayList);
+			Assert.assertEquals(3, state.size());
+			for (final State element : state) {
+				Assert.assertFalse(((ListAnalysisState) element).getStates() instanceof ArrayList);
+				Assert.assertEquals(2, ((ListAnalysisState) element).size());
+			}
+		}
+	}
+
+	@Test
+	public void statesAreKeptWhenThereIsAState() {
+		final State closureState = new State() {
+		};
+		final ListAnalyzer analyzer = new ListAnalyzer(NO_EXECUTOR);
+		analyzer.add(new TerminalSymbolAnalyzer("a"),
+				NullAnalyzer.exec(input -> closureState),
+				new TerminalSymbolAnalyzer("b"));
+		final ListAnalysisState state = (ListAnalysisState) analyzer.analyze(
+				new StringSourceCode("ab")).getState();
+		Assert.assertEquals(Arrays.asList(null, closureState, null),
+				state.getStates());
+	}
 }
@@ -0,0 +1,151 @@
+package com.javax0.jdsl.analyzers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+
+public class MappedFileSourceCodeTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path write(final byte[] bytes) throws IOException {
+		final Path path = folder.newFile().toPath();
+		Files.write(path, bytes);
+		return path;
+	}
+
+	private Path write(final String content) throws IOException {
+		return write(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String mixedText(final int n) {
+		final StringBuilder sb = new StringBuilder();
+		final String[] pieces = { "a", "é", "€", "😀", " ",
+				"xyz" };
+		for (int i = 0; i < n; i++) {
+			sb.append(pieces[i % pieces.length]);
+		}
+		return sb.toString();
+	}
+
+	private static void assertSameCharacters(final String expected,
+			final SourceCode sc) {
+		assertEquals(expected.length(), sc.length());
+		for (int i = 0; i < expected.length(); i++) {
+			assertEquals("character " + i, expected.charAt(i), sc.charAt(i));
+		}
+	}
+
+	@Test
+	public void readsAsciiFile() throws IOException {
+		final String text = "some ascii text";
+		final SourceCode sc = new MappedFileSourceCode(write(text));
+		assertSameCharacters(text, sc);
+		assertEquals(text, sc.toString());
+	}
+
+	@Test
+	public void decodesMultiByteCharactersAcrossBlocks() throws IOException {
+		final String text = mixedText(5 * MappedFileSourceCode.BLOCK_SIZE);
+		final SourceCode sc = new MappedFileSourceCode(write(text));
+		assertSameCharacters(text, sc);
+	}
+
+	@Test
+	public void supplementaryCharacterCanStartAtTheEndOfABlock()
+			throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < MappedFileSourceCode.BLOCK_SIZE - 1; i++) {
+			sb.append('é');
+		}
+		sb.append("😀tail");
+		final String text = sb.toString();
+		final SourceCode sc = new MappedFileSourceCode(write(text));
+		assertSameCharacters(text, sc);
+		assertEquals('\ude00', sc.charAt(MappedFileSourceCode.BLOCK_SIZE));
+	}
+
+	@Test
+	public void readsFileMappedInManySmallMappings() throws IOException {
+		final String text = mixedText(3000);
+		final SourceCode sc = new MappedFileSourceCode(write(text), 4);
+		assertSameCharacters(text, sc);
+	}
+
+	@Test
+	public void restIsBasedOnTheOffset() throws IOException {
+		final String text = mixedText(2500);
+		final SourceCode sc = new MappedFileSourceCode(write(text), 6);
+		for (int i = 0; i < text.length(); i += 7) {
+			final SourceCode rest = sc.rest(i);
+			assertEquals(text.length() - i, rest.length());
+			assertEquals(text.charAt(i), rest.charAt(0));
+			assertEquals(sc.rest(i), rest);
+		}
+		assertSame(sc, sc.rest(0));
+		assertSame(StringSourceCode.EMPTY_SOURCE, sc.rest(text.length()));
+		assertEquals(text.substring(2000), sc.rest(2000).toString());
+	}
+
+	@Test
+	public void skipsByteOrderMark() throws IOException {
+		final byte[] text = "bom".getBytes(StandardCharsets.UTF_8);
+		final byte[] bytes = new byte[text.length + 3];
+		bytes[0] = (byte) 0xEF;
+		bytes[1] = (byte) 0xBB;
+		bytes[2] = (byte) 0xBF;
+		System.arraycopy(text, 0, bytes, 3, text.length);
+		assertSameCharacters("bom", new MappedFileSourceCode(write(bytes)));
+	}
+
+	@Test
+	public void malformedBytesAreReplaced() throws IOException {
+		final byte[] bytes = { 'a', (byte) 0xC3, 'b', (byte) 0xFF, (byte) 0xE2,
+				(byte) 0x82 };
+		assertSameCharacters("a�b���",
+				new MappedFileSourceCode(write(bytes)));
+	}
+
+	@Test
+	public void emptyFileIsEmptySource() throws IOException {
+		final SourceCode sc = new MappedFileSourceCode(write(new byte[0]));
+		assertEquals(0, sc.length());
+		assertEquals("", sc.toString());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void charAtBeyondTheEndThrows() throws IOException {
+		new MappedFileSourceCode(write("abc")).charAt(3);
+	}
+
+	@Test
+	public void grammarAnalyzesMappedFile() throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			sb.append(i).append(" é ");
+		}
+		final GrammarDefinition grammar = new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				skipSpaces();
+				return many(list(NumberAnalyzer.number(), kw("é")));
+			}
+		};
+		final AnalysisResult result = grammar.analyze(new MappedFileSourceCode(
+				write(sb.toString()), 8));
+		assertTrue(result.wasSuccessful());
+	}
+}
@@ -0,0 +1,102 @@
+package com.javax0.jdsl.analyzers;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+import com.javax0.jdsl.analyzers.terminals.TerminalSymbolAnalyzer;
+import com.javax0.jdsl.executors.Executor;
+
+public class OffsetAnalyzerTest {
+
+	private static GrammarDefinition grammar() {
+		return new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				skipSpaces();
+				final Define expression = later();
+				expression.define(or(list(kw("("), expression, kw(")")),
+						list(NumberAnalyzer.number(), kw("+"), expression),
+						NumberAnalyzer.number()));
+				return many(list(expression, kw(";")));
+			}
+		};
+	}
+
+	private static Object execute(final AnalysisResult result) {
+		final Executor executor = result.getExecutor();
+		return executor == null ? null : executor.execute(null);
+	}
+
+	@Test
+	public void offsetAnalysisReturnsTheSameAsTheLegacyAnalysis() {
+		final GrammarDefinition grammar = grammar();
+		final String code = " 1 + (2 + 3) ; 4;(5) ;";
+		final AnalysisResult legacy = grammar.analyze(new ReaderSourceCode(
+				new StringReader(code)));
+		final AnalysisResult offset = grammar.analyze(new StringSourceCode(
+				code));
+		Assert.assertTrue(legacy.wasSuccessful());
+		Assert.assertTrue(offset.wasSuccessful());
+		Assert.assertEquals(execute(legacy), execute(offset));
+		Assert.assertEquals(((ListAnalysisState) legacy.getState()).size(),
+				((ListAnalysisState) offset.getState()).size());
+	}
+
+	@Test
+	public void failedAnalysisResetsTheBuilder() {
+		final ListAnalyzer list = new ListAnalyzer(null);
+		list.setSkipAnalyzer(WhiteSpaceSkippingAnalyzer.spaces());
+		list.add(NumberAnalyzer.number(), NumberAnalyzer.number());
+		final AnalysisBuilder builder = new AnalysisBuilder();
+		final int mark = builder.mark();
+		Assert.assertEquals(OffsetAnalyzer.FAILED,
+				list.analyze(new StringSourceCode("x 1 a"), 2, builder));
+		Assert.assertEquals(mark, builder.mark());
+		Assert.assertEquals(5,
+				list.analyze(new StringSourceCode("x 1 2"), 2, builder));
+		Assert.assertEquals(mark, builder.mark());
+		Assert.assertEquals(2,
+				((ListAnalysisState) builder.getState()).size());
+	}
+
+	private static class CountingSkippingAnalyzer extends
+			WhiteSpaceSkippingAnalyzer {
+		private int count = 0;
+
+		@Override
+		protected int countCharacters(final SourceCode input, final int offset) {
+			count++;
+			return super.countCharacters(input, offset);
+		}
+	}
+
+	@Test
+	public void skippedCharactersAreScannedOncePerPosition() {
+		final CountingSkippingAnalyzer skip = new CountingSkippingAnalyzer();
+		final AlternativesAnalyzer alternatives = new AlternativesAnalyzer();
+		for (final String lexeme : new String[] { "a", "b", "c" }) {
+			final ListAnalyzer list = new ListAnalyzer(null);
+			list.setSkipAnalyzer(skip);
+			list.add(new TerminalSymbolAnalyzer(lexeme));
+			alternatives.add(list);
+		}
+		final AnalysisBuilder builder = new AnalysisBuilder();
+		Assert.assertEquals(5, alternatives.analyze(new StringSourceCode(
+				"    c"), 0, builder));
+		// once before the alternatives, once after "c"
+		Assert.assertEquals(2, skip.count);
+	}
+
+	@Test
+	public void analyzersNotImplementingTheProtocolAreAdapted() {
+		final Analyzer legacy = input -> SimpleAnalysisResult.success(
+				TestAnalyzer.class, input.rest(2), null);
+		final AnalysisBuilder builder = new AnalysisBuilder();
+		Assert.assertEquals(5, OffsetAnalyzer.analyze(legacy,
+				new StringSourceCode("abcdef"), 3, builder));
+	}
+}
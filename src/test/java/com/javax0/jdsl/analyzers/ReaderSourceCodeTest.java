@@ -0,0 +1,166 @@
+package com.javax0.jdsl.analyzers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+import com.javax0.jdsl.executors.Executor;
+
+public class ReaderSourceCodeTest {
+
+	/**
+	 * Reader that generates {@code count} statements like {@code 17;} and
+	 * counts the characters it returned.
+	 */
+	private static class StatementReader extends Reader {
+		private final int count;
+		private int statement = 0;
+		private String current = "";
+		private int index = 0;
+		private long read = 0;
+
+		private StatementReader(final int count) {
+			this.count = count;
+		}
+
+		@Override
+		public int read(final char[] buffer, final int offset, final int length) {
+			if (index == current.length()) {
+				if (statement == count) {
+					return -1;
+				}
+				current = statement++ + ";\n";
+				index = 0;
+			}
+			final int n = Math.min(length, current.length() - index);
+			current.getChars(index, index + n, buffer, offset);
+			index += n;
+			read += n;
+			return n;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void willNotAcceptNull() {
+		new ReaderSourceCode((Reader) null);
+	}
+
+	@Test
+	public void givesBackTheCharactersOfTheReader() {
+		final String text = "some text that is longer than a chunk";
+		final SourceCode sc = new ReaderSourceCode(new StringReader(text), 4);
+		for (int i = 0; i < text.length(); i++) {
+			assertEquals(text.charAt(i), sc.charAt(i));
+			assertEquals(text.charAt(i), sc.rest(i).charAt(0));
+		}
+		assertEquals(text.length(), sc.length());
+		assertEquals(text, sc.toString());
+		assertSame(sc, sc.rest(0));
+		assertSame(StringSourceCode.EMPTY_SOURCE, sc.rest(text.length()));
+	}
+
+	@Test
+	public void readsOnlyTheNeededCharacters() {
+		final StatementReader reader = new StatementReader(1000);
+		final SourceCode sc = new ReaderSourceCode(reader, 16);
+		assertTrue(sc.hasAtLeast(3));
+		assertTrue(reader.read <= 16);
+		assertTrue(sc.rest(20).hasAtLeast(1));
+		assertTrue(reader.read <= 32);
+	}
+
+	@Test
+	public void hasAtLeastIsFalseAtTheEndOfTheStream() {
+		final SourceCode sc = new ReaderSourceCode(new StringReader("abc"), 2);
+		assertTrue(sc.hasAtLeast(3));
+		assertFalse(sc.hasAtLeast(4));
+		assertTrue(sc.rest(2).hasAtLeast(1));
+		assertFalse(sc.rest(3).hasAtLeast(1));
+	}
+
+	@Test
+	public void committedCharactersAreFreed() {
+		final SourceCode sc = new ReaderSourceCode(new StringReader(
+				"0123456789"), 2);
+		final SourceCode rest = sc.rest(5);
+		rest.commit();
+		assertEquals('4', sc.charAt(4));
+		assertEquals('5', rest.charAt(0));
+		try {
+			sc.charAt(3);
+			Assert.fail();
+		} catch (final IllegalStateException e) {
+		}
+	}
+
+	@Test
+	public void readsChannel() {
+		final byte[] bytes = "árvíztűrő".getBytes(StandardCharsets.UTF_8);
+		final SourceCode sc = new ReaderSourceCode(Channels.newChannel(
+				new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8);
+		assertEquals("árvíztűrő", sc.toString());
+	}
+
+	@Test
+	public void cutFreesTheAnalyzedStatements() {
+		final GrammarDefinition grammar = new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				skipSpaces();
+				return many(list(NumberAnalyzer.number(), kw(";"), cut()));
+			}
+		};
+		final StatementReader reader = new StatementReader(20000);
+		final SourceCode sc = new ReaderSourceCode(reader, 64);
+		assertTrue(grammar.analyze(sc).wasSuccessful());
+		assertEquals(20000, reader.statement);
+		try {
+			sc.charAt(0);
+			Assert.fail();
+		} catch (final IllegalStateException e) {
+		}
+	}
+
+	@Test
+	public void packratAndParallelGrammarsDoNotReadTheWholeStream() {
+		final GrammarDefinition grammar = new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				packrat();
+				parallel();
+				skipSpaces();
+				return many(list(NumberAnalyzer.number(), kw(";"), cut()));
+			}
+		};
+		final StatementReader reader = new StatementReader(100000);
+		final Iterator<Executor> executors = grammar.stream(
+				new ReaderSourceCode(reader, 64)).iterator();
+		assertEquals(0L, executors.next().execute(null));
+		assertTrue(reader.read <= 4 * 64);
+		final StatementReader wholeReader = new StatementReader(20000);
+		final SourceCode sc = new ReaderSourceCode(wholeReader, 64);
+		assertTrue(grammar.analyze(sc).wasSuccessful());
+		try {
+			sc.charAt(0);
+			Assert.fail();
+		} catch (final IllegalStateException e) {
+		}
+	}
+}
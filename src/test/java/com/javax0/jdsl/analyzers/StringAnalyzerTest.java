@@ -169,4 +169,16 @@ public class StringAnalyzerTest {
 	public void unterminatedStringWithEscapedApostropheFails() {
 		failUnterminatedString("A\\'BC");
 	}
+
+	@Test
+	public void analysesStringAtOffset() {
+		final SourceCode sc = sourceCode("x = 'A\\tB'.");
+		final AnalysisBuilder builder = new AnalysisBuilder();
+		final OffsetAnalyzer analyzer = (OffsetAnalyzer) string();
+		assertEquals(10, analyzer.analyze(sc, 4, builder));
+		assertEquals("A\tB", builder.getExecutor().execute(null));
+		assertEquals(OffsetAnalyzer.FAILED, analyzer.analyze(sc, 3, builder));
+		assertEquals(OffsetAnalyzer.FAILED,
+				analyzer.analyze(sourceCode("x = 'AB"), 4, builder));
+	}
 }
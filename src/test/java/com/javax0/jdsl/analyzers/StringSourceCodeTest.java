@@ -55,4 +55,45 @@ public class StringSourceCodeTest {
 		assertTrue(StringSourceCode.EMPTY_SOURCE == sourceCode(SOME_STRING)
 				.rest(SOME_STRING.length()));
 	}
+
+	@Test
+	public void restIsEqualToTheSourceCodeOfTheRemainingCharacters() {
+		final SourceCode sc = sourceCode(SOME_STRING);
+		for (int i = 0; i < sc.length(); i++) {
+			final SourceCode rest = sc.rest(i);
+			final SourceCode expected = new StringSourceCode(
+					SOME_STRING.substring(i));
+			assertEquals(expected, rest);
+			assertEquals(rest, expected);
+			assertEquals(expected.hashCode(), rest.hashCode());
+			assertEquals(SOME_STRING.substring(i), rest.toString());
+		}
+	}
+
+	@Test
+	public void restOfRestIsCountedFromTheStartOfTheRest() {
+		final SourceCode sc = sourceCode(SOME_STRING);
+		assertEquals(sc.rest(5), sc.rest(2).rest(3));
+		assertEquals(SOME_STRING.length() - 5, sc.rest(2).rest(3).length());
+	}
+
+	@Test
+	public void restOfStringSourceCodeIsEqualToTheRemainingCharacters() {
+		final SourceCode sc = new StringSourceCode(SOME_STRING);
+		assertEquals(new StringSourceCode(SOME_STRING.substring(3)),
+				sc.rest(3));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void restDoesNotGiveTheCharactersBeforeIt() {
+		sourceCode(SOME_STRING).rest(3).charAt(-1);
+	}
+
+	@Test
+	public void stringSourceCodeIsBackedByTheArrayOfItsRest() {
+		final SourceCode sc = new StringSourceCode(SOME_STRING);
+		assertEquals(SOME_STRING, new String(sc.array(), sc.arrayOffset(),
+				sc.length()));
+		Assert.assertSame(sc.array(), sc.rest(3).array());
+	}
 }
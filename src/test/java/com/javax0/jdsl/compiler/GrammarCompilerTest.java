@@ -0,0 +1,140 @@
+package com.javax0.jdsl.compiler;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.ListAnalysisState;
+import com.javax0.jdsl.analyzers.ReaderSourceCode;
+import com.javax0.jdsl.analyzers.SourceCode;
+import com.javax0.jdsl.analyzers.State;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.javax0.jdsl.analyzers.NullAnalyzer.exec;
+import static com.javax0.jdsl.analyzers.terminals.IdentifierAnalyzer.identifier;
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+import static com.javax0.jdsl.analyzers.terminals.StringAnalyzer.string;
+
+public class GrammarCompilerTest {
+
+    private static class TestGrammar extends GrammarDefinition {
+        private final boolean compiled;
+        private final boolean packrat;
+
+        private TestGrammar(final boolean compiled, final boolean packrat) {
+            this.compiled = compiled;
+            this.packrat = packrat;
+        }
+
+        @Override
+        protected Analyzer define() {
+            if (compiled) {
+                compile();
+            }
+            if (packrat) {
+                packrat();
+            }
+            skipSpaces();
+            final Define expression = later();
+            final Analyzer value = or(exec(input -> null), number(), string(), identifier(),
+                    list(kw("("), expression, kw(")")));
+            final Analyzer product = list(value, manyOptional(list(or(kw_t("*"), kw_t("/")), value)));
+            expression.define(or(list(product, kw_t("+"), expression), list(product, kw_t("-"), expression), product));
+            final Analyzer statement = or(
+                    list(KW("print"), expression, kw(";")),
+                    list(kw("if"), expression, kw("then"), expression, optional(kw("else"), expression), kw(";")),
+                    list(identifier(), kw("="), expression, kw(";")));
+            return many(statement);
+        }
+    }
+
+    private static final String[] SOURCES = {
+            "a = 1;",
+            "PRINT 1 + 2 * (3 - x) / \"s\";",
+            "if a then b else (c + 1); a = b * c * d; print 'x';",
+            "if a then b; if a then b else c;",
+            "a = ((((1))));",
+            "a = 1",
+            "a = (1;",
+            "print ;",
+            "",
+            "a = 1; b",
+    };
+
+    private static Object shape(final State state) {
+        if (state instanceof ListAnalysisState) {
+            final List<Object> list = new ArrayList<>();
+            for (final State s : (ListAnalysisState) state) {
+                list.add(shape(s));
+            }
+            return list;
+        }
+        return state;
+    }
+
+    private static void assertSameResult(final boolean packrat) {
+        for (final String source : SOURCES) {
+            final AnalysisResult expected = new TestGrammar(false, packrat).analyze(new StringSourceCode(source));
+            final AnalysisResult actual = new TestGrammar(true, packrat).analyze(new StringSourceCode(source));
+            Assert.assertEquals(source, expected.wasSuccessful(), actual.wasSuccessful());
+            if (expected.wasSuccessful()) {
+                Assert.assertEquals(source, expected.getExecutor().execute(null), actual.getExecutor().execute(null));
+                Assert.assertEquals(source, shape(expected.getState()), shape(actual.getState()));
+                Assert.assertEquals(source, expected.remainingSourceCode().length(),
+                        actual.remainingSourceCode().length());
+            }
+        }
+    }
+
+    @Test
+    public void compiledGrammarGivesTheSameResults() {
+        assertSameResult(false);
+    }
+
+    @Test
+    public void compiledPackratGrammarGivesTheSameResults() {
+        assertSameResult(true);
+    }
+
+    @Test
+    public void grammarIsCompiledWhenBuilt() {
+        final TestGrammar grammar = new TestGrammar(true, false);
+        grammar.build();
+        Assert.assertTrue(grammar.analyze(new StringSourceCode("a = 1;")).wasSuccessful());
+        Assert.assertFalse(grammar.analyze(new StringSourceCode("a = ;")).wasSuccessful());
+    }
+
+    @Test
+    public void inputsNotInMemoryAreAnalyzedByTheOriginalAnalyzers() {
+        final AnalysisResult result = new TestGrammar(true, false)
+                .analyze(new ReaderSourceCode(new StringReader("a = 1; print a;")));
+        Assert.assertTrue(result.wasSuccessful());
+    }
+
+    @Test
+    public void restOfAnInputIsAnalyzedInTheSharedArray() {
+        final SourceCode input = StringSourceCode.sourceCode("a = 1; b = (2 + a);").rest(7);
+        final AnalysisResult expected = new TestGrammar(false, false).analyze(input);
+        final AnalysisResult actual = new TestGrammar(true, false).analyze(input);
+        Assert.assertTrue(actual.wasSuccessful());
+        Assert.assertEquals(expected.getExecutor().execute(null), actual.getExecutor().execute(null));
+        Assert.assertEquals(expected.remainingSourceCode(), actual.remainingSourceCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void undefinedRuleCanNotBeCompiled() {
+        final GrammarDefinition grammar = new GrammarDefinition() {
+            @Override
+            protected Analyzer define() {
+                return later();
+            }
+        };
+        GrammarCompiler.compile(grammar.later());
+    }
+}
@@ -0,0 +1,146 @@
+package com.javax0.jdsl.executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BinaryOperationExecutorTest {
+
+    private static final BinaryOperationExecutor.Operation ADD = new BinaryOperationExecutor.Operation() {
+        @Override
+        public long applyLong(final long a, final long b) {
+            return a + b;
+        }
+
+        @Override
+        public double applyDouble(final double a, final double b) {
+            return a + b;
+        }
+
+        @Override
+        public Object applyGeneric(final Object a, final Object b) {
+            return "" + a + b;
+        }
+    };
+
+    private static class VariableContext implements Context {
+        private Object value;
+    }
+
+    private static class VariableExecutor implements Executor {
+        @Override
+        public Object execute(final Context context) {
+            return ((VariableContext) context).value;
+        }
+    }
+
+    private static Executor add(final Executor a, final Executor b) {
+        return new BinaryOperationExecutor(ADD).withList(new ArrayList<>(Arrays.asList(a, new TerminalSymbolExecutor<>("+"), b)));
+    }
+
+    private static AbstractListExecutor root(final Executor executor) {
+        return (AbstractListExecutor) new SimpleListExecutor().withList(new ArrayList<>(Arrays.asList(executor)));
+    }
+
+    private static VariableContext context(final Object value) {
+        final VariableContext context = new VariableContext();
+        context.value = value;
+        return context;
+    }
+
+    @Test
+    public void specializesForLongOperands() {
+        final AbstractListExecutor root = root(add(TerminalSymbolExecutor.of(1L), new VariableExecutor()));
+        Assert.assertEquals(3L, root.execute(context(2L)));
+        Assert.assertTrue(root.getExecutor(0) instanceof LongExecutor);
+        Assert.assertEquals(4L, root.execute(context(3L)));
+    }
+
+    @Test
+    public void specializesForDoubleOperands() {
+        final AbstractListExecutor root = root(add(TerminalSymbolExecutor.of(1.5), new VariableExecutor()));
+        Assert.assertEquals(2.0, root.execute(context(0.5)));
+        Assert.assertTrue(root.getExecutor(0) instanceof DoubleExecutor);
+    }
+
+    @Test
+    public void deoptimizesWhenTheTypeChanges() {
+        final AbstractListExecutor root = root(add(TerminalSymbolExecutor.of(1L), new VariableExecutor()));
+        Assert.assertEquals(3L, root.execute(context(2L)));
+        Assert.assertEquals(1.5, root.execute(context(0.5)));
+        final Executor generic = root.getExecutor(0);
+        Assert.assertFalse(generic instanceof LongExecutor);
+        Assert.assertEquals("1x", root.execute(context("x")));
+        Assert.assertEquals(3L, root.execute(context(2L)));
+        Assert.assertSame(generic, root.getExecutor(0));
+    }
+
+    @Test
+    public void nestedSpecializedExecutorsDeoptimizeTogether() {
+        final Executor inner = add(new VariableExecutor(), TerminalSymbolExecutor.of(1L));
+        final AbstractListExecutor root = root(add(inner, TerminalSymbolExecutor.of(10L)));
+        Assert.assertEquals(13L, root.execute(context(2L)));
+        final AbstractListExecutor outer = (AbstractListExecutor) root.getExecutor(0);
+        Assert.assertTrue(outer instanceof LongExecutor);
+        Assert.assertTrue(outer.getExecutor(0) instanceof LongExecutor);
+        Assert.assertEquals(11.5, root.execute(context(0.5)));
+        Assert.assertFalse(root.getExecutor(0) instanceof LongExecutor);
+        Assert.assertEquals("x110", root.execute(context("x")));
+    }
+
+    @Test
+    public void executorWithoutParentWorksWithoutSpecialization() {
+        final Executor executor = add(new VariableExecutor(), new VariableExecutor());
+        Assert.assertEquals(4L, executor.execute(context(2L)));
+        Assert.assertEquals("xx", executor.execute(context("x")));
+    }
+
+    @Test
+    public void replacedExecutorDoesNotReplaceItsReplacement() {
+        final Executor executor = add(new VariableExecutor(), TerminalSymbolExecutor.of(1L));
+        final AbstractListExecutor root = root(executor);
+        root.execute(context(1L));
+        final Executor specialized = root.getExecutor(0);
+        Assert.assertNotSame(executor, specialized);
+        // like a compiled tree calling the executor it was compiled from
+        Assert.assertEquals("x1", executor.execute(context("x")));
+        Assert.assertSame(specialized, root.getExecutor(0));
+        Assert.assertEquals(3L, root.execute(context(2L)));
+    }
+
+    @Test
+    public void treeCanBeExecutedByMoreThreads() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            final AbstractListExecutor root = root(add(add(new VariableExecutor(), TerminalSymbolExecutor.of(1L)),
+                    new VariableExecutor()));
+            final List<Callable<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final Object value = i % 2 == 0 ? (Object) 1L : (Object) 1.5;
+                tasks.add(() -> root.execute(context(value)));
+            }
+            final ExecutorService pool = Executors.newFixedThreadPool(8);
+            try {
+                int i = 0;
+                for (final Future<Object> result : pool.invokeAll(tasks)) {
+                    Assert.assertEquals(i++ % 2 == 0 ? (Object) 3L : (Object) 4.0, result.get());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void primitiveHelpersConvertUnexpectedResults() {
+        final AbstractListExecutor root = root(add(new VariableExecutor(), TerminalSymbolExecutor.of(1L)));
+        root.execute(context(1L));
+        Assert.assertEquals(2.5, root.executeDouble(0, context(1.5)), 0.0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.javax0.jdsl.executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ConstantFolderTest {
+
+    private static class SumExecutor extends AbstractListExecutor implements Pure {
+        private int executions = 0;
+
+        @Override
+        public Object execute(final Context context) {
+            executions++;
+            long sum = 0;
+            for (final Executor executor : executorList) {
+                sum += (Long) executor.execute(context);
+            }
+            return sum;
+        }
+    }
+
+    private static class VariableExecutor implements Executor {
+        @Override
+        public Object execute(final Context context) {
+            return 10L;
+        }
+    }
+
+    private static class DivisionExecutor extends AbstractListExecutor implements Pure {
+        @Override
+        public Object execute(final Context context) {
+            return (Long) getExecutor(0).execute(context) / (Long) getExecutor(1).execute(context);
+        }
+    }
+
+    private static Executor constant(final long value) {
+        return new TerminalSymbolExecutor<>(value);
+    }
+
+    private static <T extends ListExecutor> T with(final T executor, final Executor... executors) {
+        executor.withList(new ArrayList<>(Arrays.asList(executors)));
+        return executor;
+    }
+
+    @Test
+    public void pureExecutorOfConstantsIsFolded() {
+        final SumExecutor sum = with(new SumExecutor(), constant(1), with(new SumExecutor(), constant(2), constant(3)));
+        final Executor folded = ConstantFolder.fold(sum);
+        Assert.assertTrue(folded instanceof TerminalSymbolExecutor);
+        Assert.assertEquals(6L, folded.execute(null));
+        Assert.assertEquals(1, sum.executions);
+    }
+
+    @Test
+    public void constantSubtreesAreFoldedInPlace() {
+        final SumExecutor sum = with(new SumExecutor(), new VariableExecutor(), with(new SumExecutor(), constant(2), constant(3)));
+        Assert.assertSame(sum, ConstantFolder.fold(sum));
+        Assert.assertTrue(sum.getExecutor(1) instanceof TerminalSymbolExecutor);
+        Assert.assertEquals(15L, sum.execute(null));
+    }
+
+    @Test
+    public void singleElementSimpleListIsReplacedByTheElement() {
+        final Executor variable = new VariableExecutor();
+        Assert.assertSame(variable, ConstantFolder.fold(with(new SimpleListExecutor(), variable)));
+        final Executor list = with(new SimpleListExecutor(), constant(1), constant(2));
+        Assert.assertSame(list, ConstantFolder.fold(list));
+    }
+
+    @Test
+    public void executorsThatFailAreNotFolded() {
+        final Executor division = with(new DivisionExecutor(), constant(1), constant(0));
+        Assert.assertSame(division, ConstantFolder.fold(division));
+    }
+
+    @Test
+    public void notPureExecutorsAreNotFolded() {
+        final Executor impure = new AbstractListExecutor() {
+            @Override
+            public Object execute(final Context context) {
+                return System.nanoTime();
+            }
+        }.withList(Arrays.asList(constant(1)));
+        Assert.assertSame(impure, ConstantFolder.fold(impure));
+    }
+}
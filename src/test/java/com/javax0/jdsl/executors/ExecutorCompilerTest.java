@@ -0,0 +1,123 @@
+package com.javax0.jdsl.executors;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ExecutorCompilerTest {
+
+    private static class AddExecutor extends AbstractListExecutor implements CompilableExecutor {
+        private static final MethodHandle ADD;
+
+        static {
+            try {
+                ADD = MethodHandles.lookup().findStatic(AddExecutor.class, "add",
+                        MethodType.methodType(long.class, long.class, long.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private static long add(final long a, final long b) {
+            return a + b;
+        }
+
+        @Override
+        public Object execute(final Context context) {
+            return add((Long) getExecutor(0).execute(context), (Long) getExecutor(1).execute(context));
+        }
+
+        @Override
+        public MethodHandle toMethodHandle(final ExecutorCompiler compiler) {
+            return compiler.apply(ADD, executorList);
+        }
+    }
+
+    private static class CountingExecutor implements Executor {
+        private int count = 0;
+
+        @Override
+        public Object execute(final Context context) {
+            return ++count;
+        }
+    }
+
+    private static Executor list(final Executor... executors) {
+        return new SimpleListExecutor().withList(new ArrayList<>(Arrays.asList(executors)));
+    }
+
+    private static Executor add(final Executor a, final Executor b) {
+        return new AddExecutor().withList(Arrays.asList(a, b));
+    }
+
+    private static Executor terminal(final Object value) {
+        return new TerminalSymbolExecutor<>(value);
+    }
+
+    @Test
+    public void compiledTerminalReturnsTheValue() {
+        Assert.assertEquals(13L, ExecutorCompiler.compile(terminal(13L)).execute(null));
+    }
+
+    @Test
+    public void compiledSimpleListReturnsTheSameAsTheInterpretedOne() {
+        final Executor executor = list(terminal(1L), null, list(terminal("a"), terminal("b")), list(terminal(2L)));
+        final Executor compiled = ExecutorCompiler.compile(executor);
+        Assert.assertEquals(executor.execute(null), compiled.execute(null));
+        Assert.assertEquals(Arrays.asList(1L, null, Arrays.asList("a", "b"), 2L), compiled.execute(null));
+    }
+
+    @Test
+    public void largeListsAreExecutedInALoop() {
+        final List<Executor> executors = new ArrayList<>();
+        for (long i = 0; i < 10 * ExecutorCompiler.MAX_COMBINED_LIST_SIZE; i++) {
+            executors.add(terminal(i));
+        }
+        final Executor executor = new SimpleListExecutor().withList(executors);
+        Assert.assertEquals(executor.execute(null), ExecutorCompiler.compile(executor).execute(null));
+    }
+
+    @Test
+    public void compilableExecutorsAreCombined() {
+        final Executor executor = add(terminal(1L), add(terminal(2L), terminal(3L)));
+        Assert.assertEquals(6L, ExecutorCompiler.compile(executor).execute(null));
+    }
+
+    @Test
+    public void otherExecutorsAreExecutedEachTime() {
+        final CountingExecutor counting = new CountingExecutor();
+        final Executor compiled = ExecutorCompiler.compile(list(counting, counting));
+        Assert.assertEquals(Arrays.asList(1, 2), compiled.execute(null));
+        Assert.assertEquals(Arrays.asList(3, 4), compiled.execute(null));
+    }
+
+    @Test
+    public void theResultOfTheAnalysisCanBeCompiled() {
+        final GrammarDefinition grammar = new GrammarDefinition() {
+            @Override
+            protected Analyzer define() {
+                skipSpaces();
+                return list(AddExecutor::new, NumberAnalyzer.number(), kw("+"), NumberAnalyzer.number());
+            }
+        };
+        final AnalysisResult result = grammar.analyze(new StringSourceCode("1 + 2"));
+        Assert.assertTrue(result.wasSuccessful());
+        Assert.assertEquals(3L, ExecutorCompiler.compile(result.getExecutor()).execute(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void operationHasToAcceptTheResultsOfTheExecutors() {
+        ExecutorCompiler.compile(new AddExecutor().withList(Arrays.asList(terminal(1L))));
+    }
+}
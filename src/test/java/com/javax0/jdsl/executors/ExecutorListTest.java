@@ -0,0 +1,44 @@
+package com.javax0.jdsl.executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ExecutorListTest {
+
+    private static Executor terminal(final Object value) {
+        return new TerminalSymbolExecutor<>(value);
+    }
+
+    @Test
+    public void withListCopiesTheExecutorsIntoAnExecutorList() {
+        final List<Executor> executors = new ArrayList<>(Arrays.asList(terminal(1L), terminal(2L)));
+        final SimpleListExecutor listExecutor = new SimpleListExecutor();
+        listExecutor.withList(executors);
+        executors.add(terminal(3L));
+        Assert.assertTrue(listExecutor.executorList instanceof ExecutorList);
+        Assert.assertEquals(2, listExecutor.numberOfExecutors());
+        Assert.assertEquals(Arrays.asList(1L, 2L), listExecutor.execute(null));
+    }
+
+    @Test
+    public void executorListIsNotCopiedAgain() {
+        final ExecutorList executors = ExecutorList.wrap(terminal(1L), terminal(2L));
+        Assert.assertSame(executors, ExecutorList.of(executors));
+    }
+
+    @Test
+    public void executorsCanBeReplaced() {
+        final ExecutorList executors = ExecutorList.wrap(terminal(1L), terminal(2L));
+        executors.set(1, terminal(3L));
+        Assert.assertEquals(3L, executors.get(1).execute(null));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void executorsCanNotBeAdded() {
+        ExecutorList.wrap(terminal(1L)).add(terminal(2L));
+    }
+}
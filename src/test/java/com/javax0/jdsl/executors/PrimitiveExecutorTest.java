@@ -0,0 +1,72 @@
+package com.javax0.jdsl.executors;
+
+import com.javax0.jdsl.analyzers.AnalysisResult;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+import com.javax0.jdsl.analyzers.terminals.NumberAnalyzer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class PrimitiveExecutorTest {
+
+    private static class SumExecutor extends AbstractListExecutor implements LongExecutor, Pure {
+        @Override
+        public long executeLong(final Context context) {
+            long sum = 0;
+            for (int i = 0; i < numberOfExecutors(); i++) {
+                sum += executeLong(i, context);
+            }
+            return sum;
+        }
+    }
+
+    private static class LessExecutor extends AbstractListExecutor implements BooleanExecutor {
+        @Override
+        public boolean executeBoolean(final Context context) {
+            return executeDouble(0, context) < executeDouble(1, context);
+        }
+    }
+
+    private static Executor number(final String source) {
+        final AnalysisResult result = NumberAnalyzer.number().analyze(new StringSourceCode(source));
+        Assert.assertTrue(result.wasSuccessful());
+        return result.getExecutor();
+    }
+
+    @Test
+    public void numbersAreSpecializedTerminals() {
+        Assert.assertTrue(number("13") instanceof LongExecutor);
+        Assert.assertEquals(13L, ((LongExecutor) number("13")).executeLong(null));
+        Assert.assertTrue(number("1.5") instanceof DoubleExecutor);
+        Assert.assertEquals(1.5, ((DoubleExecutor) number("1.5")).executeDouble(null), 0.0);
+        Assert.assertEquals(13L, number("13").execute(null));
+    }
+
+    @Test
+    public void listExecutorsGetPrimitiveValues() {
+        final Executor sum = new SumExecutor().withList(Arrays.asList(number("1"), number("2"),
+                new TerminalSymbolExecutor<>(3L)));
+        Assert.assertEquals(6L, ((LongExecutor) sum).executeLong(null));
+        Assert.assertEquals(6L, sum.execute(null));
+        final Executor less = new LessExecutor().withList(Arrays.asList(number("1"), number("1.5")));
+        Assert.assertTrue(((BooleanExecutor) less).executeBoolean(null));
+        Assert.assertEquals(Boolean.TRUE, less.execute(null));
+    }
+
+    @Test
+    public void terminalSymbolExecutorOfCreatesSpecializedExecutors() {
+        Assert.assertTrue(TerminalSymbolExecutor.of(1L) instanceof LongExecutor);
+        Assert.assertTrue(TerminalSymbolExecutor.of(1.0) instanceof DoubleExecutor);
+        Assert.assertTrue(TerminalSymbolExecutor.of(true) instanceof BooleanExecutor);
+        Assert.assertEquals(TerminalSymbolExecutor.class, TerminalSymbolExecutor.of("a").getClass());
+    }
+
+    @Test
+    public void specializedTerminalsAreConstants() {
+        final Executor folded = ConstantFolder.fold(new SumExecutor().withList(Arrays.asList(number("1"), number("2"))));
+        Assert.assertTrue(folded instanceof LongTerminalSymbolExecutor);
+        Assert.assertEquals(3L, ((LongExecutor) folded).executeLong(null));
+        Assert.assertEquals(3L, ExecutorCompiler.compile(folded).execute(null));
+    }
+}
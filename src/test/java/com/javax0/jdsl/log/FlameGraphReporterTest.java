@@ -0,0 +1,80 @@
+package com.javax0.jdsl.log;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+
+public class FlameGraphReporterTest {
+	private static final String SOURCE = "((1+2)+(3+4))";
+
+	@Before
+	public void assumeReporting() {
+		Assume.assumeTrue(ReporterFactory.REPORTING_ENABLED);
+	}
+
+	@After
+	public void resetReporter() {
+		ReporterFactory.setReporter(null);
+	}
+
+	private static String analyzeWith(final FlameGraphReporter reporter) {
+		ReporterFactory.setReporter(reporter);
+		final GrammarDefinition grammar = new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				final Define expression = later("expression");
+				final Define tag = later("tag");
+				tag.define(or(number(), list(kw("("), expression, kw(")"))));
+				expression.define(or(list(tag, kw("+"), tag), tag));
+				return expression;
+			}
+		};
+		assertTrue(grammar.analyze(new StringSourceCode(SOURCE))
+				.wasSuccessful());
+		return reporter.toCollapsed();
+	}
+
+	private static long total(final String collapsed) {
+		long sum = 0;
+		for (final String line : collapsed.split("\n")) {
+			assertTrue(line, line.matches(".+ \\d+"));
+			sum += Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+		}
+		return sum;
+	}
+
+	@Test
+	public void writesCollapsedStacksNamedByTheRules() {
+		final String collapsed = analyzeWith(new FlameGraphReporter());
+		for (final String line : collapsed.split("\n")) {
+			assertTrue(line, line.startsWith("expression"));
+		}
+		assertTrue(collapsed.contains("expression;AlternativesAnalyzer "));
+		assertTrue(collapsed.contains(";tag;"));
+	}
+
+	@Test
+	public void samplingRecordsEveryNthInvocation() {
+		final long all = total(analyzeWith(new FlameGraphReporter()));
+		final long sampled = total(analyzeWith(new FlameGraphReporter(3,
+				FlameGraphReporter.Weight.INVOCATIONS)));
+		assertEquals(all / 3, sampled);
+	}
+
+	@Test
+	public void measuresTimeWhenAskedTo() {
+		final String collapsed = analyzeWith(new FlameGraphReporter(1,
+				FlameGraphReporter.Weight.NANOSECONDS));
+		assertTrue(total(collapsed) > 0);
+	}
+}
@@ -0,0 +1,104 @@
+package com.javax0.jdsl.log;
+
+import static com.javax0.jdsl.analyzers.terminals.NumberAnalyzer.number;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.javax0.jdsl.GrammarDefinition;
+import com.javax0.jdsl.analyzers.Analyzer;
+import com.javax0.jdsl.analyzers.Define;
+import com.javax0.jdsl.analyzers.ReaderSourceCode;
+import com.javax0.jdsl.analyzers.StringSourceCode;
+
+public class ProfilingReporterTest {
+	private final ProfilingReporter profiler = new ProfilingReporter();
+
+	@Before
+	public void setReporter() {
+		Assume.assumeTrue(ReporterFactory.REPORTING_ENABLED);
+		ReporterFactory.setReporter(profiler);
+	}
+
+	@After
+	public void resetReporter() {
+		ReporterFactory.setReporter(null);
+	}
+
+	private static GrammarDefinition backtrackingGrammar() {
+		return new GrammarDefinition() {
+			@Override
+			protected Analyzer define() {
+				final Define expression = later("expression");
+				final Define tag = later("tag");
+				tag.define(or(number(), list(kw("("), expression, kw(")"))));
+				expression.define(or(list(tag, kw("+"), tag), tag));
+				return expression;
+			}
+		};
+	}
+
+	private ProfilingReporter.RuleStatistics statisticsOf(final String name) {
+		for (final ProfilingReporter.RuleStatistics s : profiler
+				.getStatistics()) {
+			if (s.getName().equals(name)) {
+				return s;
+			}
+		}
+		throw new AssertionError("There are no statistics for " + name);
+	}
+
+	@Test
+	public void countsInvocationsRetriesAndConsumedCharacters() {
+		assertTrue(backtrackingGrammar().analyze(
+				new StringSourceCode("(1+2)")).wasSuccessful());
+		final ProfilingReporter.RuleStatistics expression = statisticsOf("expression");
+		// once for the whole input and twice for the "1+2" inside the
+		// parentheses, because the first alternative of the outer expression
+		// fails after the ')' and the tag is analyzed again
+		assertEquals(3, expression.getInvocations());
+		assertEquals(3, expression.getSuccesses());
+		assertEquals(1, expression.getRetries());
+		assertEquals(5 + 3 + 3, expression.getConsumedCharacters());
+		final ProfilingReporter.RuleStatistics tag = statisticsOf("tag");
+		assertTrue(tag.getRetries() > 0);
+		assertTrue(tag.getInclusiveNanos() >= tag.getExclusiveNanos());
+	}
+
+	@Test
+	public void retriesAreCountedWithinOneAnalysis() {
+		final GrammarDefinition grammar = backtrackingGrammar();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(grammar.analyze(new StringSourceCode("(1+2)"))
+					.wasSuccessful());
+		}
+		assertEquals(3, statisticsOf("expression").getRetries());
+	}
+
+	@Test
+	public void streamInputsAreNotReadForThePositions() {
+		assertTrue(backtrackingGrammar().analyze(
+				new ReaderSourceCode(new StringReader("(1+2)")))
+				.wasSuccessful());
+		final ProfilingReporter.RuleStatistics expression = statisticsOf("expression");
+		assertEquals(3, expression.getInvocations());
+		assertEquals(0, expression.getRetries());
+		assertEquals(0, expression.getConsumedCharacters());
+	}
+
+	@Test
+	public void exportsTableJsonAndCsv() {
+		backtrackingGrammar().analyze(new StringSourceCode("1+2"));
+		assertTrue(profiler.hotRules(5).contains("expression"));
+		assertTrue(profiler.toJson().contains("\"rule\":\"expression\""));
+		assertTrue(profiler.toCsv().startsWith("rule,invocations,"));
+		profiler.reset();
+		assertTrue(profiler.getStatistics().isEmpty());
+	}
+}
@@ -0,0 +1,42 @@
+package com.javax0.jdsl.log;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ReporterFactoryTest {
+
+	@After
+	public void resetReporter() {
+		ReporterFactory.setReporter(null);
+	}
+
+	@Test
+	public void nullReporterIsNotReporting() {
+		ReporterFactory.setReporter(new NullReporter());
+		assertFalse(ReporterFactory.getReporter().isEnabled());
+		assertFalse(ReporterFactory.isReporting());
+	}
+
+	@Test
+	public void defaultReporterIsNotReporting() {
+		ReporterFactory.setReporter(null);
+		assertTrue(ReporterFactory.getReporter() instanceof NullReporter);
+		assertFalse(ReporterFactory.isReporting());
+	}
+
+	@Test
+	public void logReporterIsReportingUnlessSwitchedOff() {
+		final Reporter reporter = new LogReporter();
+		ReporterFactory.setReporter(reporter);
+		if (ReporterFactory.REPORTING_ENABLED) {
+			assertSame(reporter, ReporterFactory.getReporter());
+			assertTrue(ReporterFactory.isReporting());
+		} else {
+			assertFalse(ReporterFactory.isReporting());
+		}
+	}
+}
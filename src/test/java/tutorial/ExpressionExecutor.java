@@ -3,8 +3,9 @@ package tutorial;
 import com.javax0.jdsl.executors.AbstractListExecutor;
 import com.javax0.jdsl.executors.Context;
 import com.javax0.jdsl.executors.ListExecutor;
+import com.javax0.jdsl.executors.Pure;
 
-public class ExpressionExecutor extends AbstractListExecutor {
+public class ExpressionExecutor extends AbstractListExecutor implements Pure {
     @Override
     public Object execute(Context context) {
         if (numberOfExecutors() == 1) {
@@ -2,8 +2,9 @@ package tutorial;
 
 import com.javax0.jdsl.executors.AbstractListExecutor;
 import com.javax0.jdsl.executors.Context;
+import com.javax0.jdsl.executors.Pure;
 
-public class ProductExecutor extends AbstractListExecutor {
+public class ProductExecutor extends AbstractListExecutor implements Pure {
     @Override
     public Object execute(Context context) {
         if (numberOfExecutors() == 1) {
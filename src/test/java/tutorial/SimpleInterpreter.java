@@ -8,6 +8,7 @@ import com.javax0.jdsl.analyzers.Rule;
 import com.javax0.jdsl.analyzers.SourceCode;
 import com.javax0.jdsl.analyzers.StringSourceCode;
 import com.javax0.jdsl.executors.AbstractListExecutor;
+import com.javax0.jdsl.executors.ConstantFolder;
 import com.javax0.jdsl.executors.Context;
 import com.javax0.jdsl.executors.Executor;
 import com.javax0.jdsl.log.LogReporter;
@@ -59,7 +60,8 @@ public class SimpleInterpreter {
     private static SimpleInterpreterContext executeProgram(final String program) {
         SourceCode source = new StringSourceCode(program);
         AnalysisResult result = myGrammar.analyze(source);
-        Executor executor = result.getExecutor();
+        // the pure sum and product executors of constants, like (2+1)*3, are calculated only once
+        Executor executor = ConstantFolder.fold(result.getExecutor());
         SimpleInterpreterContext context = new SimpleInterpreterContext();
         final var calcResult = executor.execute(context);
         return context;